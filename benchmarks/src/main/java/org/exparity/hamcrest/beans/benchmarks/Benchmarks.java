@@ -0,0 +1,27 @@
+package org.exparity.hamcrest.beans.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the gc profiler so the allocation rate is reported
+ * alongside the throughput. Accepts the same arguments as the JMH runner, for
+ * example to run only the path matcher benchmarks
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar PathMatchersBenchmark
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public final class Benchmarks {
+
+	public static void main(final String[] args) throws Exception {
+		new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build())
+				.run();
+	}
+
+	private Benchmarks() {}
+}
@@ -0,0 +1,53 @@
+package org.exparity.hamcrest.beans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.exparity.hamcrest.beans.TheSameAs;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for comparing a chain of nodes many levels deep with
+ * {@link TheSameAs}, where the cost is dominated by the path built for each
+ * level rather than by the number of properties
+ *
+ * @author Stewart Bissett
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeepGraphBenchmark {
+
+	/**
+	 * The number of levels in the graph
+	 */
+	@Param({ "16", "256" })
+	public int depth;
+
+	private Node graph;
+	private TheSameAs<Node> theSameGraph;
+
+	@Setup
+	public void setUp() {
+		graph = Graphs.deepGraph(depth);
+		theSameGraph = TheSameAs.theSameAs(Graphs.deepGraph(depth));
+	}
+
+	@Benchmark
+	public boolean deepGraph() {
+		return theSameGraph.matches(graph);
+	}
+}
@@ -0,0 +1,338 @@
+package org.exparity.hamcrest.beans.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the object graphs used by the benchmarks. Each method builds a new
+ * graph so calling it twice gives an expected and an actual graph which are
+ * equal but share no instances.
+ *
+ * @author Stewart Bissett
+ */
+public final class Graphs {
+
+	/**
+	 * Return a bean with 24 properties of mixed types
+	 */
+	public static WideBean wideBean(final int seed) {
+		return new WideBean(seed);
+	}
+
+	/**
+	 * Return a chain of nodes the given number of levels deep
+	 */
+	public static Node deepGraph(final int depth) {
+		Node root = new Node("Node0", 0);
+		Node current = root;
+		for (int i = 1; i < depth; ++i) {
+			Node child = new Node("Node" + i, i);
+			current.getChildren().add(child);
+			current = child;
+		}
+		return root;
+	}
+
+	/**
+	 * Return a root node with the given number of children, each of which
+	 * refers back to the root and to its next sibling, the last to the first
+	 */
+	public static Node cyclicGraph(final int size) {
+		Node root = new Node("Root", -1);
+		for (int i = 0; i < size; ++i) {
+			Node child = new Node("Node" + i, i);
+			child.setParent(root);
+			root.getChildren().add(child);
+		}
+		for (int i = 0; i < size; ++i) {
+			root.getChildren().get(i).setSibling(root.getChildren().get((i + 1) % size));
+		}
+		return root;
+	}
+
+	/**
+	 * Return a holder with the given number of items in each of its
+	 * collections and arrays
+	 */
+	public static Holder holder(final int size) {
+		Holder holder = new Holder(size);
+		for (int i = 0; i < size; ++i) {
+			holder.getItems().add(new Item(i, "Item" + i, i * 0.25));
+			holder.getItemSet().add(new Item(i, "Item" + i, i * 0.25));
+			holder.getItemMap().put("Item" + i, new Item(i, "Item" + i, i * 0.25));
+			holder.getInts()[i] = i;
+			holder.getDoubles()[i] = i * 0.25;
+		}
+		return holder;
+	}
+
+	/**
+	 * Return a list of the given number of items
+	 */
+	public static List<Item> items(final int size) {
+		List<Item> items = new ArrayList<Item>(size);
+		for (int i = 0; i < size; ++i) {
+			items.add(new Item(i, "Item" + i, i * 0.25));
+		}
+		return items;
+	}
+
+	public static class WideBean {
+
+		private final String text0;
+		private final int count0;
+		private final long total0;
+		private final double amount0;
+		private final boolean flag0;
+		private final BigDecimal price0;
+		private final Date created0;
+		private final Integer quantity0;
+		private final String text1;
+		private final int count1;
+		private final long total1;
+		private final double amount1;
+		private final boolean flag1;
+		private final BigDecimal price1;
+		private final Date created1;
+		private final Integer quantity1;
+		private final String text2;
+		private final int count2;
+		private final long total2;
+		private final double amount2;
+		private final boolean flag2;
+		private final BigDecimal price2;
+		private final Date created2;
+		private final Integer quantity2;
+
+		public WideBean(final int seed) {
+			this.text0 = "Text" + seed;
+			this.count0 = seed;
+			this.total0 = seed * 1000L;
+			this.amount0 = seed * 1.5;
+			this.flag0 = seed % 2 == 0;
+			this.price0 = BigDecimal.valueOf(seed, 2);
+			this.created0 = new Date(seed * 86400000L);
+			this.quantity0 = Integer.valueOf(seed);
+			this.text1 = "Text" + seed;
+			this.count1 = seed;
+			this.total1 = seed * 1000L;
+			this.amount1 = seed * 1.5;
+			this.flag1 = seed % 2 == 0;
+			this.price1 = BigDecimal.valueOf(seed, 2);
+			this.created1 = new Date(seed * 86400000L);
+			this.quantity1 = Integer.valueOf(seed);
+			this.text2 = "Text" + seed;
+			this.count2 = seed;
+			this.total2 = seed * 1000L;
+			this.amount2 = seed * 1.5;
+			this.flag2 = seed % 2 == 0;
+			this.price2 = BigDecimal.valueOf(seed, 2);
+			this.created2 = new Date(seed * 86400000L);
+			this.quantity2 = Integer.valueOf(seed);
+		}
+
+		public String getText0() {
+			return text0;
+		}
+
+		public int getCount0() {
+			return count0;
+		}
+
+		public long getTotal0() {
+			return total0;
+		}
+
+		public double getAmount0() {
+			return amount0;
+		}
+
+		public boolean getFlag0() {
+			return flag0;
+		}
+
+		public BigDecimal getPrice0() {
+			return price0;
+		}
+
+		public Date getCreated0() {
+			return created0;
+		}
+
+		public Integer getQuantity0() {
+			return quantity0;
+		}
+
+		public String getText1() {
+			return text1;
+		}
+
+		public int getCount1() {
+			return count1;
+		}
+
+		public long getTotal1() {
+			return total1;
+		}
+
+		public double getAmount1() {
+			return amount1;
+		}
+
+		public boolean getFlag1() {
+			return flag1;
+		}
+
+		public BigDecimal getPrice1() {
+			return price1;
+		}
+
+		public Date getCreated1() {
+			return created1;
+		}
+
+		public Integer getQuantity1() {
+			return quantity1;
+		}
+
+		public String getText2() {
+			return text2;
+		}
+
+		public int getCount2() {
+			return count2;
+		}
+
+		public long getTotal2() {
+			return total2;
+		}
+
+		public double getAmount2() {
+			return amount2;
+		}
+
+		public boolean getFlag2() {
+			return flag2;
+		}
+
+		public BigDecimal getPrice2() {
+			return price2;
+		}
+
+		public Date getCreated2() {
+			return created2;
+		}
+
+		public Integer getQuantity2() {
+			return quantity2;
+		}
+	}
+
+	public static class Node {
+
+		private final String name;
+		private final int value;
+		private final List<Node> children = new ArrayList<Node>();
+		private Node parent, sibling;
+
+		public Node(final String name, final int value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getValue() {
+			return value;
+		}
+
+		public List<Node> getChildren() {
+			return children;
+		}
+
+		public Node getParent() {
+			return parent;
+		}
+
+		public void setParent(final Node parent) {
+			this.parent = parent;
+		}
+
+		public Node getSibling() {
+			return sibling;
+		}
+
+		public void setSibling(final Node sibling) {
+			this.sibling = sibling;
+		}
+	}
+
+	public static class Item {
+
+		private final int id;
+		private final String name;
+		private final double amount;
+
+		public Item(final int id, final String name, final double amount) {
+			this.id = id;
+			this.name = name;
+			this.amount = amount;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getAmount() {
+			return amount;
+		}
+	}
+
+	public static class Holder {
+
+		private final List<Item> items = new ArrayList<Item>();
+		private final Set<Item> itemSet = new HashSet<Item>();
+		private final Map<String, Item> itemMap = new LinkedHashMap<String, Item>();
+		private final int[] ints;
+		private final double[] doubles;
+
+		public Holder(final int size) {
+			this.ints = new int[size];
+			this.doubles = new double[size];
+		}
+
+		public List<Item> getItems() {
+			return items;
+		}
+
+		public Set<Item> getItemSet() {
+			return itemSet;
+		}
+
+		public Map<String, Item> getItemMap() {
+			return itemMap;
+		}
+
+		public int[] getInts() {
+			return ints;
+		}
+
+		public double[] getDoubles() {
+			return doubles;
+		}
+	}
+
+	private Graphs() {}
+}
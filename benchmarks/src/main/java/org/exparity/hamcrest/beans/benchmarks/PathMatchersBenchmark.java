@@ -0,0 +1,99 @@
+package org.exparity.hamcrest.beans.benchmarks;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.exparity.hamcrest.BeanMatchers;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Holder;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Item;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Node;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the path and property matchers, hasPath, hasPaths,
+ * everyItemHasPath, and hasProperty. Each matcher is built once, as a matcher
+ * held in a constant would be, and matched against the same graph.
+ *
+ * @author Stewart Bissett
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathMatchersBenchmark {
+
+	/**
+	 * The number of items in each collection of the graph
+	 */
+	@Param({ "100", "10000" })
+	public int size;
+
+	private Holder holder;
+	private List<Item> items;
+	private Node graph;
+
+	private Matcher<Holder> hasIndexedPath, hasQuantifiedPath, hasPaths;
+	private Matcher<Iterable<?>> everyItemHasPath;
+	private Matcher<Node> hasProperty;
+
+	@Setup
+	public void setUp() {
+		holder = Graphs.holder(size);
+		items = Graphs.items(size);
+		graph = Graphs.cyclicGraph(size);
+		hasIndexedPath = BeanMatchers.hasPath("Holder.Items[" + (size - 1) + "].Name", equalTo("Item" + (size - 1)));
+		hasQuantifiedPath = BeanMatchers.hasPath("Holder.Items[*].Amount", greaterThanOrEqualTo(0.0));
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("Holder.Items[0].Id", equalTo(0));
+		paths.put("Holder.Items[0].Name", equalTo("Item0"));
+		paths.put("Holder.Items[0].Amount", equalTo(0.0));
+		paths.put("Holder.Ints", notNullValue());
+		hasPaths = BeanMatchers.hasPaths(paths);
+		everyItemHasPath = BeanMatchers.everyItemHasPath("Item.Amount", greaterThanOrEqualTo(0.0));
+		hasProperty = BeanMatchers.hasProperty("Value", equalTo(size - 1));
+	}
+
+	@Benchmark
+	public boolean hasIndexedPath() {
+		return hasIndexedPath.matches(holder);
+	}
+
+	@Benchmark
+	public boolean hasQuantifiedPath() {
+		return hasQuantifiedPath.matches(holder);
+	}
+
+	@Benchmark
+	public boolean hasPaths() {
+		return hasPaths.matches(holder);
+	}
+
+	@Benchmark
+	public boolean everyItemHasPath() {
+		return everyItemHasPath.matches(items);
+	}
+
+	@Benchmark
+	public boolean hasProperty() {
+		return hasProperty.matches(graph);
+	}
+}
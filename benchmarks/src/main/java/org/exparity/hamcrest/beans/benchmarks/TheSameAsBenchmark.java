@@ -0,0 +1,145 @@
+package org.exparity.hamcrest.beans.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.exparity.hamcrest.BeanComparators;
+import org.exparity.hamcrest.beans.ComparisonConfiguration;
+import org.exparity.hamcrest.beans.TheSameAs;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Item;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.Node;
+import org.exparity.hamcrest.beans.benchmarks.Graphs.WideBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for comparing graphs of different shapes with
+ * {@link TheSameAs}. Each matcher is built once and compared with an equal
+ * graph which shares no instances with the expected graph, so every property
+ * is visited.
+ *
+ * @author Stewart Bissett
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TheSameAsBenchmark {
+
+	/**
+	 * The number of items in each collection, map, or array
+	 */
+	@Param({ "100", "10000" })
+	public int size;
+
+	private List<WideBean> wideBeans;
+	private Node cyclicGraph;
+	private List<Item> orderedList;
+	private Set<Item> unorderedSet;
+	private Map<String, Item> map;
+	private int[] ints;
+	private double[] doubles;
+
+	private TheSameAs<List<WideBean>> theSameWideBeans;
+	private TheSameAs<Node> theSameCyclicGraph;
+	private TheSameAs<List<Item>> theSameOrderedList, theSameHeavilyOverriddenList;
+	private TheSameAs<Set<Item>> theSameUnorderedSet;
+	private TheSameAs<Map<String, Item>> theSameMap;
+	private TheSameAs<int[]> theSameInts;
+	private TheSameAs<double[]> theSameDoubles;
+
+	@Setup
+	public void setUp() {
+		wideBeans = wideBeans(size);
+		cyclicGraph = Graphs.cyclicGraph(size);
+		orderedList = Graphs.items(size);
+		unorderedSet = new HashSet<Item>(Graphs.items(size));
+		map = Graphs.holder(size).getItemMap();
+		ints = Graphs.holder(size).getInts();
+		doubles = Graphs.holder(size).getDoubles();
+		theSameWideBeans = TheSameAs.theSameAs(wideBeans(size));
+		theSameCyclicGraph = TheSameAs.theSameAs(Graphs.cyclicGraph(size));
+		theSameOrderedList = TheSameAs.theSameAs(Graphs.items(size));
+		theSameHeavilyOverriddenList = TheSameAs.theSameAs(Graphs.items(size), heavilyOverridden());
+		theSameUnorderedSet = TheSameAs.theSameAs((Set<Item>) new HashSet<Item>(Graphs.items(size)));
+		theSameMap = TheSameAs.theSameAs(Graphs.holder(size).getItemMap());
+		theSameInts = TheSameAs.theSameAs(Graphs.holder(size).getInts());
+		theSameDoubles = TheSameAs.theSameAs(Graphs.holder(size).getDoubles());
+	}
+
+	@Benchmark
+	public boolean wideBeans() {
+		return theSameWideBeans.matches(wideBeans);
+	}
+
+	@Benchmark
+	public boolean cyclicGraph() {
+		return theSameCyclicGraph.matches(cyclicGraph);
+	}
+
+	@Benchmark
+	public boolean orderedList() {
+		return theSameOrderedList.matches(orderedList);
+	}
+
+	@Benchmark
+	public boolean unorderedSet() {
+		return theSameUnorderedSet.matches(unorderedSet);
+	}
+
+	@Benchmark
+	public boolean map() {
+		return theSameMap.matches(map);
+	}
+
+	@Benchmark
+	public boolean intArray() {
+		return theSameInts.matches(ints);
+	}
+
+	@Benchmark
+	public boolean doubleArray() {
+		return theSameDoubles.matches(doubles);
+	}
+
+	@Benchmark
+	public boolean heavyOverrides() {
+		return theSameHeavilyOverriddenList.matches(orderedList);
+	}
+
+	/**
+	 * Return a configuration with many path, property, and type overrides, most
+	 * of which never apply, as a large shared test configuration would have
+	 */
+	private static ComparisonConfiguration heavilyOverridden() {
+		ComparisonConfiguration configuration = ComparisonConfiguration.DEFAULTS;
+		for (int i = 0; i < 50; ++i) {
+			configuration = configuration.excludePath("ArrayList.Unused" + i).excludeProperty("Unused" + i);
+		}
+		return configuration.compareType(Double.class, BeanComparators.isCloseTo(0.001)).compareType(String.class,
+				BeanComparators.hasPattern("Item[0-9]+")).compareProperty("Id", BeanComparators.isEqual(Integer.class));
+	}
+
+	private static List<WideBean> wideBeans(final int size) {
+		List<WideBean> beans = new ArrayList<WideBean>(size);
+		for (int i = 0; i < size; ++i) {
+			beans.add(Graphs.wideBean(i));
+		}
+		return beans;
+	}
+}
@@ -1,17 +1,24 @@
 package org.exparity.hamcrest;
 
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 import org.exparity.hamcrest.beans.comparators.Excluded;
 import org.exparity.hamcrest.beans.comparators.Matches;
 import org.exparity.hamcrest.beans.comparators.HasPattern;
+import org.exparity.hamcrest.beans.comparators.IsCloseTo;
 import org.exparity.hamcrest.beans.comparators.IsComparable;
 import org.exparity.hamcrest.beans.comparators.IsEqual;
 import org.exparity.hamcrest.beans.comparators.IsEqualDate;
 import org.exparity.hamcrest.beans.comparators.IsEqualDateTime;
 import org.exparity.hamcrest.beans.comparators.IsEqualIgnoreCase;
 import org.exparity.hamcrest.beans.comparators.IsEqualTimestamp;
+import org.exparity.hamcrest.beans.comparators.IsEqualTruncatedTo;
+import org.exparity.hamcrest.beans.comparators.IsRelativelyCloseTo;
+import org.exparity.hamcrest.beans.comparators.IsWithinUlps;
 import org.hamcrest.Matcher;
 
 /**
@@ -37,12 +44,22 @@ public abstract class BeanComparators {
 	}
 
 	/**
-	 * Match the String property, type, or path against a regular expression
+	 * Match the String property, type, or path against a regular expression.
+	 * The expression is compiled once and shared with other comparators
+	 * created for the same expression.
 	 */
 	public static PropertyComparator<String> hasPattern(final String pattern) {
 		return new HasPattern(pattern);
 	}
 
+	/**
+	 * Match the String property, type, or path against a compiled regular
+	 * expression
+	 */
+	public static PropertyComparator<String> hasPattern(final Pattern pattern) {
+		return new HasPattern(pattern);
+	}
+
 	/**
 	 * Match the property, type, or path using their comparison method
 	 */
@@ -88,4 +105,48 @@ public abstract class BeanComparators {
 		return new IsEqualTimestamp();
 	}
 
+	/**
+	 * Match the Date, Instant, LocalDateTime, OffsetDateTime, or
+	 * ZonedDateTime property, type, or path by truncating both values to the
+	 * unit in the system default zone, e.g. to compare two dates by day use
+	 * <code>isEqualTruncatedTo(ChronoUnit.DAYS)</code>
+	 */
+	public static <T> PropertyComparator<T> isEqualTruncatedTo(final ChronoUnit unit) {
+		return new IsEqualTruncatedTo<T>(unit);
+	}
+
+	/**
+	 * Match the Date, Instant, LocalDateTime, OffsetDateTime, or
+	 * ZonedDateTime property, type, or path by truncating both values to the
+	 * unit in the zone
+	 */
+	public static <T> PropertyComparator<T> isEqualTruncatedTo(final ChronoUnit unit, final ZoneId zone) {
+		return new IsEqualTruncatedTo<T>(unit, zone);
+	}
+
+	/**
+	 * Match the numeric property, type, or path if the two numbers differ by no
+	 * more than the tolerance, e.g. <code>isCloseTo(0.001)</code>
+	 */
+	public static PropertyComparator<Number> isCloseTo(final double tolerance) {
+		return new IsCloseTo(tolerance);
+	}
+
+	/**
+	 * Match the numeric property, type, or path if the two numbers differ by no
+	 * more than the tolerance as a fraction of the larger of the two, e.g.
+	 * <code>isRelativelyCloseTo(0.01)</code> to match within 1%
+	 */
+	public static PropertyComparator<Number> isRelativelyCloseTo(final double tolerance) {
+		return new IsRelativelyCloseTo(tolerance);
+	}
+
+	/**
+	 * Match the numeric property, type, or path if the two numbers are no more
+	 * than the given number of units in the last place apart
+	 */
+	public static PropertyComparator<Number> isWithinUlps(final int ulps) {
+		return new IsWithinUlps(ulps);
+	}
+
 }
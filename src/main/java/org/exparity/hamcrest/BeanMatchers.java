@@ -1,5 +1,8 @@
 package org.exparity.hamcrest;
 
+import java.util.List;
+import java.util.Map;
+
 import org.exparity.hamcrest.beans.*;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
 import org.hamcrest.*;
@@ -165,6 +168,30 @@ public abstract class BeanMatchers {
 		return TheSameAs.theSameAs(object, name);
 	}
 
+	/**
+	 * Creates a matcher that matches if the examined object is the same as the
+	 * specified object when compared with the exclusions and overrides of the
+	 * configuration, for example one of the shared {@link Profiles}.
+	 * <p/>
+	 * For example:
+	 * 
+	 * <pre>
+	 * Person expected = new Person("John", "Doe");
+	 * assertThat(dao.save(expected), theSameAs(expected, Profiles.entityComparison()));
+	 * </pre>
+	 * 
+	 * @param object
+	 *            the instance to match against
+	 * @param configuration
+	 *            the exclusions and overrides to compare with
+	 * @param <T>
+	 *            the type of the instance
+	 * @return an instance of TheSameAs matcher
+	 */
+	public static <T> TheSameAs<T> theSameAs(final T object, final ComparisonConfiguration configuration) {
+		return TheSameAs.theSameAs(object, configuration);
+	}
+
 	/**
 	 * Return an instance of a {@link Matcher} which will perform a deep
 	 * comparison of the two objects by invoking all bean style properties where
@@ -252,6 +279,129 @@ public abstract class BeanMatchers {
 		}
 	}
 
+	/**
+	 * Return an instance of a {@link Matcher} which will perform a deep
+	 * comparison of each item in a list against the item at the same index in
+	 * the expected list by invoking all getter style properties. The pairs are
+	 * compared concurrently and share one set of overrides. For Example</p>
+	 * 
+	 * <pre>
+	 * class Person [
+	 *   private String firstName, lastName;
+	 *   public Person(final String firstName, final String lastName) {
+	 *     this.firstname = firstName;
+	 *     this.lastName = lastName;
+	 *    }
+	 *    public String getFirstName() { return firstName;};
+	 *    public String getLastName() { return lastName;};
+	 * }
+	 * 
+	 * // To test a list of objects
+	 * List&lt;Person&gt; expected = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe")), allTheSameAs(expected))
+	 * 
+	 * // To test a list of objects but ignore differences in a property
+	 * List&lt;Person&gt; expected = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(Arrays.asList(new Person("John", "Doe"), new Person("Jim", "Doe")), allTheSameAs(expected).excludeProperty("FirstName"));
+	 * </pre>
+	 * 
+	 * @param expected
+	 *            the instances to match against
+	 * @param <T>
+	 *            the type of the instances
+	 * @return an instance of AllTheSameAs matcher
+	 */
+	public static <T> AllTheSameAs<T> allTheSameAs(final List<T> expected) {
+		return AllTheSameAs.allTheSameAs(expected);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will perform a deep
+	 * comparison of each item in a list against the item at the same index in
+	 * the expected list by invoking all getter style properties. The pairs are
+	 * compared concurrently and share one set of overrides. For Example</p>
+	 * 
+	 * <pre>
+	 * // To test a list of objects but ignore differences in a path
+	 * List&lt;Person&gt; expected = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(Arrays.asList(new Person("John", "Doe"), new Person("Jim", "Doe")), allTheSameAs(expected, "Person").excludePath("Person.FirstName"));
+	 * </pre>
+	 * 
+	 * @param expected
+	 *            the instances to match against
+	 * @param name
+	 *            the name to use for each base object for paths e.g Person
+	 *            would prefix path i.e. Person[0].FirstName
+	 * @param <T>
+	 *            the type of the instances
+	 * @return an instance of AllTheSameAs matcher
+	 */
+	public static <T> AllTheSameAs<T> allTheSameAs(final List<T> expected, final String name) {
+		return AllTheSameAs.allTheSameAs(expected, name);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will perform a deep
+	 * comparison of each item in a list against the item at the same index in
+	 * the expected list by invoking all bean style properties where both a
+	 * getter and setter exists. For Example</p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; expected = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe")), allTheSameBeanAs(expected))
+	 * </pre>
+	 * 
+	 * @param expected
+	 *            the instances to match against
+	 * @param <T>
+	 *            the type of the instances
+	 * @return an instance of AllTheSameAs matcher
+	 */
+	public static <T> AllTheSameAs<T> allTheSameBeanAs(final List<T> expected) {
+		return AllTheSameAs.allTheSameBeanAs(expected);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will perform a deep
+	 * comparison of an object against a {@link GraphSnapshot} recorded from the
+	 * expected object. For Example</p>
+	 * 
+	 * <pre>
+	 * GraphSnapshot.record(new Person("John", "Doe"), new File("person.snapshot"));
+	 * ...
+	 * assertThat(new Person("John", "Doe"), theSameAsSnapshot(GraphSnapshot.open(new File("person.snapshot"))));
+	 * </pre>
+	 * 
+	 * @param snapshot
+	 *            the snapshot to match against
+	 * @param <T>
+	 *            the type of the instance
+	 * @return an instance of TheSameAsSnapshot matcher
+	 */
+	public static <T> TheSameAsSnapshot<T> theSameAsSnapshot(final GraphSnapshot snapshot) {
+		return TheSameAsSnapshot.theSameAsSnapshot(snapshot);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will compare the
+	 * {@link BeanDigest} of an object against a stored digest. For Example</p>
+	 * 
+	 * <pre>
+	 * BeanDigest digest = BeanDigest.of(new Person("John", "Doe"));
+	 * ...
+	 * assertThat(new Person("John", "Doe"), theSameHashAs(digest));
+	 * </pre>
+	 * 
+	 * @param digest
+	 *            the digest to match against
+	 * @param <T>
+	 *            the type of the instance
+	 * @return an instance of TheSameHashAs matcher
+	 */
+	public static <T> TheSameHashAs<T> theSameHashAs(final BeanDigest digest) {
+		return TheSameHashAs.theSameHashAs(digest);
+	}
+
 	/**
 	 * Return an instance of a {@link Matcher} which will test if an object has
 	 * a named property with the given value. For Example</p>
@@ -317,4 +467,93 @@ public abstract class BeanMatchers {
 	public static <T> Matcher<T> hasPath(final String name, final Matcher<?> matcher) {
 		return HasPath.<T> hasPath(name, matcher);
 	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will test if an object has
+	 * each of the named paths with the given values. The paths are resolved
+	 * together so a prefix shared by several paths is only followed once, and
+	 * every path which does not match is reported. For Example</p>
+	 * 
+	 * <pre>
+	 * Map&lt;String, Matcher&lt;?&gt;&gt; paths = new LinkedHashMap&lt;String, Matcher&lt;?&gt;&gt;();
+	 * paths.put("Person.FirstName", equalTo("John"));
+	 * paths.put("Person.LastName", equalTo("Doe"));
+	 * assertThat(new Person("John", "Doe"), hasPaths(paths))
+	 * </pre>
+	 * 
+	 * @param paths
+	 *            the paths, and the matcher to test the value of each path
+	 * @param <T>
+	 *            the type of the instance
+	 * @return an instance of a Matcher
+	 */
+	public static <T> Matcher<T> hasPaths(final Map<String, ? extends Matcher<?>> paths) {
+		return HasPaths.<T> hasPaths(paths);
+	}
+
+	/**
+	 * Return a view of an object which remembers each property value read
+	 * from it, so several {@link HasPath}, {@link HasPaths}, and
+	 * {@link HasProperty} matchers applied to the view call each getter once.
+	 * For Example</p>
+	 * 
+	 * <pre>
+	 * assertThat(indexed(new Person("John", "Doe")),
+	 * 		allOf(hasPath("Person.FirstName", equalTo("John")), hasPath("Person.LastName", equalTo("Doe"))));
+	 * </pre>
+	 * 
+	 * @param item
+	 *            the object to view
+	 * @return a view of the object
+	 */
+	public static IndexedBean indexed(final Object item) {
+		return IndexedBean.indexed(item);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will test if every item in
+	 * a collection has a named path with the given value. The path is parsed
+	 * once for all items and the indexes of the first items which do not match
+	 * are reported. For Example</p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; people = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(people, everyItemHasPath("Person.LastName", equalTo("Doe")));
+	 * 
+	 * // To check large collections in parallel
+	 * assertThat(dao.findAll(), everyItemHasPath("Person.LastName", notNullValue()).inParallel());
+	 * </pre>
+	 * 
+	 * @param path
+	 *            the name of the path
+	 * @param matcher
+	 *            the matcher to test the value of the path of each item
+	 * @return an instance of a Matcher
+	 */
+	public static EveryItemHasPath everyItemHasPath(final String path, final Matcher<?> matcher) {
+		return EveryItemHasPath.everyItemHasPath(path, matcher);
+	}
+
+	/**
+	 * Return an instance of a {@link Matcher} which will count the items in a
+	 * collection with a named path with the given value and test the count.
+	 * For Example</p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; people = Arrays.asList(new Person("John", "Doe"), new Person("Jane", "Doe"));
+	 * assertThat(people, countWhere("Person.FirstName", startsWith("J"), equalTo(2)));
+	 * </pre>
+	 * 
+	 * @param path
+	 *            the name of the path
+	 * @param matcher
+	 *            the matcher to test the value of the path of each item
+	 * @param count
+	 *            the matcher to test the number of matching items
+	 * @return an instance of a Matcher
+	 */
+	public static CountWhere countWhere(final String path, final Matcher<?> matcher,
+			final Matcher<? super Integer> count) {
+		return CountWhere.countWhere(path, matcher, count);
+	}
 }
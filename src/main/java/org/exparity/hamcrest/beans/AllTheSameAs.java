@@ -0,0 +1,404 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.SystemUtils;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which performs the same deep comparison
+ * as {@link TheSameAs} on every pair of items at the same index in an expected
+ * and an actual list.
+ * <p>
+ * All pairs share a single set of overrides and the pairs are compared
+ * concurrently. If no executor is supplied then each pair runs on a virtual
+ * thread where the JVM supports them, or on a shared fork/join pool where it
+ * does not. Mismatches are reported in index order.
+ * </p>
+ * <p>
+ * The matcher is immutable, each change returns a new matcher, so a configured
+ * instance can be shared between threads.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class AllTheSameAs<T> extends TypeSafeDiagnosingMatcher<List<T>> {
+
+	/**
+	 * Creates a matcher that matches each item in the expected list against the
+	 * item at the same index in the actual list by comparing all getter
+	 * properties
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * List&lt;MyObject&gt; expected = loadExpectedRecords();
+	 * assertThat(dao.findAll(), allTheSameAs(expected));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the instances to match against
+	 */
+	@Factory
+	public static <T> AllTheSameAs<T> allTheSameAs(final List<T> expected) {
+		return new AllTheSameAs<T>(expected, null, PropertyType.ALL_GETTERS);
+	}
+
+	/**
+	 * Creates a matcher that matches each item in the expected list against the
+	 * item at the same index in the actual list by comparing all getter
+	 * properties. The name and the index of the item prefix each path
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * List&lt;MyObject&gt; expected = loadExpectedRecords();
+	 * assertThat(dao.findAll(), allTheSameAs(expected, "Record"));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the instances to match against
+	 * @param name
+	 *            the name given to each root entity
+	 */
+	@Factory
+	public static <T> AllTheSameAs<T> allTheSameAs(final List<T> expected, final String name) {
+		return new AllTheSameAs<T>(expected, name, PropertyType.ALL_GETTERS);
+	}
+
+	/**
+	 * Creates a matcher that matches each item in the expected list against the
+	 * item at the same index in the actual list by comparing bean properties
+	 * i.e. properties with both a getter and a setter
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * List&lt;MyObject&gt; expected = loadExpectedRecords();
+	 * assertThat(dao.findAll(), allTheSameBeanAs(expected));
+	 * </pre>
+	 *
+	 * @param expected
+	 *            the instances to match against
+	 */
+	@Factory
+	public static <T> AllTheSameAs<T> allTheSameBeanAs(final List<T> expected) {
+		return new AllTheSameAs<T>(expected, null, PropertyType.BEAN);
+	}
+
+	private final List<T> expected;
+	private final String name;
+	private final ComparisonConfiguration configuration;
+	private final ExecutorService executor;
+
+	public AllTheSameAs(final List<T> expected, final String name, final PropertyType propertyTypes) {
+		this(expected, name, ComparisonConfiguration.defaults(propertyTypes), null);
+	}
+
+	private AllTheSameAs(final List<T> expected, final String name, final ComparisonConfiguration configuration,
+			final ExecutorService executor) {
+		this.expected = expected;
+		this.name = name;
+		this.configuration = configuration;
+		this.executor = executor;
+	}
+
+	/**
+	 * Exclude a property path from the comparison of every pair
+	 *
+	 * @see TheSameAs#excludePath(String)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> excludePath(final String path) {
+		return new AllTheSameAs<T>(expected, name, configuration.excludePath(path), executor);
+	}
+
+	/**
+	 * Exclude a property from the comparison of every pair
+	 *
+	 * @see TheSameAs#excludeProperty(String)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> excludeProperty(final String property) {
+		return new AllTheSameAs<T>(expected, name, configuration.excludeProperty(property), executor);
+	}
+
+	/**
+	 * Exclude a type from the comparison of every pair
+	 *
+	 * @see TheSameAs#excludeType(Class)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> excludeType(final Class<?> type) {
+		return new AllTheSameAs<T>(expected, name, configuration.excludeType(type), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a path in every pair
+	 *
+	 * @see TheSameAs#comparePath(String, PropertyComparator)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> comparePath(final String path, final PropertyComparator<?> comparator) {
+		return new AllTheSameAs<T>(expected, name, configuration.comparePath(path, comparator), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a property in every pair
+	 *
+	 * @see TheSameAs#compareProperty(String, PropertyComparator)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> compareProperty(final String property, final PropertyComparator<?> comparator) {
+		return new AllTheSameAs<T>(expected, name, configuration.compareProperty(property, comparator), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a type in every pair
+	 *
+	 * @see TheSameAs#compareType(Class, PropertyComparator)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public <P> AllTheSameAs<T> compareType(final Class<P> type, final PropertyComparator<? super P> comparator) {
+		return new AllTheSameAs<T>(expected, name, configuration.compareType(type, comparator), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a path in every pair to use a
+	 * hamcrest Matcher
+	 *
+	 * @see TheSameAs#comparePath(String, Matcher)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public <P> AllTheSameAs<T> comparePath(final String path, final Matcher<P> matcher) {
+		return new AllTheSameAs<T>(expected, name, configuration.comparePath(path, matcher), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a property in every pair to use
+	 * a hamcrest Matcher
+	 *
+	 * @see TheSameAs#compareProperty(String, Matcher)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public <P> AllTheSameAs<T> compareProperty(final String property, final Matcher<P> matcher) {
+		return new AllTheSameAs<T>(expected, name, configuration.compareProperty(property, matcher), executor);
+	}
+
+	/**
+	 * Override the PropertyComparator used for a type in every pair to use a
+	 * hamcrest Matcher
+	 *
+	 * @see TheSameAs#compareType(Class, Matcher)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public <P> AllTheSameAs<T> compareType(final Class<P> type, final Matcher<P> matcher) {
+		return new AllTheSameAs<T>(expected, name, configuration.compareType(type, matcher), executor);
+	}
+
+	/**
+	 * Count the work done comparing every pair in the metrics
+	 *
+	 * @see TheSameAs#collectMetrics(ComparisonMetrics)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> collectMetrics(final ComparisonMetrics metrics) {
+		return new AllTheSameAs<T>(expected, name, configuration.collectMetrics(metrics), executor);
+	}
+
+	/**
+	 * Report how each node in every pair is compared to the listener
+	 *
+	 * @see TheSameAs#traceWith(TraversalListener)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> traceWith(final TraversalListener tracer) {
+		return new AllTheSameAs<T>(expected, name, configuration.traceWith(tracer), executor);
+	}
+
+	/**
+	 * Skip lazy associations which are not loaded in every pair
+	 *
+	 * @see TheSameAs#skipUnloaded(LoadStateProbe)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> skipUnloaded(final LoadStateProbe probe) {
+		return new AllTheSameAs<T>(expected, name, configuration.skipUnloaded(probe), executor);
+	}
+
+	/**
+	 * Compare lazy associations which are not loaded in every pair by their
+	 * identifiers
+	 *
+	 * @see TheSameAs#compareUnloadedIds(LoadStateProbe)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> compareUnloadedIds(final LoadStateProbe probe) {
+		return new AllTheSameAs<T>(expected, name, configuration.compareUnloadedIds(probe), executor);
+	}
+
+	/**
+	 * Compare beans, lists, and maps in every pair only as deep as the given
+	 * number of levels below the root
+	 *
+	 * @see TheSameAs#maxDepth(int)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> maxDepth(final int maxDepth) {
+		return new AllTheSameAs<T>(expected, name, configuration.maxDepth(maxDepth), executor);
+	}
+
+	/**
+	 * Stop the comparison of each pair once the given number of nodes have
+	 * been visited
+	 *
+	 * @see TheSameAs#maxNodes(long)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> maxNodes(final long maxNodes) {
+		return new AllTheSameAs<T>(expected, name, configuration.maxNodes(maxNodes), executor);
+	}
+
+	/**
+	 * Stop the comparison of each pair once it has run for the given time
+	 *
+	 * @see TheSameAs#timeLimit(long, TimeUnit)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> timeLimit(final long timeLimit, final TimeUnit unit) {
+		return new AllTheSameAs<T>(expected, name, configuration.timeLimit(timeLimit, unit), executor);
+	}
+
+	/**
+	 * Compare the pairs on the supplied executor. The executor is not shut
+	 * down by the matcher. For example
+	 * </p>
+	 *
+	 * <pre>
+	 * ExecutorService executor = Executors.newFixedThreadPool(8);
+	 * assertThat(dao.findAll(), allTheSameAs(expected).using(executor));
+	 * </pre>
+	 *
+	 * @param executor
+	 *            the executor to compare the pairs on
+	 * @return a copy of the matcher with the change applied
+	 */
+	public AllTheSameAs<T> using(final ExecutorService executor) {
+		return new AllTheSameAs<T>(expected, name, configuration, executor);
+	}
+
+	@Override
+	public void describeTo(final Description description) {
+		description.appendText("each the same as the ").appendValue(expected.size()).appendText(" expected items");
+	}
+
+	@Override
+	protected boolean matchesSafely(final List<T> actual, final Description mismatchDesc) {
+		boolean same = true;
+		if (expected.size() != actual.size()) {
+			mismatchDesc.appendText("size is ").appendValue(actual.size()).appendText(" instead of ")
+					.appendValue(expected.size());
+			same = false;
+		}
+		for (String mismatch : comparePairs(actual, Math.min(expected.size(), actual.size()))) {
+			if (!same) {
+				mismatchDesc.appendText(SystemUtils.LINE_SEPARATOR);
+			}
+			mismatchDesc.appendText(mismatch);
+			same = false;
+		}
+		return same;
+	}
+
+	private List<String> comparePairs(final List<T> actual, final int size) {
+		ExecutorService pairExecutor = executor;
+		boolean shutdown = false;
+		if (pairExecutor == null) {
+			pairExecutor = ComparisonExecutors.newVirtualThreadExecutor();
+			if (pairExecutor != null) {
+				shutdown = true;
+			} else {
+				pairExecutor = ComparisonExecutors.forkJoinPool();
+			}
+		}
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>(size);
+			for (int i = 0; i < size; ++i) {
+				results.add(pairExecutor.submit(new ComparePair(i, expected.get(i), actual.get(i))));
+			}
+			List<String> mismatches = new ArrayList<String>();
+			for (int i = 0; i < size; ++i) {
+				String mismatch = waitFor(results.get(i), i);
+				if (mismatch != null) {
+					mismatches.add(mismatch);
+				}
+			}
+			return mismatches;
+		} finally {
+			if (shutdown) {
+				pairExecutor.shutdown();
+			}
+		}
+	}
+
+	private String waitFor(final Future<String> result, final int index) {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted comparing item " + index, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new RuntimeException("Error comparing item " + index + ". Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	/**
+	 * Compares a single pair and returns the mismatch description, or
+	 * <code>null</code> if they're the same
+	 */
+	private class ComparePair implements Callable<String> {
+
+		private final int index;
+		private final T expectedItem, actualItem;
+
+		public ComparePair(final int index, final T expectedItem, final T actualItem) {
+			this.index = index;
+			this.expectedItem = expectedItem;
+			this.actualItem = actualItem;
+		}
+
+		@Override
+		public String call() {
+			StringDescription mismatch = new StringDescription();
+			if (new TheSameAs<T>(expectedItem, itemName(), configuration).matchesSafely(actualItem, mismatch)) {
+				return null;
+			}
+			return mismatch.toString();
+		}
+
+		private String itemName() {
+			String itemName = name;
+			if (itemName == null) {
+				itemName = expectedItem != null ? expectedItem.getClass().getSimpleName() : "";
+			}
+			return itemName + "[" + index + "]";
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.exparity.hamcrest.beans;
+
+/**
+ * Compares two object graphs using the same traversal, exclusions, and
+ * comparators as {@link TheSameAs} and streams each {@link Difference} to a
+ * {@link DifferenceListener} as it is found. No differences are held by the
+ * comparison so the memory used does not grow with the number of differences.
+ * <p/>
+ * For example:
+ *
+ * <pre>
+ * BeanDiff diff = BeanDiff.beanDiff(ComparisonConfiguration.DEFAULTS.excludeProperty(&quot;LastModified&quot;));
+ * diff.compare(previous, current, new DifferenceListener() {
+ *
+ * 	public void onDifference(final Difference difference) {
+ * 		changes.publish(difference.getPath(), difference.getActual());
+ * 	}
+ * });
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public class BeanDiff {
+
+	/**
+	 * Create a BeanDiff which compares all getter properties with the default
+	 * comparators
+	 */
+	public static BeanDiff beanDiff() {
+		return new BeanDiff(ComparisonConfiguration.DEFAULTS);
+	}
+
+	/**
+	 * Create a BeanDiff which compares using the configuration
+	 *
+	 * @param configuration
+	 *            the exclusions and comparators to apply
+	 */
+	public static BeanDiff beanDiff(final ComparisonConfiguration configuration) {
+		return new BeanDiff(configuration);
+	}
+
+	private final GraphComparison comparison;
+
+	public BeanDiff(final ComparisonConfiguration configuration) {
+		this.comparison = new GraphComparison(configuration);
+	}
+
+	/**
+	 * Compare the graphs reporting each difference to the listener. Paths are
+	 * prefixed with the simple class name of the root object.
+	 *
+	 * @param expected
+	 *            the reference graph
+	 * @param actual
+	 *            the graph to compare to the reference
+	 * @param listener
+	 *            the listener to receive the differences
+	 * @return <code>true</code> if there were no differences
+	 */
+	public boolean compare(final Object expected, final Object actual, final DifferenceListener listener) {
+		Object root = expected != null ? expected : actual;
+		return compare(expected, actual, root != null ? root.getClass().getSimpleName() : "", listener);
+	}
+
+	/**
+	 * Compare the graphs reporting each difference to the listener
+	 *
+	 * @param expected
+	 *            the reference graph
+	 * @param actual
+	 *            the graph to compare to the reference
+	 * @param name
+	 *            the name given to the root object for paths e.g. Person
+	 * @param listener
+	 *            the listener to receive the differences
+	 * @return <code>true</code> if there were no differences
+	 */
+	public boolean compare(final Object expected, final Object actual, final String name,
+			final DifferenceListener listener) {
+		return comparison.compare(expected, actual, name, listener);
+	}
+}
@@ -0,0 +1,104 @@
+package org.exparity.hamcrest.beans;
+
+import java.math.BigInteger;
+
+/**
+ * A stable 128 bit structural hash of an object graph computed with the same
+ * traversal, exclusions, and comparators as {@link TheSameAs}. Two graphs
+ * which are the same as each other have the same digest, so a digest can be
+ * stored in place of a large expected graph and compared with
+ * {@link TheSameHashAs}. For example
+ *
+ * <pre>
+ * static final BeanDigest EXPECTED = BeanDigest.valueOf(&quot;6c1b07bc7bbc4be347939ac4a93c437a&quot;);
+ * assertThat(report.generate(), theSameHashAs(EXPECTED));
+ * </pre>
+ * <p>
+ * Excluded paths, properties, and types contribute nothing to the digest.
+ * Values compared by a comparator contribute their
+ * {@link TheSameAs.DigestComparator#digestValue(Object)} so, for example, two
+ * dates compared with {@link org.exparity.hamcrest.beans.comparators.IsEqualDate}
+ * have the same digest if they are on the same day. Lists and collections
+ * are digested in the order they are compared and maps regardless of order.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public final class BeanDigest {
+
+	/**
+	 * Compute the digest of the graph using the default comparators
+	 */
+	public static BeanDigest of(final Object graph) {
+		return of(graph, ComparisonConfiguration.DEFAULTS);
+	}
+
+	/**
+	 * Compute the digest of the graph using the exclusions and comparators in
+	 * the configuration. Paths are prefixed with the simple class name of the
+	 * root object.
+	 */
+	public static BeanDigest of(final Object graph, final ComparisonConfiguration configuration) {
+		return of(graph, graph != null ? graph.getClass().getSimpleName() : "", configuration);
+	}
+
+	/**
+	 * Compute the digest of the graph using the exclusions and comparators in
+	 * the configuration
+	 *
+	 * @param name
+	 *            the name given to the root object for paths e.g. Person
+	 */
+	public static BeanDigest of(final Object graph, final String name, final ComparisonConfiguration configuration) {
+		long[] hash = new GraphDigest(configuration).digest(graph, name);
+		return new BeanDigest(hash[0], hash[1]);
+	}
+
+	/**
+	 * Parse a digest from the 32 character hexadecimal form returned by
+	 * {@link #toString()}
+	 */
+	public static BeanDigest valueOf(final String hex) {
+		if (hex == null || hex.length() != 32) {
+			throw new IllegalArgumentException("'" + hex + "' is not a 32 character hexadecimal digest");
+		}
+		try {
+			return new BeanDigest(new BigInteger(hex.substring(0, 16), 16).longValue(), new BigInteger(
+					hex.substring(16), 16).longValue());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("'" + hex + "' is not a 32 character hexadecimal digest", e);
+		}
+	}
+
+	private final long high, low;
+
+	private BeanDigest(final long high, final long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BeanDigest)) {
+			return false;
+		}
+		BeanDigest rhs = (BeanDigest) obj;
+		return high == rhs.high && low == rhs.low;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (high ^ (high >>> 32));
+	}
+
+	/**
+	 * Return the digest as 32 hexadecimal characters
+	 */
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", high, low);
+	}
+}
@@ -0,0 +1,40 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.beans.Type.type;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.exparity.beans.core.TypeProperty;
+
+/**
+ * Cache of the bean properties of each class, i.e. those with both a getter
+ * and a setter, keyed by their lower case name. The properties of a class are
+ * looked up once and held for as long as the class is loaded.
+ *
+ * @author Stewart Bissett
+ */
+final class BeanProperties {
+
+	private static final ClassValue<Map<String, TypeProperty>> PROPERTIES = new ClassValue<Map<String, TypeProperty>>() {
+
+		@Override
+		protected Map<String, TypeProperty> computeValue(final Class<?> klass) {
+			Map<String, TypeProperty> properties = new LinkedHashMap<>();
+			for (TypeProperty property : type(klass).propertyList()) {
+				properties.put(property.getName().toLowerCase(), property);
+			}
+			return Collections.unmodifiableMap(properties);
+		}
+	};
+
+	/**
+	 * Return the bean properties of the class keyed by their lower case name
+	 */
+	static Map<String, TypeProperty> of(final Class<?> klass) {
+		return PROPERTIES.get(klass);
+	}
+
+	private BeanProperties() {}
+}
@@ -0,0 +1,129 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The limits on how deep, how many nodes, and for how long a comparison may
+ * go before it stops and reports the subtrees it did not compare. A budget is
+ * immutable, each change returns a new budget, and is shared by every
+ * comparison made with a configuration. Each comparison counts what it spends
+ * in its own {@link Usage}.
+ *
+ * @author Stewart Bissett
+ */
+final class ComparisonBudget {
+
+	/**
+	 * The budget with no limits
+	 */
+	static final ComparisonBudget UNLIMITED = new ComparisonBudget(Integer.MAX_VALUE, Long.MAX_VALUE, 0);
+
+	/**
+	 * The number of nodes visited between checks of the time limit
+	 */
+	private static final int CLOCK_INTERVAL = 64;
+
+	private final int maxDepth;
+	private final long maxNodes;
+	private final long timeLimitNanos;
+
+	private ComparisonBudget(final int maxDepth, final long maxNodes, final long timeLimitNanos) {
+		this.maxDepth = maxDepth;
+		this.maxNodes = maxNodes;
+		this.timeLimitNanos = timeLimitNanos;
+	}
+
+	ComparisonBudget withMaxDepth(final int maxDepth) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("Max depth must be greater than zero");
+		}
+		return new ComparisonBudget(maxDepth, maxNodes, timeLimitNanos);
+	}
+
+	ComparisonBudget withMaxNodes(final long maxNodes) {
+		if (maxNodes < 1) {
+			throw new IllegalArgumentException("Max nodes must be greater than zero");
+		}
+		return new ComparisonBudget(maxDepth, maxNodes, timeLimitNanos);
+	}
+
+	ComparisonBudget withTimeLimit(final long timeLimit, final TimeUnit unit) {
+		if (timeLimit < 1) {
+			throw new IllegalArgumentException("Time limit must be greater than zero");
+		}
+		return new ComparisonBudget(maxDepth, maxNodes, unit.toNanos(timeLimit));
+	}
+
+	/**
+	 * Return the number of levels below the root whose beans, lists, and maps
+	 * are compared
+	 */
+	int maxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Return the reason a bean, list, or map below the max depth is not
+	 * compared
+	 */
+	String depthExceeded() {
+		return "max depth of " + maxDepth + " reached";
+	}
+
+	/**
+	 * Start counting the spending of a comparison against the budget
+	 */
+	Usage start() {
+		return new Usage(this);
+	}
+
+	/**
+	 * The nodes visited and time spent by a single comparison, shared by the
+	 * parallel tasks of the comparison. Once the max nodes or the time limit is
+	 * reached the usage is exhausted and stays so.
+	 */
+	static final class Usage {
+
+		private final ComparisonBudget budget;
+		private final long deadline;
+		private final AtomicLong nodes = new AtomicLong();
+		private volatile String exceeded;
+
+		private Usage(final ComparisonBudget budget) {
+			this.budget = budget;
+			this.deadline = budget.timeLimitNanos > 0 ? System.nanoTime() + budget.timeLimitNanos : 0;
+		}
+
+		/**
+		 * Count a node as visited. The clock is read every
+		 * {@value ComparisonBudget#CLOCK_INTERVAL} nodes rather than for each.
+		 */
+		void visited() {
+			long visited = nodes.incrementAndGet();
+			if (exceeded == null) {
+				if (visited >= budget.maxNodes) {
+					exceeded = "max nodes of " + budget.maxNodes + " reached";
+				} else if (deadline != 0 && visited % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+					exceeded = "time limit of " + TimeUnit.NANOSECONDS.toMillis(budget.timeLimitNanos) + "ms reached";
+				}
+			}
+		}
+
+		/**
+		 * Return <code>true</code> if the max nodes or time limit has been
+		 * reached, so no more nodes should be compared
+		 */
+		boolean isExhausted() {
+			return exceeded != null;
+		}
+
+		/**
+		 * Return the reason the usage is exhausted, or <code>null</code> if it
+		 * is not
+		 */
+		String exceeded() {
+			return exceeded;
+		}
+	}
+}
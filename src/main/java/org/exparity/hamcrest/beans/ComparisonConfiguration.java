@@ -0,0 +1,537 @@
+package org.exparity.hamcrest.beans;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.exparity.hamcrest.beans.comparators.Excluded;
+import org.exparity.hamcrest.beans.comparators.IsComparable;
+import org.exparity.hamcrest.beans.comparators.IsEqual;
+import org.exparity.hamcrest.beans.comparators.IsEqualTimestamp;
+import org.exparity.hamcrest.beans.comparators.Matches;
+import org.hamcrest.Matcher;
+
+/**
+ * The path, property, and type overrides used when comparing two object graphs
+ * with {@link TheSameAs} or {@link BeanDiff}.
+ * <p>
+ * A configuration is immutable, each change returns a new configuration, so a
+ * single instance can be shared by many comparisons and by many threads. For
+ * example
+ * </p>
+ *
+ * <pre>
+ * static final ComparisonConfiguration IGNORE_IDS = ComparisonConfiguration.DEFAULTS.excludeProperty(&quot;Id&quot;);
+ * assertThat(dao.getById(instance.getId()), theSameAs(instance, IGNORE_IDS));
+ * </pre>
+ * <p>
+ * The default comparators are shared by every configuration, and each change
+ * is layered on the configuration it was made to rather than copying it, so
+ * creating a configuration, or a matcher from one, allocates almost nothing.
+ * Named configurations for common cases are available from {@link Profiles}.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public final class ComparisonConfiguration {
+
+	static final int SEQUENTIAL = 0;
+
+	private static final Map<Class<?>, PropertyComparator<?>> DEFAULT_TYPES = defaultTypes();
+	private static final PropertyComparator<?> EXCLUDED = new Excluded<Object>();
+	private static final Object NO_COMPARATOR = new Object();
+
+	/**
+	 * The configuration which compares all getter properties with the default
+	 * comparators
+	 */
+	public static final ComparisonConfiguration DEFAULTS = new ComparisonConfiguration(PropertyType.ALL_GETTERS);
+
+	/**
+	 * The configuration which compares bean properties, those with a getter
+	 * and setter, with the default comparators
+	 */
+	public static final ComparisonConfiguration BEAN_DEFAULTS = new ComparisonConfiguration(PropertyType.BEAN);
+
+	private static Map<Class<?>, PropertyComparator<?>> defaultTypes() {
+		Map<Class<?>, PropertyComparator<?>> types = new LinkedHashMap<>();
+		types.put(BigDecimal.class, new IsComparable<BigDecimal>());
+		types.put(String.class, new IsEqual<String>());
+		types.put(Integer.class, new IsEqual<Integer>());
+		types.put(Long.class, new IsEqual<Long>());
+		types.put(Double.class, new IsEqual<Double>());
+		types.put(Float.class, new IsEqual<Float>());
+		types.put(Character.class, new IsEqual<Character>());
+		types.put(Date.class, new IsEqualTimestamp());
+		types.put(Class.class, new Excluded<Class<?>>());
+		return Collections.unmodifiableMap(types);
+	}
+
+	/**
+	 * Return the shared configuration which compares the given type of
+	 * properties with the default comparators
+	 */
+	public static ComparisonConfiguration defaults(final PropertyType propertyTypes) {
+		return propertyTypes == PropertyType.BEAN ? BEAN_DEFAULTS : DEFAULTS;
+	}
+
+	private final Layer overrides;
+	private final PropertyType propertyTypes;
+	private final int parallelThreshold;
+	private final ComparisonMetrics metrics;
+	private final TraversalListener tracer;
+	private final LoadStateProbe loadState;
+	private final boolean compareUnloadedIds;
+	private final ComparisonBudget budget;
+	private volatile Resolved resolved;
+
+	/**
+	 * Create a configuration which compares all getter properties with the
+	 * default comparators
+	 */
+	public ComparisonConfiguration() {
+		this(PropertyType.ALL_GETTERS);
+	}
+
+	/**
+	 * Create a configuration which compares the given type of properties with
+	 * the default comparators
+	 */
+	public ComparisonConfiguration(final PropertyType propertyTypes) {
+		this(null, propertyTypes, SEQUENTIAL, null, null, null, false, null);
+	}
+
+	private ComparisonConfiguration(final Layer overrides, final PropertyType propertyTypes,
+			final int parallelThreshold, final ComparisonMetrics metrics, final TraversalListener tracer,
+			final LoadStateProbe loadState, final boolean compareUnloadedIds, final ComparisonBudget budget) {
+		this.overrides = overrides;
+		this.propertyTypes = propertyTypes;
+		this.parallelThreshold = parallelThreshold;
+		this.metrics = metrics;
+		this.tracer = tracer;
+		this.loadState = loadState;
+		this.compareUnloadedIds = compareUnloadedIds;
+		this.budget = budget;
+	}
+
+	/**
+	 * Exclude a property path from the comparison
+	 *
+	 * @see TheSameAs#excludePath(String)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration excludePath(final String path) {
+		return comparePath(path, EXCLUDED);
+	}
+
+	/**
+	 * Exclude a property from the comparison
+	 *
+	 * @see TheSameAs#excludeProperty(String)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration excludeProperty(final String property) {
+		return compareProperty(property, EXCLUDED);
+	}
+
+	/**
+	 * Exclude a type from the comparison
+	 *
+	 * @see TheSameAs#excludeType(Class)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration excludeType(final Class<?> type) {
+		return with(new Layer(Layer.TYPE, type, EXCLUDED, overrides));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a path
+	 *
+	 * @see TheSameAs#comparePath(String, PropertyComparator)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration comparePath(final String path, final PropertyComparator<?> comparator) {
+		return with(new Layer(Layer.PATH, path.toLowerCase(), comparator, overrides));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a property
+	 *
+	 * @see TheSameAs#compareProperty(String, PropertyComparator)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration compareProperty(final String property, final PropertyComparator<?> comparator) {
+		return with(new Layer(Layer.PROPERTY, property.toLowerCase(), comparator, overrides));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a type
+	 *
+	 * @see TheSameAs#compareType(Class, PropertyComparator)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public <P> ComparisonConfiguration compareType(final Class<P> type, final PropertyComparator<? super P> comparator) {
+		return with(new Layer(Layer.TYPE, type, comparator, overrides));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a path to use a hamcrest Matcher
+	 *
+	 * @see TheSameAs#comparePath(String, Matcher)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public <P> ComparisonConfiguration comparePath(final String path, final Matcher<P> matcher) {
+		return comparePath(path, new Matches<P>(matcher));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a property to use a hamcrest
+	 * Matcher
+	 *
+	 * @see TheSameAs#compareProperty(String, Matcher)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public <P> ComparisonConfiguration compareProperty(final String property, final Matcher<P> matcher) {
+		return compareProperty(property, new Matches<P>(matcher));
+	}
+
+	/**
+	 * Override the PropertyComparator used for a type to use a hamcrest Matcher
+	 *
+	 * @see TheSameAs#compareType(Class, Matcher)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public <P> ComparisonConfiguration compareType(final Class<P> type, final Matcher<P> matcher) {
+		return compareType(type, new Matches<P>(matcher));
+	}
+
+	/**
+	 * Compare large graphs in parallel
+	 *
+	 * @see TheSameAs#inParallel(int)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration inParallel(final int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+		}
+		return new ComparisonConfiguration(overrides, propertyTypes, threshold, metrics, tracer, loadState,
+				compareUnloadedIds, budget);
+	}
+
+	/**
+	 * Count the work done by comparisons made with the configuration in the
+	 * metrics rather than in the {@link ComparisonMetrics#global()} metrics
+	 *
+	 * @see TheSameAs#collectMetrics(ComparisonMetrics)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration collectMetrics(final ComparisonMetrics metrics) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, loadState,
+				compareUnloadedIds, budget);
+	}
+
+	/**
+	 * Report how each node is compared to the listener
+	 *
+	 * @see TheSameAs#traceWith(TraversalListener)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration traceWith(final TraversalListener tracer) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, loadState,
+				compareUnloadedIds, budget);
+	}
+
+	/**
+	 * Skip values the probe reports are not loaded, such as lazy associations
+	 * of an entity read from an ORM, rather than load them to compare them.
+	 * Proxy classes are compared as the class the probe unwraps them to.
+	 *
+	 * @see TheSameAs#skipUnloaded(LoadStateProbe)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration skipUnloaded(final LoadStateProbe probe) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, probe, false,
+				budget);
+	}
+
+	/**
+	 * Compare only the identifiers of values the probe reports are not
+	 * loaded, rather than load them to compare them. A value is skipped if
+	 * the probe does not know the identifier of either side. Proxy classes
+	 * are compared as the class the probe unwraps them to.
+	 *
+	 * @see TheSameAs#compareUnloadedIds(LoadStateProbe)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration compareUnloadedIds(final LoadStateProbe probe) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, probe, true,
+				budget);
+	}
+
+	/**
+	 * Compare beans, lists, and maps only as deep as the given number of
+	 * levels below the root. Those deeper are reported as not compared.
+	 *
+	 * @see TheSameAs#maxDepth(int)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration maxDepth(final int maxDepth) {
+		return withBudget(currentBudget().withMaxDepth(maxDepth));
+	}
+
+	/**
+	 * Stop the comparison once the given number of nodes have been visited.
+	 * The subtrees not completely compared are reported as not compared.
+	 *
+	 * @see TheSameAs#maxNodes(long)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration maxNodes(final long maxNodes) {
+		return withBudget(currentBudget().withMaxNodes(maxNodes));
+	}
+
+	/**
+	 * Stop the comparison once it has run for the given time. The subtrees
+	 * not completely compared are reported as not compared.
+	 *
+	 * @see TheSameAs#timeLimit(long, TimeUnit)
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration timeLimit(final long timeLimit, final TimeUnit unit) {
+		return withBudget(currentBudget().withTimeLimit(timeLimit, unit));
+	}
+
+	/**
+	 * Apply the exclusions and overrides of another configuration, for example
+	 * one of the {@link Profiles}, on top of this one. The overrides of the
+	 * other configuration take precedence. The property types, parallel
+	 * threshold, metrics, traversal listener, load state probe, and budget
+	 * of this configuration are kept.
+	 *
+	 * <pre>
+	 * static final ComparisonConfiguration SAVED = Profiles.entityComparison().and(Profiles.approximateNumbers(0.001));
+	 * </pre>
+	 *
+	 * @return a copy of the configuration with the change applied
+	 */
+	public ComparisonConfiguration and(final ComparisonConfiguration other) {
+		List<Layer> layers = new ArrayList<>();
+		for (Layer layer = other.overrides; layer != null; layer = layer.next) {
+			layers.add(layer);
+		}
+		Layer combined = overrides;
+		for (int i = layers.size() - 1; i >= 0; --i) {
+			Layer layer = layers.get(i);
+			combined = new Layer(layer.kind, layer.key, layer.comparator, combined);
+		}
+		return with(combined);
+	}
+
+	/**
+	 * Return <code>true</code> if any path is overridden, so the comparison
+	 * need not build the path of each node to look for an override if not
+	 */
+	boolean hasPathComparators() {
+		return !resolved().paths.isEmpty();
+	}
+
+	/**
+	 * Return <code>true</code> if any property is overridden
+	 */
+	boolean hasPropertyComparators() {
+		return !resolved().properties.isEmpty();
+	}
+
+	/**
+	 * Return the comparator for a lower case path with no indexes, or
+	 * <code>null</code> if the path is not overridden
+	 */
+	PropertyComparator<?> pathComparator(final String path) {
+		return resolved().paths.get(path);
+	}
+
+	/**
+	 * Return the comparator for a lower case property name, or
+	 * <code>null</code> if the property is not overridden
+	 */
+	PropertyComparator<?> propertyComparator(final String property) {
+		return resolved().properties.get(property);
+	}
+
+	/**
+	 * Return the comparator for the first type the class is assignable to, the
+	 * most recent override first and the defaults last, or <code>null</code>
+	 * if the type is not overridden
+	 */
+	PropertyComparator<?> typeComparator(final Class<?> klass) {
+		return resolved().typeComparator(klass);
+	}
+
+	PropertyType propertyTypes() {
+		return propertyTypes;
+	}
+
+	int parallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Return the metrics the comparison is counted in, either the metrics of
+	 * the configuration or the global metrics, or <code>null</code> if it is
+	 * not counted
+	 */
+	ComparisonMetrics metrics() {
+		return metrics != null ? metrics : ComparisonMetrics.global();
+	}
+
+	/**
+	 * Return the listener which traces the comparison, or <code>null</code>
+	 * if it is not traced
+	 */
+	TraversalListener tracer() {
+		return tracer;
+	}
+
+	/**
+	 * Return the probe which tells which values are loaded, or
+	 * <code>null</code> if every value is compared
+	 */
+	LoadStateProbe loadState() {
+		return loadState;
+	}
+
+	/**
+	 * Return <code>true</code> if the identifiers of values which are not
+	 * loaded are compared, or <code>false</code> if they are skipped
+	 */
+	boolean compareUnloadedIds() {
+		return compareUnloadedIds;
+	}
+
+	/**
+	 * Return the limits on the comparison, or <code>null</code> if it is not
+	 * limited
+	 */
+	ComparisonBudget budget() {
+		return budget;
+	}
+
+	private ComparisonBudget currentBudget() {
+		return budget != null ? budget : ComparisonBudget.UNLIMITED;
+	}
+
+	private ComparisonConfiguration with(final Layer overrides) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, loadState,
+				compareUnloadedIds, budget);
+	}
+
+	private ComparisonConfiguration withBudget(final ComparisonBudget budget) {
+		return new ComparisonConfiguration(overrides, propertyTypes, parallelThreshold, metrics, tracer, loadState,
+				compareUnloadedIds, budget);
+	}
+
+	/**
+	 * Resolve the overrides into lookup maps the first time the configuration
+	 * is used for a comparison. A configuration built once and shared is
+	 * resolved once, and one built for a single assertion costs no more than
+	 * an allocation per override until it is used.
+	 */
+	private Resolved resolved() {
+		Resolved current = resolved;
+		if (current == null) {
+			resolved = current = new Resolved(overrides);
+		}
+		return current;
+	}
+
+	/**
+	 * An exclusion or override, linked to those made before it so a change
+	 * shares rather than copies the configuration it was made to
+	 */
+	private static final class Layer {
+
+		private static final int PATH = 0, PROPERTY = 1, TYPE = 2;
+
+		private final int kind;
+		private final Object key;
+		private final PropertyComparator<?> comparator;
+		private final Layer next;
+
+		private Layer(final int kind, final Object key, final PropertyComparator<?> comparator,
+				final Layer next) {
+			this.kind = kind;
+			this.key = key;
+			this.comparator = comparator;
+			this.next = next;
+		}
+	}
+
+	private static final class Resolved {
+
+		private final Map<String, PropertyComparator<?>> paths = new HashMap<>();
+		private final Map<String, PropertyComparator<?>> properties = new HashMap<>();
+		private final Map<Class<?>, PropertyComparator<?>> types;
+		/**
+		 * The comparator found for each class compared, held against the class
+		 * so the configuration does not keep the class loaded
+		 */
+		private final ClassValue<Object> typesByClass = new ClassValue<Object>() {
+
+			@Override
+			protected Object computeValue(final Class<?> klass) {
+				for (Entry<Class<?>, PropertyComparator<?>> entry : types.entrySet()) {
+					if (entry.getKey().isAssignableFrom(klass)) {
+						return entry.getValue();
+					}
+				}
+				return NO_COMPARATOR;
+			}
+		};
+
+		private Resolved(final Layer overrides) {
+			Map<Class<?>, PropertyComparator<?>> types = new LinkedHashMap<>();
+			for (Layer layer = overrides; layer != null; layer = layer.next) {
+				switch (layer.kind) {
+					case Layer.PATH:
+						putIfAbsent(paths, (String) layer.key, layer.comparator);
+						break;
+					case Layer.PROPERTY:
+						putIfAbsent(properties, (String) layer.key, layer.comparator);
+						break;
+					default:
+						putIfAbsent(types, (Class<?>) layer.key, layer.comparator);
+				}
+			}
+			if (types.isEmpty()) {
+				types = DEFAULT_TYPES;
+			} else {
+				for (Entry<Class<?>, PropertyComparator<?>> entry : DEFAULT_TYPES.entrySet()) {
+					putIfAbsent(types, entry.getKey(), entry.getValue());
+				}
+			}
+			this.types = types;
+		}
+
+		private PropertyComparator<?> typeComparator(final Class<?> klass) {
+			Object comparator = typesByClass.get(klass);
+			return comparator != NO_COMPARATOR ? (PropertyComparator<?>) comparator : null;
+		}
+
+		private static <K> void putIfAbsent(final Map<K, PropertyComparator<?>> map, final K key,
+				final PropertyComparator<?> comparator) {
+			if (!map.containsKey(key)) {
+				map.put(key, comparator);
+			}
+		}
+	}
+}
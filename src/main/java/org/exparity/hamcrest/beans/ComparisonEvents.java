@@ -0,0 +1,86 @@
+package org.exparity.hamcrest.beans;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records comparisons as Java Flight Recorder events on JVMs which have the
+ * flight recorder. Each comparison is recorded with its root class, the number
+ * of nodes visited, and the number of differences found. Subtrees of beans,
+ * lists, collections, and maps which take longer than a threshold can also be
+ * recorded with their path so the parts of a graph which dominate the time are
+ * visible in the recording.
+ * <p>
+ * The events are looked up through this class rather than used directly so
+ * the library still loads on JVMs without <code>jdk.jfr</code>. When no
+ * recording has the events enabled no event is created.
+ * </p>
+ *
+ * @see JfrEvents
+ * @author Stewart Bissett
+ */
+final class ComparisonEvents {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ComparisonEvents.class);
+
+	/**
+	 * Lazily resolved check for the flight recorder
+	 */
+	private static class FlightRecorderHolder {
+
+		private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+		private static boolean isFlightRecorderAvailable() {
+			try {
+				Class.forName("jdk.jfr.Event");
+				return true;
+			} catch (Throwable e) {
+				LOG.debug("Flight recorder is not available. Comparisons are not recorded");
+				return false;
+			}
+		}
+	}
+
+	private ComparisonEvents() {}
+
+	/**
+	 * Begin the event for a comparison, or return <code>null</code> if
+	 * comparisons are not being recorded
+	 */
+	static Object beginComparison() {
+		return FlightRecorderHolder.AVAILABLE ? JfrEvents.beginComparison() : null;
+	}
+
+	/**
+	 * End and commit the event for a comparison begun with
+	 * {@link #beginComparison()}
+	 */
+	static void endComparison(final Object event, final Class<?> rootClass, final String name, final long nodes,
+			final long differences) {
+		JfrEvents.endComparison(event, rootClass, name, nodes, differences);
+	}
+
+	/**
+	 * Return <code>true</code> if subtrees are being recorded, in which case
+	 * each subtree should be passed to {@link #beginSubtree()} and
+	 * {@link #endSubtree(Object, Class, String)}
+	 */
+	static boolean isSubtreeEnabled() {
+		return FlightRecorderHolder.AVAILABLE && JfrEvents.isSubtreeEnabled();
+	}
+
+	/**
+	 * Begin the event for a subtree
+	 */
+	static Object beginSubtree() {
+		return JfrEvents.beginSubtree();
+	}
+
+	/**
+	 * End the event for a subtree and commit it if it took longer than the
+	 * threshold
+	 */
+	static void endSubtree(final Object event, final Class<?> type, final String path) {
+		JfrEvents.endSubtree(event, type, path);
+	}
+}
@@ -0,0 +1,80 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executors shared by the matchers which compare in parallel.
+ *
+ * @author Stewart Bissett
+ */
+final class ComparisonExecutors {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ComparisonExecutors.class);
+
+	/**
+	 * Lazily created pool shared by all parallel comparisons
+	 */
+	private static class ForkJoinPoolHolder {
+
+		private static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	/**
+	 * Lazily resolved factory for virtual thread executors which is
+	 * <code>null</code> on JVMs without virtual threads
+	 */
+	private static class VirtualThreadFactoryHolder {
+
+		private static final Method FACTORY = findVirtualThreadFactory();
+
+		private static Method findVirtualThreadFactory() {
+			try {
+				return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			} catch (NoSuchMethodException e) {
+				LOG.debug("Virtual threads are not available. Using fork/join pool");
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Set once the factory is found to fail, as it does on JVMs where virtual
+	 * threads are a preview feature which is not enabled
+	 */
+	private static volatile boolean virtualThreadsUnusable;
+
+	private ComparisonExecutors() {}
+
+	/**
+	 * Return the fork/join pool shared by all parallel comparisons
+	 */
+	static ForkJoinPool forkJoinPool() {
+		return ForkJoinPoolHolder.POOL;
+	}
+
+	/**
+	 * Return a new executor which runs each task on its own virtual thread, or
+	 * <code>null</code> if virtual threads are not available or cannot be used.
+	 * The caller is responsible for shutting down the executor.
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+		Method factory = VirtualThreadFactoryHolder.FACTORY;
+		if (factory == null || virtualThreadsUnusable) {
+			return null;
+		}
+		try {
+			return (ExecutorService) factory.invoke(null);
+		} catch (Exception e) {
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			LOG.debug("Virtual threads are not usable. Using fork/join pool. Error '{}'", cause.getMessage());
+			virtualThreadsUnusable = true;
+			return null;
+		}
+	}
+}
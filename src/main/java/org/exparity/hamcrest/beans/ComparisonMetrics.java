@@ -0,0 +1,305 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+/**
+ * Counts the work done by comparisons to help find which models and overrides
+ * make them slow. Metrics are opt-in, either for the comparisons made with one
+ * matcher or configuration
+ *
+ * <pre>
+ * ComparisonMetrics metrics = new ComparisonMetrics();
+ * assertThat(actual, theSameAs(expected).collectMetrics(metrics));
+ * System.out.println(metrics);
+ * </pre>
+ *
+ * or for every comparison which does not have its own metrics
+ *
+ * <pre>
+ * ComparisonMetrics.setGlobal(new ComparisonMetrics()).registerMBean(&quot;suite&quot;);
+ * </pre>
+ *
+ * Metrics can be read here or over JMX once registered as an MBean. The
+ * counters can be updated by parallel comparisons and by several threads at
+ * once.
+ *
+ * @author Stewart Bissett
+ */
+public final class ComparisonMetrics implements ComparisonMetricsMXBean {
+
+	/**
+	 * The kinds of node counted as visited
+	 */
+	public static enum NodeKind {
+		/**
+		 * An object compared property by property
+		 */
+		BEAN,
+		/**
+		 * A list compared element by element
+		 */
+		LIST,
+		/**
+		 * A collection other than a list compared element by element
+		 */
+		COLLECTION,
+		/**
+		 * A map compared entry by entry
+		 */
+		MAP,
+		/**
+		 * An array
+		 */
+		ARRAY,
+		/**
+		 * An enum
+		 */
+		ENUM,
+		/**
+		 * A java.lang value such as a string or a number
+		 */
+		VALUE,
+		/**
+		 * A value compared with a comparator, either one of the defaults or a
+		 * path, property, or type override
+		 */
+		COMPARATOR,
+		/**
+		 * A pair of objects not compared again as they had already been
+		 * compared
+		 */
+		REVISITED,
+		/**
+		 * A pair of objects not compared, or compared by identifier, as one
+		 * of them is not loaded
+		 */
+		UNLOADED
+	}
+
+	private static volatile ComparisonMetrics global;
+
+	/**
+	 * Return the metrics which comparisons without their own metrics are
+	 * counted in, or <code>null</code> if none are set
+	 */
+	public static ComparisonMetrics global() {
+		return global;
+	}
+
+	/**
+	 * Count comparisons without their own metrics in these metrics, or stop
+	 * counting them if <code>null</code>
+	 *
+	 * @return the metrics
+	 */
+	public static ComparisonMetrics setGlobal(final ComparisonMetrics metrics) {
+		global = metrics;
+		return metrics;
+	}
+
+	private final LongAdder comparisons = new LongAdder(), getterCalls = new LongAdder(), sorts = new LongAdder(),
+			sortFallbacks = new LongAdder(), visitedPairs = new LongAdder(), elapsedNanos = new LongAdder();
+	private final AtomicLong maxVisitedPairs = new AtomicLong();
+	private final LongAdder[] nodesVisited = new LongAdder[NodeKind.values().length];
+	private final ConcurrentMap<Class<?>, LongAdder> comparatorCalls = new ConcurrentHashMap<>();
+
+	public ComparisonMetrics() {
+		for (int i = 0; i < nodesVisited.length; ++i) {
+			nodesVisited[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public long getComparisons() {
+		return comparisons.sum();
+	}
+
+	@Override
+	public long getNodesVisited() {
+		long total = 0;
+		for (LongAdder count : nodesVisited) {
+			total += count.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * Return the number of nodes of the kind visited
+	 */
+	public long getNodesVisited(final NodeKind kind) {
+		return nodesVisited[kind.ordinal()].sum();
+	}
+
+	@Override
+	public Map<String, Long> getNodesVisitedByKind() {
+		Map<String, Long> byKind = new TreeMap<>();
+		for (NodeKind kind : NodeKind.values()) {
+			byKind.put(kind.name(), getNodesVisited(kind));
+		}
+		return byKind;
+	}
+
+	@Override
+	public long getGetterCalls() {
+		return getterCalls.sum();
+	}
+
+	@Override
+	public Map<String, Long> getComparatorCalls() {
+		Map<String, Long> byName = new TreeMap<>();
+		for (Entry<Class<?>, LongAdder> entry : comparatorCalls.entrySet()) {
+			byName.put(entry.getKey().getName(), entry.getValue().sum());
+		}
+		return byName;
+	}
+
+	/**
+	 * Return the number of times comparators of the type were called
+	 */
+	public long getComparatorCalls(final Class<?> comparatorType) {
+		LongAdder count = comparatorCalls.get(comparatorType);
+		return count != null ? count.sum() : 0;
+	}
+
+	@Override
+	public long getSorts() {
+		return sorts.sum();
+	}
+
+	@Override
+	public long getSortFallbacks() {
+		return sortFallbacks.sum();
+	}
+
+	@Override
+	public long getVisitedPairs() {
+		return visitedPairs.sum();
+	}
+
+	@Override
+	public long getMaxVisitedPairs() {
+		return maxVisitedPairs.get();
+	}
+
+	/**
+	 * Return the time spent comparing in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos.sum();
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+	}
+
+	@Override
+	public void reset() {
+		comparisons.reset();
+		getterCalls.reset();
+		sorts.reset();
+		sortFallbacks.reset();
+		visitedPairs.reset();
+		elapsedNanos.reset();
+		maxVisitedPairs.set(0);
+		for (LongAdder count : nodesVisited) {
+			count.reset();
+		}
+		comparatorCalls.clear();
+	}
+
+	/**
+	 * Register the metrics with the platform MBean server under
+	 * <code>org.exparity.hamcrest.beans:type=ComparisonMetrics,name=</code>
+	 * the name given
+	 *
+	 * @return the metrics
+	 */
+	public ComparisonMetrics registerMBean(final String name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName(name));
+			return this;
+		} catch (Exception e) {
+			throw new RuntimeException("Error registering metrics '" + name + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	/**
+	 * Remove the metrics registered under the name from the platform MBean
+	 * server
+	 */
+	public static void unregisterMBean(final String name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+		} catch (Exception e) {
+			throw new RuntimeException("Error unregistering metrics '" + name + "'. Error '" + e.getMessage() + "'",
+					e);
+		}
+	}
+
+	/**
+	 * Return the name the metrics are registered under with the platform
+	 * MBean server
+	 */
+	public static ObjectName objectName(final String name) {
+		try {
+			return new ObjectName("org.exparity.hamcrest.beans:type=ComparisonMetrics,name=" + ObjectName.quote(name));
+		} catch (Exception e) {
+			throw new RuntimeException("Error naming metrics '" + name + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ComparisonMetrics [comparisons=" + getComparisons() + ", nodesVisited=" + getNodesVisitedByKind()
+				+ ", getterCalls=" + getGetterCalls() + ", comparatorCalls=" + getComparatorCalls() + ", sorts="
+				+ getSorts() + ", sortFallbacks=" + getSortFallbacks() + ", visitedPairs=" + getVisitedPairs()
+				+ ", maxVisitedPairs=" + getMaxVisitedPairs() + ", elapsedMillis=" + getElapsedMillis() + "]";
+	}
+
+	void nodeVisited(final NodeKind kind) {
+		nodesVisited[kind.ordinal()].increment();
+	}
+
+	void getterCalls(final int calls) {
+		getterCalls.add(calls);
+	}
+
+	void comparatorCalled(final Class<?> comparatorType) {
+		LongAdder count = comparatorCalls.get(comparatorType);
+		if (count == null) {
+			LongAdder created = new LongAdder();
+			count = comparatorCalls.putIfAbsent(comparatorType, created);
+			if (count == null) {
+				count = created;
+			}
+		}
+		count.increment();
+	}
+
+	void sorted(final boolean fallback) {
+		sorts.increment();
+		if (fallback) {
+			sortFallbacks.increment();
+		}
+	}
+
+	void compared(final long pairs, final long nanos) {
+		comparisons.increment();
+		visitedPairs.add(pairs);
+		elapsedNanos.add(nanos);
+		for (long max = maxVisitedPairs.get(); pairs > max && !maxVisitedPairs.compareAndSet(max, pairs); max = maxVisitedPairs
+				.get()) {
+		}
+	}
+}
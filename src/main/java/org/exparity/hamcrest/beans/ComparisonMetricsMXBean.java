@@ -0,0 +1,71 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the {@link ComparisonMetrics} are read
+ * over JMX
+ *
+ * @author Stewart Bissett
+ */
+public interface ComparisonMetricsMXBean {
+
+	/**
+	 * Return the number of graphs compared
+	 */
+	public long getComparisons();
+
+	/**
+	 * Return the number of nodes visited in all the graphs compared
+	 */
+	public long getNodesVisited();
+
+	/**
+	 * Return the number of nodes visited keyed by the kind of node
+	 */
+	public Map<String, Long> getNodesVisitedByKind();
+
+	/**
+	 * Return the number of property getters called
+	 */
+	public long getGetterCalls();
+
+	/**
+	 * Return the number of times each property comparator was called keyed by
+	 * the name of its class
+	 */
+	public Map<String, Long> getComparatorCalls();
+
+	/**
+	 * Return the number of lists and collections sorted before comparing
+	 */
+	public long getSorts();
+
+	/**
+	 * Return the number of lists and collections which could not be sorted
+	 * and were compared in their original order
+	 */
+	public long getSortFallbacks();
+
+	/**
+	 * Return the total of the number of pairs of objects remembered as
+	 * compared by each comparison
+	 */
+	public long getVisitedPairs();
+
+	/**
+	 * Return the largest number of pairs of objects remembered as compared by
+	 * a single comparison
+	 */
+	public long getMaxVisitedPairs();
+
+	/**
+	 * Return the time spent comparing in milliseconds
+	 */
+	public long getElapsedMillis();
+
+	/**
+	 * Set all the counts back to zero
+	 */
+	public void reset();
+}
@@ -0,0 +1,101 @@
+package org.exparity.hamcrest.beans;
+
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which counts the items in a collection
+ * whose value at a property path matches a matcher and checks the count. The
+ * path is parsed once when the matcher is created rather than once per item.
+ * <p>
+ * The matcher is immutable, each change returns a new matcher, so a configured
+ * instance can be shared between threads.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class CountWhere extends TypeSafeDiagnosingMatcher<Iterable<?>> {
+
+	/**
+	 * Creates a matcher that matches if the number of items in the collection being tested which have a property at the
+	 * given path which matches the Matcher matches the count Matcher
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * List&lt;Order&gt; orders = dao.findAll();
+	 * assertThat(orders, countWhere("Order.Status", Matchers.equalTo(Status.FAILED), Matchers.lessThan(10)))
+	 * </pre>
+	 *
+	 * @param path the path to match
+	 * @param matcher the matcher to match each item with
+	 * @param count the matcher to match the number of matching items with
+	 */
+	@Factory
+	public static CountWhere countWhere(final String path, final Matcher<?> matcher,
+			final Matcher<? super Integer> count) {
+		return new CountWhere(path, PropertyPath.parse(path), matcher, count, ComparisonConfiguration.SEQUENTIAL);
+	}
+
+	private final String path;
+	private final PropertyPath compiled;
+	private final Matcher<?> matcher;
+	private final Matcher<? super Integer> count;
+	private final int threshold;
+
+	private CountWhere(final String path, final PropertyPath compiled, final Matcher<?> matcher,
+			final Matcher<? super Integer> count, final int threshold) {
+		this.path = path;
+		this.compiled = compiled;
+		this.matcher = matcher;
+		this.count = count;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Count large collections in parallel using the default threshold of
+	 * {@value TheSameAs#DEFAULT_PARALLEL_THRESHOLD}
+	 *
+	 * @see #inParallel(int)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public CountWhere inParallel() {
+		return inParallel(TheSameAs.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Count large collections in parallel. A collection with more items than
+	 * the threshold is split into fork/join tasks of at most threshold items,
+	 * so the matcher must be safe to use from several threads.
+	 *
+	 * @param threshold
+	 *            the number of items above which the count is split
+	 * @return a copy of the matcher with the change applied
+	 */
+	public CountWhere inParallel(final int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+		}
+		return new CountWhere(path, compiled, matcher, count, threshold);
+	}
+
+	@Override
+	public void describeTo(final Description description) {
+		description.appendText("has a number of items with path '").appendText(path).appendText("' which matches ")
+				.appendDescriptionOf(matcher).appendText(" which is ").appendDescriptionOf(count);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Iterable<?> items, final Description mismatchDescription) {
+		int matched = PathCount.count(items, compiled, matcher, threshold, 0, false).matched();
+		if (count.matches(matched)) {
+			return true;
+		}
+		mismatchDescription.appendText("has ").appendValue(matched).appendText(" items with path '").appendText(path)
+				.appendText("' which matches ");
+		matcher.describeTo(mismatchDescription);
+		return false;
+	}
+}
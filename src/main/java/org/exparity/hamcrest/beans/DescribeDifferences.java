@@ -0,0 +1,34 @@
+package org.exparity.hamcrest.beans;
+
+import org.apache.commons.lang.SystemUtils;
+import org.hamcrest.Description;
+
+/**
+ * Appends each difference to a mismatch description on its own line
+ *
+ * @author Stewart Bissett
+ */
+class DescribeDifferences implements DifferenceListener {
+
+	private final Description desc;
+	private boolean first = true;
+
+	public DescribeDifferences(final Description desc) {
+		this.desc = desc;
+	}
+
+	@Override
+	public void onDifference(final Difference difference) {
+		if (!first) {
+			desc.appendText(SystemUtils.LINE_SEPARATOR);
+		}
+		if (difference.getKind() == Difference.Kind.NOT_COMPARED) {
+			desc.appendText(difference.getPath()).appendText(" was not fully compared, ").appendText(String.valueOf(
+					difference.getActual()));
+		} else {
+			desc.appendText(difference.getPath()).appendText(" is ").appendValue(difference.getActual())
+					.appendText(" instead of ").appendValue(difference.getExpected());
+		}
+		first = false;
+	}
+}
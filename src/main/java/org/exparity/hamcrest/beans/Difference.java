@@ -0,0 +1,81 @@
+package org.exparity.hamcrest.beans;
+
+/**
+ * A single difference found when comparing two object graphs.
+ *
+ * @author Stewart Bissett
+ */
+public final class Difference {
+
+	/**
+	 * Enumeration of the kinds of difference which can be found
+	 *
+	 * @author Stewart Bissett
+	 */
+	public static enum Kind {
+
+		/**
+		 * The expected and actual values are both present but are not the same
+		 */
+		VALUE,
+
+		/**
+		 * The expected value is present but there is no actual value
+		 */
+		MISSING,
+
+		/**
+		 * There is an actual value where none was expected
+		 */
+		UNEXPECTED,
+
+		/**
+		 * The array, collection, or map has a different number of elements. The
+		 * expected and actual values are the sizes.
+		 */
+		SIZE,
+
+		/**
+		 * The bean, list, or map was not compared, or not completely compared,
+		 * as the comparison reached a limit on its depth, nodes, or time. The
+		 * expected value is <code>null</code> and the actual value is the
+		 * limit reached e.g. "max nodes of 1000 reached"
+		 */
+		NOT_COMPARED
+	};
+
+	private final String path;
+	private final Kind kind;
+	private final Object expected, actual;
+
+	public Difference(final String path, final Kind kind, final Object expected, final Object actual) {
+		this.path = path;
+		this.kind = kind;
+		this.expected = expected;
+		this.actual = actual;
+	}
+
+	/**
+	 * Return the path to the difference e.g. Person.Addresses[0].Street
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public Object getExpected() {
+		return expected;
+	}
+
+	public Object getActual() {
+		return actual;
+	}
+
+	@Override
+	public String toString() {
+		return "Difference [" + kind + " at " + path + " is " + actual + " instead of " + expected + "]";
+	}
+}
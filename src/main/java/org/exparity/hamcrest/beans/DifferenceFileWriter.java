@@ -0,0 +1,187 @@
+package org.exparity.hamcrest.beans;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of a {@link DifferenceListener} which writes each difference
+ * to a file as a line of JSON (JSON Lines) e.g.
+ *
+ * <pre>
+ * {"path":"Person.Age","kind":"VALUE","expected":21,"actual":22}
+ * </pre>
+ * <p>
+ * Lines are encoded into a fixed size buffer which is written to a
+ * {@link FileChannel} when full, so the memory used does not grow with the
+ * number of differences. Values which are not numbers or booleans are written
+ * as their {@link String#valueOf(Object)} form, as are NaN and infinite
+ * doubles and floats, which JSON has no number for.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class DifferenceFileWriter implements DifferenceListener, Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Create a writer for the file. Any existing content of the file is
+	 * replaced.
+	 *
+	 * @param file
+	 *            the file to write to
+	 */
+	public static DifferenceFileWriter open(final File file) {
+		try {
+			return new DifferenceFileWriter(file, FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to open '" + file + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private final File file;
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+	private final StringBuilder line = new StringBuilder(256);
+	private long count;
+
+	private DifferenceFileWriter(final File file, final FileChannel channel) {
+		this.file = file;
+		this.channel = channel;
+	}
+
+	@Override
+	public void onDifference(final Difference difference) {
+		line.setLength(0);
+		line.append("{\"path\":");
+		appendString(difference.getPath());
+		line.append(",\"kind\":\"").append(difference.getKind()).append("\",\"expected\":");
+		appendValue(difference.getExpected());
+		line.append(",\"actual\":");
+		appendValue(difference.getActual());
+		line.append("}\n");
+		write(line);
+		++count;
+	}
+
+	/**
+	 * Return the number of differences written
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Return the file the differences are written to
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Write any buffered differences to the file and close it
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void appendValue(final Object value) {
+		if (value == null) {
+			line.append("null");
+		} else if (isNonFinite(value)) {
+			appendString(String.valueOf(value));
+		} else if (value instanceof Number || value instanceof Boolean) {
+			line.append(value);
+		} else {
+			appendString(String.valueOf(value));
+		}
+	}
+
+	/**
+	 * Return <code>true</code> if the value is a NaN or infinite double or
+	 * float, which JSON has no number for so is written as a string
+	 */
+	private static boolean isNonFinite(final Object value) {
+		if (value instanceof Double) {
+			return ((Double) value).isNaN() || ((Double) value).isInfinite();
+		} else if (value instanceof Float) {
+			return ((Float) value).isNaN() || ((Float) value).isInfinite();
+		}
+		return false;
+	}
+
+	private void appendString(final String value) {
+		line.append('"');
+		for (int i = 0; i < value.length(); ++i) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				line.append("\\\"");
+				break;
+			case '\\':
+				line.append("\\\\");
+				break;
+			case '\n':
+				line.append("\\n");
+				break;
+			case '\r':
+				line.append("\\r");
+				break;
+			case '\t':
+				line.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					line.append(String.format("\\u%04x", (int) c));
+				} else {
+					line.append(c);
+				}
+			}
+		}
+		line.append('"');
+	}
+
+	private void write(final CharSequence chars) {
+		try {
+			CharBuffer in = CharBuffer.wrap(chars);
+			encoder.reset();
+			CoderResult result;
+			do {
+				result = encoder.encode(in, buffer, true);
+				if (result.isOverflow()) {
+					flush();
+				} else if (result.isError()) {
+					result.throwException();
+				}
+			} while (result.isOverflow());
+			while (encoder.flush(buffer).isOverflow()) {
+				flush();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to write to '" + file + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
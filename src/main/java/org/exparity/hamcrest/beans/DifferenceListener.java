@@ -0,0 +1,16 @@
+package org.exparity.hamcrest.beans;
+
+/**
+ * Interface to be implemented by classes which receive the differences found
+ * when comparing two object graphs. Differences are delivered in traversal
+ * order as they are found.
+ *
+ * @author Stewart Bissett
+ */
+public interface DifferenceListener {
+
+	/**
+	 * Receive a difference between the expected and actual graphs
+	 */
+	public void onDifference(final Difference difference);
+}
@@ -0,0 +1,131 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.Arrays;
+
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which checks the value at a property path
+ * of every item in a collection. The path is parsed once when the matcher is
+ * created rather than once per item, as it would be with
+ * <code>everyItem(hasPath(...))</code>, and the indexes of the first items
+ * which do not match are reported.
+ * <p>
+ * The matcher is immutable, each change returns a new matcher, so a configured
+ * instance can be shared between threads.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class EveryItemHasPath extends TypeSafeDiagnosingMatcher<Iterable<?>> {
+
+	/**
+	 * The number of failing indexes reported by default
+	 */
+	public static final int DEFAULT_REPORT_LIMIT = 10;
+
+	/**
+	 * Creates a matcher that matches if every item in the collection being tested has a property at the given path and
+	 * it matches the Matcher
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * List&lt;Order&gt; orders = dao.findAll();
+	 * assertThat(orders, everyItemHasPath("Order.Customer.Name", Matchers.notNullValue()))
+	 * </pre>
+	 *
+	 * @param path the path to match
+	 * @param matcher the matcher to match with
+	 */
+	@Factory
+	public static EveryItemHasPath everyItemHasPath(final String path, final Matcher<?> matcher) {
+		return new EveryItemHasPath(path, PropertyPath.parse(path), matcher, ComparisonConfiguration.SEQUENTIAL,
+				DEFAULT_REPORT_LIMIT);
+	}
+
+	private final String path;
+	private final PropertyPath compiled;
+	private final Matcher<?> matcher;
+	private final int threshold, limit;
+
+	private EveryItemHasPath(final String path, final PropertyPath compiled, final Matcher<?> matcher,
+			final int threshold, final int limit) {
+		this.path = path;
+		this.compiled = compiled;
+		this.matcher = matcher;
+		this.threshold = threshold;
+		this.limit = limit;
+	}
+
+	/**
+	 * Check large collections in parallel using the default threshold of
+	 * {@value TheSameAs#DEFAULT_PARALLEL_THRESHOLD}
+	 *
+	 * @see #inParallel(int)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public EveryItemHasPath inParallel() {
+		return inParallel(TheSameAs.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	/**
+	 * Check large collections in parallel. A collection with more items than
+	 * the threshold is split into fork/join tasks of at most threshold items,
+	 * so the matcher must be safe to use from several threads. The same
+	 * indexes are reported as for a sequential check.
+	 *
+	 * <pre>
+	 * assertThat(dao.findAll(), everyItemHasPath(&quot;Order.Total&quot;, greaterThan(0)).inParallel(10000));
+	 * </pre>
+	 *
+	 * @param threshold
+	 *            the number of items above which the check is split
+	 * @return a copy of the matcher with the change applied
+	 */
+	public EveryItemHasPath inParallel(final int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+		}
+		return new EveryItemHasPath(path, compiled, matcher, threshold, limit);
+	}
+
+	/**
+	 * Report the indexes of at most the given number of items which do not
+	 * match. The check stops once more items than this are found.
+	 *
+	 * @param limit
+	 *            the number of failing indexes to report
+	 * @return a copy of the matcher with the change applied
+	 */
+	public EveryItemHasPath reportingFirst(final int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("Report limit must be greater than zero");
+		}
+		return new EveryItemHasPath(path, compiled, matcher, threshold, limit);
+	}
+
+	@Override
+	public void describeTo(final Description description) {
+		description.appendText("every item has path '").appendText(path).appendText("' which matches ")
+				.appendDescriptionOf(matcher);
+	}
+
+	@Override
+	protected boolean matchesSafely(final Iterable<?> items, final Description mismatchDescription) {
+		PathCount count = PathCount.count(items, compiled, matcher, threshold, limit, true);
+		if (count.failed() == 0) {
+			return true;
+		}
+		mismatchDescription.appendText("has items at indexes ").appendText(Arrays.toString(count.failures()));
+		if (count.isTruncated()) {
+			mismatchDescription.appendText(" and more");
+		}
+		mismatchDescription.appendText(" which do not have path '").appendText(path).appendText("' which matches ");
+		matcher.describeTo(mismatchDescription);
+		return false;
+	}
+}
@@ -0,0 +1,1117 @@
+package org.exparity.hamcrest.beans;
+
+import static org.apache.commons.lang.StringUtils.substringAfterLast;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.builder.CompareToBuilder;
+import org.exparity.beans.Type;
+import org.exparity.beans.core.AbstractProperty;
+import org.exparity.beans.core.ImmutableTypeProperty;
+import org.exparity.beans.core.TypeProperty;
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.exparity.hamcrest.beans.TheSameAs.DoublePropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.LongPropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.exparity.hamcrest.beans.comparators.IsEqual;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The traversal shared by {@link TheSameAs} and {@link BeanDiff}. Walks the
+ * expected and actual graphs together, applying the path, property, and type
+ * overrides in the {@link ComparisonConfiguration}, and reports each
+ * {@link Difference} to a {@link DifferenceListener} as it is found.
+ * <p>
+ * When comparing elements in a collection or an array a copy of the
+ * collection is ordered. If the elements are comparable then their natural
+ * order is used, or alternatively
+ * {@link org.apache.commons.lang.builder.CompareToBuilder#reflectionCompare(Object, Object)}
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+final class GraphComparison {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GraphComparison.class);
+
+	@SuppressWarnings("rawtypes")
+	private static final Comparator DEFAULT_COMPARATOR = new Comparator() {
+
+		public int compare(final Object o1, final Object o2) {
+			return CompareToBuilder.reflectionCompare(o1, o2);
+		}
+	};
+
+	private final ComparisonConfiguration configuration;
+	private final LoadStateProbe loadState;
+
+	GraphComparison(final ComparisonConfiguration configuration) {
+		this.configuration = configuration;
+		this.loadState = configuration.loadState();
+	}
+
+	/**
+	 * Compare the expected and actual graphs, reporting each difference to the
+	 * listener. In a parallel comparison the listener may be called from a
+	 * fork/join worker, but never from more than one thread at a time.
+	 *
+	 * @return <code>true</code> if no differences were found
+	 */
+	boolean compare(final Object expected, final Object actual, final String name, final DifferenceListener listener) {
+		ComparisonMetrics metrics = configuration.metrics();
+		Object event = ComparisonEvents.beginComparison();
+		ComparisonBudget budget = configuration.budget();
+		ComparisonContext ctx = new ComparisonContext(listener, configuration.parallelThreshold(), metrics,
+				configuration.tracer(), ComparisonEvents.isSubtreeEnabled(), budget != null ? budget.start() : null);
+		if (metrics == null && event == null) {
+			compareObjects(expected, actual, NodePath.root(name), ctx);
+			return ctx.areSame();
+		}
+		long start = System.nanoTime();
+		try {
+			compareObjects(expected, actual, NodePath.root(name), ctx);
+		} finally {
+			if (metrics != null) {
+				metrics.compared(ctx.comparedPairs(), System.nanoTime() - start);
+			}
+			if (event != null) {
+				ComparisonEvents.endComparison(event, expected != null ? expected.getClass() : actual != null ? actual
+						.getClass() : null, name, ctx.nodes, ctx.differences);
+			}
+		}
+		return ctx.areSame();
+	}
+
+	/**
+	 * Compare a pair of objects and everything they refer to. The graphs are
+	 * walked depth first, as they would be by recursion, but with an explicit
+	 * stack of the beans, lists, and maps part way through being compared, so
+	 * the depth of graph which can be compared is not limited by the size of
+	 * the thread's stack.
+	 */
+	void compareObjects(final Object expected, final Object actual, final NodePath path,
+			final ComparisonContext ctx) {
+		Deque<Frame> stack = new ArrayDeque<>();
+		compareNode(expected, actual, path, ctx, stack);
+		compareFrames(stack, ctx);
+	}
+
+	/**
+	 * Compare the children of the frames on the stack until it is empty, or
+	 * until the budget of the comparison is spent
+	 */
+	private void compareFrames(final Deque<Frame> stack, final ComparisonContext ctx) {
+		while (!stack.isEmpty()) {
+			if (ctx.isExhausted()) {
+				abandonFrames(stack, ctx);
+				return;
+			}
+			Frame frame = stack.peek();
+			if (!frame.compareNext(ctx, stack)) {
+				stack.pop();
+				frame.end();
+			}
+		}
+	}
+
+	/**
+	 * Report the frames on the stack with children left to compare as not
+	 * compared, outermost first, and empty the stack
+	 */
+	private void abandonFrames(final Deque<Frame> stack, final ComparisonContext ctx) {
+		for (Iterator<Frame> frames = stack.descendingIterator(); frames.hasNext();) {
+			Frame frame = frames.next();
+			if (frame.hasNext()) {
+				ctx.addDifference(frame.path, Kind.NOT_COMPARED, null, ctx.budget.exceeded());
+			}
+		}
+		while (!stack.isEmpty()) {
+			stack.pop().end();
+		}
+	}
+
+	/**
+	 * Compare a pair of objects, pushing a frame onto the stack for their
+	 * children if they are a bean, list, collection, or map
+	 */
+	@SuppressWarnings("rawtypes")
+	private void compareNode(final Object expected, final Object actual, final NodePath path,
+			final ComparisonContext ctx, final Deque<Frame> stack) {
+
+		if (ctx.tracer != null) {
+			ctx.tracer.onCompare(path.toString(), expected, actual);
+		}
+
+		if (expected == null && actual == null) {
+			return;
+		}
+
+		PropertyComparator pathComparator = pathComparator(path);
+		if (pathComparator != null) {
+			compareUsingPropertyComparator(expected, actual, path, pathComparator, ctx);
+			return;
+		}
+
+		PropertyComparator propertyComparator = propertyComparator(path);
+		if (propertyComparator != null) {
+			compareUsingPropertyComparator(expected, actual, path, propertyComparator, ctx);
+			return;
+		}
+
+		Class<?> klass = expected != null ? expected.getClass() : actual.getClass();
+		if (loadState != null) {
+			if (expected != null && actual != null && (!loadState.isLoaded(expected) || !loadState.isLoaded(actual))) {
+				compareUnloaded(expected, actual, path, ctx);
+				return;
+			}
+			klass = loadState.unwrap(klass);
+		}
+
+		PropertyComparator typeComparator = configuration.typeComparator(klass);
+		if (typeComparator != null) {
+			compareUsingPropertyComparator(expected, actual, path, typeComparator, ctx);
+			return;
+		}
+
+		if (expected != null && actual == null || expected == null && actual != null) {
+			ctx.addDifference(path, expected == null ? Kind.UNEXPECTED : Kind.MISSING, expected, actual);
+			return;
+		}
+
+		final Type type = TypeMetadata.of(klass).type();
+		if (type.isArray()) {
+			ctx.visited(path, NodeKind.ARRAY);
+			compareArrays(expected, actual, path, ctx);
+		} else if (type.isEnum()) {
+			ctx.visited(path, NodeKind.ENUM);
+			compareEnums(expected, actual, path, ctx);
+		} else if (type.packageName().startsWith("java.lang")) {
+			ctx.visited(path, NodeKind.VALUE);
+			compareLangTypes(expected, actual, path, ctx);
+		} else if (isEmpty(expected) && isEmpty(actual)) {
+			return;
+		} else if (ctx.budget != null && path.depth >= configuration.budget().maxDepth()) {
+			ctx.addDifference(path, Kind.NOT_COMPARED, null, configuration.budget().depthExceeded());
+		} else if (!ctx.addComparedPair(expected, actual)) {
+			ctx.visited(path, NodeKind.REVISITED);
+		} else if (ctx.recordSubtrees) {
+			Object event = ComparisonEvents.beginSubtree();
+			Frame frame = compareStructures(expected, actual, path, type, ctx, stack);
+			if (frame != null) {
+				frame.recordAs(event, klass);
+			} else {
+				ComparisonEvents.endSubtree(event, klass, pathWithoutIndexes(path.toString()));
+			}
+		} else {
+			compareStructures(expected, actual, path, type, ctx, stack);
+		}
+	}
+
+	/**
+	 * Compare a pair of objects, one or both of which are not loaded, by their
+	 * identifiers if configured to and the probe knows them both, or else skip
+	 * them
+	 */
+	private void compareUnloaded(final Object expected, final Object actual, final NodePath path,
+			final ComparisonContext ctx) {
+		ctx.visited(path, NodeKind.UNLOADED);
+		if (configuration.compareUnloadedIds()) {
+			Object expectedId = loadState.identifierOf(expected), actualId = loadState.identifierOf(actual);
+			if (expectedId != null && actualId != null && !expectedId.equals(actualId)) {
+				ctx.addDifference(path, Kind.VALUE, expectedId, actualId);
+			}
+		}
+	}
+
+	/**
+	 * Compare a list, collection, map, or bean not already compared. Returns
+	 * the frame pushed for its children, or <code>null</code> if it was
+	 * compared without one
+	 */
+	@SuppressWarnings("rawtypes")
+	private Frame compareStructures(final Object expected, final Object actual, final NodePath path, final Type type,
+			final ComparisonContext ctx, final Deque<Frame> stack) {
+		if (type.is(List.class)) {
+			ctx.visited(path, NodeKind.LIST);
+			return compareLists((List) expected, (List) actual, path, ctx, stack);
+		} else if (type.is(Collection.class)) {
+			ctx.visited(path, NodeKind.COLLECTION);
+			return compareCollections((Collection) expected, (Collection) actual, path, ctx, stack);
+		} else if (type.is(Map.class)) {
+			ctx.visited(path, NodeKind.MAP);
+			return compareMaps((Map) expected, (Map) actual, path, ctx, stack);
+		} else {
+			ctx.visited(path, NodeKind.BEAN);
+			return compareProperties(expected, actual, path, propertiesOf(type.getType(), configuration.propertyTypes()), ctx,
+					stack);
+		}
+	}
+
+	private Frame compareProperties(final Object expected, final Object actual, final NodePath path,
+			final List<? extends AbstractProperty> properties, final ComparisonContext ctx, final Deque<Frame> stack) {
+		if (ctx.isSplittable(properties.size())) {
+			ctx.parallel(path, properties.size());
+			ctx.invoke(new IndexedComparison() {
+
+				public void compareAt(final int index, final ComparisonContext taskCtx) {
+					Deque<Frame> taskStack = new ArrayDeque<>();
+					compareProperty(expected, actual, path, properties.get(index), taskCtx, taskStack);
+					compareFrames(taskStack, taskCtx);
+				}
+			}, properties.size(), path);
+			return null;
+		}
+		return push(stack, new PropertiesFrame(expected, actual, path, properties));
+	}
+
+	private void compareProperty(final Object expected, final Object actual, final NodePath path,
+			final AbstractProperty property, final ComparisonContext ctx, final Deque<Frame> stack) {
+		NodePath propertyPath = path.property(property.getName());
+		PrimitiveGetter getter = PrimitiveGetter.of(accessorOf(property));
+		ctx.gettersCalled(2);
+		if (getter == null || !comparePrimitives(expected, actual, propertyPath, property, getter, ctx)) {
+			compareNode(valueOf(property, expected), valueOf(property, actual), propertyPath, ctx, stack);
+		}
+	}
+
+	/**
+	 * Compare a property with a primitive getter without boxing its values if
+	 * the comparator which applies to it can compare primitives, or it has no
+	 * comparator and is compared for equality. Returns <code>false</code> if
+	 * the property must be compared as objects instead.
+	 */
+	private boolean comparePrimitives(final Object expected, final Object actual, final NodePath path,
+			final AbstractProperty property, final PrimitiveGetter getter, final ComparisonContext ctx) {
+		PropertyComparator<?> comparator = pathComparator(path);
+		if (comparator == null) {
+			comparator = propertyComparator(path);
+		}
+		if (comparator == null) {
+			comparator = configuration.typeComparator(getter.boxedType());
+		}
+		try {
+			boolean same;
+			if (comparator instanceof DoublePropertyComparator && !getter.isBoolean()) {
+				ctx.comparatorCalled(path, comparator);
+				same = ((DoublePropertyComparator) comparator).matches(getter.doubleValue(expected), getter
+						.doubleValue(actual));
+			} else if (comparator instanceof LongPropertyComparator && getter.isIntegral()) {
+				ctx.comparatorCalled(path, comparator);
+				same = ((LongPropertyComparator) comparator).matches(getter.longValue(expected), getter
+						.longValue(actual));
+			} else if (comparator == null || comparator instanceof IsEqual) {
+				ctx.visited(path, NodeKind.VALUE);
+				if (getter.isIntegral()) {
+					same = getter.longValue(expected) == getter.longValue(actual);
+				} else if (getter.isFloatingPoint()) {
+					same = Double.doubleToLongBits(getter.doubleValue(expected)) == Double.doubleToLongBits(getter
+							.doubleValue(actual));
+				} else {
+					same = getter.booleanValue(expected) == getter.booleanValue(actual);
+				}
+			} else {
+				return false;
+			}
+			if (!same) {
+				ctx.gettersCalled(2);
+				ctx.addDifference(path, Kind.VALUE, valueOf(property, expected), valueOf(property, actual));
+			}
+			return true;
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	/**
+	 * Return the comparator for the path, building the path to look it up
+	 * only if any path is overridden
+	 */
+	private PropertyComparator<?> pathComparator(final NodePath path) {
+		return configuration.hasPathComparators() ? configuration.pathComparator(pathWithoutIndexes(path.toString()))
+				: null;
+	}
+
+	private PropertyComparator<?> propertyComparator(final NodePath path) {
+		return configuration.hasPropertyComparators() ? configuration.propertyComparator(path.propertyName()) : null;
+	}
+
+	/**
+	 * Return the properties of the class which are compared for the property
+	 * type, either all of its getters or only its bean properties
+	 */
+	static List<? extends AbstractProperty> propertiesOf(final Class<?> klass, final PropertyType propertyTypes) {
+		return TypeMetadata.of(klass).propertiesOf(propertyTypes);
+	}
+
+	static Method accessorOf(final AbstractProperty property) {
+		if (property instanceof TypeProperty) {
+			return ((TypeProperty) property).getAccessor();
+		} else {
+			return ((ImmutableTypeProperty) property).getAccessor();
+		}
+	}
+
+	static Object valueOf(final AbstractProperty property, final Object instance) {
+		if (property instanceof TypeProperty) {
+			return ((TypeProperty) property).getValue(instance);
+		} else {
+			return ((ImmutableTypeProperty) property).getValue(instance);
+		}
+	}
+
+	private void compareArrays(final Object expected, final Object actual, final NodePath path,
+			final ComparisonContext ctx) {
+		try {
+			int expectedLength = Array.getLength(expected), actualLength = Array.getLength(actual);
+			String arrayPath = path + getDotIfRequired(path.toString());
+			if (expectedLength != actualLength) {
+				ctx.addDifference(path.property("size"), Kind.SIZE, expectedLength, actualLength);
+			} else {
+				for (int i = 0; i < expectedLength; ++i) {
+					Object expectedValue = Array.get(expected, i), actualValue = Array.get(actual, i);
+					if (expectedValue == null) {
+						if (actualValue != null) {
+							ctx.addDifference(arrayPath, Kind.VALUE, expected, actual);
+						}
+					} else if (!expectedValue.equals(actualValue)) {
+						ctx.addDifference(arrayPath, Kind.VALUE, expected, actual);
+					}
+				}
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private void compareEnums(final Object expected, final Object actual, final NodePath path,
+							  final ComparisonContext ctx) {
+		if (actual != expected) {
+			ctx.addDifference(path, Kind.VALUE, expected, actual);
+		}
+	}
+
+	private void compareLangTypes(final Object expected, final Object actual, final NodePath path,
+			final ComparisonContext ctx) {
+		try {
+			if (!expected.equals(actual)) {
+				ctx.addDifference(path, Kind.VALUE, expected, actual);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Frame compareMaps(final Map expected, final Map actual, final NodePath path, final ComparisonContext ctx,
+			final Deque<Frame> stack) {
+		if (expected.size() != actual.size()) {
+			ctx.addDifference(path.property("size"), Kind.SIZE, expected.size(), actual.size());
+			return null;
+		}
+		return push(stack, new EntriesFrame(expected, actual, path));
+	}
+
+	/**
+	 * Return the lower case path with the indexes removed which path overrides
+	 * are registered against e.g. person.addresses.street
+	 */
+	static String pathWithoutIndexes(final String path) {
+		int open = path.indexOf('[');
+		if (open < 0) {
+			return path.toLowerCase();
+		}
+		StringBuilder withoutIndexes = new StringBuilder(path.length());
+		int from = 0;
+		while (open >= 0) {
+			int close = open + 1;
+			while (close < path.length() && isWordCharacter(path.charAt(close))) {
+				++close;
+			}
+			if (close + 1 < path.length() && path.charAt(close) == ']' && path.charAt(close + 1) == '.') {
+				withoutIndexes.append(path, from, open);
+				from = close + 1;
+				open = path.indexOf('[', close + 2);
+			} else {
+				open = path.indexOf('[', open + 1);
+			}
+		}
+		return withoutIndexes.append(path, from, path.length()).toString().toLowerCase();
+	}
+
+	/**
+	 * Return <code>true</code> if the character is a letter, digit, or
+	 * underscore, the characters an index is removed from a path for
+	 */
+	private static boolean isWordCharacter(final char c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+	}
+
+	/**
+	 * Return the lower case property name at the end of the path which
+	 * property overrides are registered against e.g. street
+	 */
+	static String propertyName(final String path, final String pathWithoutIndexes) {
+		return StringUtils.contains(path, ".") ? substringAfterLast(pathWithoutIndexes, ".") : pathWithoutIndexes;
+	}
+
+	/**
+	 * Return <code>true</code> if the value is an empty collection or map,
+	 * which need not be remembered as compared as it refers to nothing else
+	 */
+	@SuppressWarnings("rawtypes")
+	private static boolean isEmpty(final Object value) {
+		if (value instanceof Collection) {
+			return ((Collection) value).isEmpty();
+		} else if (value instanceof Map) {
+			return ((Map) value).isEmpty();
+		}
+		return false;
+	}
+
+	static String getDotIfRequired(final String path) {
+		return StringUtils.isNotBlank(path) ? "." : "";
+	}
+
+	/**
+	 * Sort a copy of a list into the order used when comparing its elements,
+	 * either their natural order or by reflection if they are not comparable.
+	 * The list is left unsorted if it cannot be sorted by reflection.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static List sortedCopy(final Collection collection, final boolean naturalOrder, final Object path) {
+		List list = new ArrayList(collection);
+		Exception failure = sort(list, naturalOrder);
+		if (failure != null) {
+			if (LOG.isDebugEnabled()) {
+				LOG.warn("Unable to sort list at property {}", path, failure);
+			} else {
+				LOG.warn("Unable to sort list at property {}", path);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Sort a list into the order used when comparing its elements, returning
+	 * the failure if it cannot be sorted by reflection and is left unsorted
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static Exception sort(final List list, final boolean naturalOrder) {
+		if (naturalOrder) {
+			Collections.sort(list);
+		} else {
+			try {
+				Collections.sort(list, DEFAULT_COMPARATOR);
+			} catch (Exception e) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Frame compareCollections(final Collection expected, final Collection actual, final NodePath path,
+			final ComparisonContext ctx, final Deque<Frame> stack) {
+		return compareLists(expected, actual, path, ctx, stack);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Frame compareLists(final Collection expected, final Collection actual, final NodePath path,
+			final ComparisonContext ctx, final Deque<Frame> stack) {
+		try {
+			if (expected.isEmpty() && actual.isEmpty()) {
+				return null;
+			} else if (expected.size() != actual.size()) {
+				ctx.addDifference(path.property("size"), Kind.SIZE, expected.size(), actual.size());
+				return null;
+			}
+			final List expectedList = new ArrayList(expected), actualList = new ArrayList(actual);
+			boolean naturalOrder = expectedList.get(0) instanceof Comparable;
+			ctx.sorted(path, sort(expectedList, naturalOrder));
+			ctx.sorted(path, sort(actualList, naturalOrder));
+			if (ctx.isSplittable(expectedList.size())) {
+				ctx.parallel(path, expectedList.size());
+				ctx.invoke(new IndexedComparison() {
+
+					public void compareAt(final int index, final ComparisonContext taskCtx) {
+						compareObjects(expectedList.get(index), actualList.get(index), path.index(index), taskCtx);
+					}
+				}, expectedList.size(), path);
+				return null;
+			}
+			return push(stack, new ElementsFrame(expectedList, actualList, path));
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private static Frame push(final Deque<Frame> stack, final Frame frame) {
+		stack.push(frame);
+		return frame;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void compareUsingPropertyComparator(final Object lhs, final Object rhs, final NodePath path,
+			final PropertyComparator comparator, final ComparisonContext ctx) {
+		ctx.comparatorCalled(path, comparator);
+		try {
+			if (!comparator.matches(lhs, rhs)) {
+				ctx.addDifference(path, Kind.VALUE, lhs, rhs);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	/**
+	 * A bean, list, or map whose children are part way through being
+	 * compared. Each call to {@link #compareNext(ComparisonContext, Deque)}
+	 * compares the next child, which may push a frame of its own, so the
+	 * children of a frame are compared in order and each one completely
+	 * before the next, as they would be by recursion.
+	 */
+	private abstract class Frame {
+
+		protected final NodePath path;
+		private Object event;
+		private Class<?> type;
+
+		protected Frame(final NodePath path) {
+			this.path = path;
+		}
+
+		/**
+		 * Compare the next child. Returns <code>false</code> if there are no
+		 * more children to compare
+		 */
+		abstract boolean compareNext(final ComparisonContext ctx, final Deque<Frame> stack);
+
+		/**
+		 * Return <code>true</code> if there are children not yet compared
+		 */
+		abstract boolean hasNext();
+
+		/**
+		 * Record the subtree as a flight recorder event once its children have
+		 * been compared
+		 */
+		void recordAs(final Object event, final Class<?> type) {
+			this.event = event;
+			this.type = type;
+		}
+
+		void end() {
+			if (event != null) {
+				ComparisonEvents.endSubtree(event, type, pathWithoutIndexes(path.toString()));
+			}
+		}
+	}
+
+	private class PropertiesFrame extends Frame {
+
+		private final Object expected, actual;
+		private final List<? extends AbstractProperty> properties;
+		private int index = 0;
+
+		private PropertiesFrame(final Object expected, final Object actual, final NodePath path,
+				final List<? extends AbstractProperty> properties) {
+			super(path);
+			this.expected = expected;
+			this.actual = actual;
+			this.properties = properties;
+		}
+
+		@Override
+		boolean hasNext() {
+			return index < properties.size();
+		}
+
+		@Override
+		boolean compareNext(final ComparisonContext ctx, final Deque<Frame> stack) {
+			if (index == properties.size()) {
+				return false;
+			}
+			compareProperty(expected, actual, path, properties.get(index++), ctx, stack);
+			return true;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class ElementsFrame extends Frame {
+
+		private final List expected, actual;
+		private int index = 0;
+
+		private ElementsFrame(final List expected, final List actual, final NodePath path) {
+			super(path);
+			this.expected = expected;
+			this.actual = actual;
+		}
+
+		@Override
+		boolean hasNext() {
+			return index < expected.size();
+		}
+
+		@Override
+		boolean compareNext(final ComparisonContext ctx, final Deque<Frame> stack) {
+			if (index == expected.size()) {
+				return false;
+			}
+			try {
+				compareNode(expected.get(index), actual.get(index), path.index(index), ctx, stack);
+			} catch (Exception e) {
+				throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+			}
+			++index;
+			return true;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class EntriesFrame extends Frame {
+
+		private final Map expected, actual;
+		private final Iterator keys;
+
+		private EntriesFrame(final Map expected, final Map actual, final NodePath path) {
+			super(path);
+			this.expected = expected;
+			this.actual = actual;
+			this.keys = expected.keySet().iterator();
+		}
+
+		@Override
+		boolean hasNext() {
+			return keys.hasNext();
+		}
+
+		@Override
+		boolean compareNext(final ComparisonContext ctx, final Deque<Frame> stack) {
+			if (!keys.hasNext()) {
+				return false;
+			}
+			try {
+				Object key = keys.next();
+				Object expectedValue = expected.get(key), actualValue = actual.get(key);
+				if (actualValue == null) {
+					ctx.addDifference(path.index(key), Kind.MISSING, expectedValue, null);
+				} else {
+					compareNode(expectedValue, actualValue, path.index(key), ctx, stack);
+				}
+			} catch (Exception e) {
+				throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A comparison of the item at an index within a list or property list
+	 * which can be run as part of a {@link CompareRangeTask}
+	 */
+	private interface IndexedComparison {
+
+		void compareAt(final int index, final ComparisonContext ctx);
+	}
+
+	/**
+	 * Fork/join task which compares a range of indexes, splitting the range in
+	 * two until it is no larger than the threshold. Each half records its
+	 * differences in its own context and they are joined back in index order
+	 * so the output is deterministic.
+	 */
+	@SuppressWarnings("serial")
+	private static class CompareRangeTask extends RecursiveAction {
+
+		private final IndexedComparison comparison;
+		private final ComparisonContext ctx;
+		private final int from, to;
+
+		public CompareRangeTask(final IndexedComparison comparison, final ComparisonContext ctx, final int from,
+				final int to) {
+			this.comparison = comparison;
+			this.ctx = ctx;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= ctx.threshold) {
+				for (int i = from; i < to; ++i) {
+					if (ctx.isExhausted()) {
+						ctx.skipped = true;
+						break;
+					}
+					comparison.compareAt(i, ctx);
+				}
+			} else {
+				int mid = (from + to) >>> 1;
+				CompareRangeTask lhs = new CompareRangeTask(comparison, ctx.fork(), from, mid);
+				CompareRangeTask rhs = new CompareRangeTask(comparison, ctx.fork(), mid, to);
+				invokeAll(lhs, rhs);
+				ctx.join(lhs.ctx);
+				ctx.join(rhs.ctx);
+			}
+		}
+	}
+
+	/**
+	 * The set of pairs of objects already compared, held as the identity hash
+	 * codes of each pair packed into a long in an open addressed table. A
+	 * graph of millions of objects is remembered in a few bytes per pair
+	 * rather than the several dozen a set of pair objects would need. A set
+	 * shared by parallel tasks is split into segments which are locked
+	 * separately.
+	 */
+	private static class PairSet {
+
+		private static final int SEGMENTS = 64;
+
+		private final Segment[] segments;
+
+		public PairSet(final boolean concurrent) {
+			segments = new Segment[concurrent ? SEGMENTS : 1];
+			for (int i = 0; i < segments.length; ++i) {
+				segments[i] = new Segment();
+			}
+		}
+
+		/**
+		 * Return the number of pairs in the set
+		 */
+		public long size() {
+			long size = 0;
+			for (Segment segment : segments) {
+				synchronized (segment) {
+					size += segment.size + (segment.containsZero ? 1 : 0);
+				}
+			}
+			return size;
+		}
+
+		/**
+		 * Add the pair. Returns <code>false</code> if the pair was already in
+		 * the set
+		 */
+		public boolean add(final Object lhs, final Object rhs) {
+			long key = (long) System.identityHashCode(lhs) << 32 | System.identityHashCode(rhs) & 0xFFFFFFFFL;
+			long hash = key * 0x9E3779B97F4A7C15L;
+			Segment segment = segments[(int) (hash >>> 58) & segments.length - 1];
+			synchronized (segment) {
+				return segment.add(key, (int) hash);
+			}
+		}
+
+		private static class Segment {
+
+			private long[] keys = new long[64];
+			private int size = 0;
+			private boolean containsZero = false;
+
+			private boolean add(final long key, final int hash) {
+				if (key == 0) {
+					boolean added = !containsZero;
+					containsZero = true;
+					return added;
+				}
+				int mask = keys.length - 1;
+				for (int i = hash & mask;; i = i + 1 & mask) {
+					if (keys[i] == key) {
+						return false;
+					} else if (keys[i] == 0) {
+						keys[i] = key;
+						if (++size > keys.length - (keys.length >>> 2)) {
+							resize();
+						}
+						return true;
+					}
+				}
+			}
+
+			private void resize() {
+				long[] old = keys;
+				keys = new long[old.length << 1];
+				int mask = keys.length - 1;
+				for (long key : old) {
+					if (key != 0) {
+						int i = (int) (key * 0x9E3779B97F4A7C15L) & mask;
+						while (keys[i] != 0) {
+							i = i + 1 & mask;
+						}
+						keys[i] = key;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The path to a node, held as the path of its parent and the name of the
+	 * property or the index or key within it. Every node in a graph thousands
+	 * of levels deep costs one small object rather than a string the length of
+	 * its path, and the string is only built when the path is reported or a
+	 * path override is looked up.
+	 */
+	static final class NodePath {
+
+		private final NodePath parent;
+		private final String name;
+		private final boolean dotted;
+		private final int length, depth;
+
+		/**
+		 * Return the path of the root object of a graph
+		 */
+		public static NodePath root(final String name) {
+			return new NodePath(null, name, false);
+		}
+
+		private NodePath(final NodePath parent, final String name, final boolean dotted) {
+			this.parent = parent;
+			this.name = name;
+			this.dotted = dotted;
+			this.length = (parent != null ? parent.length : 0) + (dotted ? 1 : 0) + name.length();
+			this.depth = parent != null ? parent.depth + 1 : 0;
+		}
+
+		/**
+		 * Return the path of a property of this node, e.g. Person.Name
+		 */
+		public NodePath property(final String property) {
+			return new NodePath(this, property, parent != null || StringUtils.isNotBlank(name));
+		}
+
+		/**
+		 * Return the path of an element or entry of this node, e.g.
+		 * Person.Addresses[0]
+		 */
+		public NodePath index(final Object index) {
+			return new NodePath(this, "[" + index + "]", false);
+		}
+
+		/**
+		 * Return the lower case property name at the end of the path, as
+		 * {@link GraphComparison#propertyName(String, String)} would for the
+		 * whole path, reading back only as far as the last dot
+		 */
+		public String propertyName() {
+			NodePath from = this;
+			while (!from.dotted && from.name.indexOf('.') < 0 && from.parent != null) {
+				from = from.parent;
+			}
+			String suffix = from == this ? name : toString(from, length - from.length + from.name.length());
+			int dot = suffix.lastIndexOf('.');
+			return (dot >= 0 ? suffix.substring(dot + 1) : suffix).toLowerCase();
+		}
+
+		@Override
+		public String toString() {
+			return toString(null, length);
+		}
+
+		/**
+		 * Return the given number of characters at the end of the path, which
+		 * run from the name of the node given, or from the root if
+		 * <code>null</code>
+		 */
+		private String toString(final NodePath from, final int chars) {
+			char[] path = new char[chars];
+			int end = chars;
+			for (NodePath node = this;; node = node.parent) {
+				end -= node.name.length();
+				node.name.getChars(0, node.name.length(), path, end);
+				if (node == from || node.parent == null) {
+					break;
+				}
+				if (node.dotted) {
+					path[--end] = '.';
+				}
+			}
+			return new String(path);
+		}
+	}
+
+	private static class ComparisonContext {
+
+		private final PairSet compared;
+		private final DifferenceListener listener;
+		private final List<Difference> buffer;
+		private final int threshold;
+		private final ComparisonMetrics metrics;
+		private final TraversalListener tracer;
+		private final boolean recordSubtrees;
+		private final ComparisonBudget.Usage budget;
+		private boolean same = true, skipped = false;
+		private long nodes = 0, differences = 0;
+
+		public ComparisonContext(final DifferenceListener listener, final int threshold,
+				final ComparisonMetrics metrics, final TraversalListener tracer, final boolean recordSubtrees,
+				final ComparisonBudget.Usage budget) {
+			this(new PairSet(threshold != ComparisonConfiguration.SEQUENTIAL), listener, null, threshold, metrics,
+					tracer, recordSubtrees, budget);
+		}
+
+		private ComparisonContext(final PairSet compared, final DifferenceListener listener,
+				final List<Difference> buffer, final int threshold, final ComparisonMetrics metrics,
+				final TraversalListener tracer, final boolean recordSubtrees, final ComparisonBudget.Usage budget) {
+			this.compared = compared;
+			this.listener = listener;
+			this.buffer = buffer;
+			this.threshold = threshold;
+			this.metrics = metrics;
+			this.tracer = tracer;
+			this.recordSubtrees = recordSubtrees;
+			this.budget = budget;
+		}
+
+		public boolean areSame() {
+			return same;
+		}
+
+		/**
+		 * Record the pair as compared. Returns <code>false</code> if the pair
+		 * had already been compared
+		 */
+		public boolean addComparedPair(final Object lhs, final Object rhs) {
+			return compared.add(lhs, rhs);
+		}
+
+		public long comparedPairs() {
+			return compared.size();
+		}
+
+		/**
+		 * Return <code>true</code> if the comparison has spent its budget of
+		 * nodes or time, so no more nodes should be compared
+		 */
+		public boolean isExhausted() {
+			return budget != null && budget.isExhausted();
+		}
+
+		public void visited(final NodePath path, final NodeKind kind) {
+			++nodes;
+			if (budget != null) {
+				budget.visited();
+			}
+			if (metrics != null) {
+				metrics.nodeVisited(kind);
+			}
+			if (tracer != null) {
+				tracer.onNode(path.toString(), kind);
+			}
+		}
+
+		public void gettersCalled(final int calls) {
+			if (metrics != null) {
+				metrics.getterCalls(calls);
+			}
+		}
+
+		public void comparatorCalled(final NodePath path, final PropertyComparator<?> comparator) {
+			visited(path, NodeKind.COMPARATOR);
+			if (metrics != null) {
+				metrics.comparatorCalled(comparator.getClass());
+			}
+			if (tracer != null) {
+				tracer.onComparator(path.toString(), comparator);
+			}
+		}
+
+		/**
+		 * Record a list sorted before its elements are compared, and the
+		 * failure if it could not be sorted
+		 */
+		public void sorted(final NodePath path, final Exception failure) {
+			if (metrics != null) {
+				metrics.sorted(failure != null);
+			}
+			if (failure != null && tracer != null) {
+				tracer.onUnsorted(path.toString(), failure);
+			}
+		}
+
+		public void parallel(final NodePath path, final int size) {
+			if (tracer != null) {
+				tracer.onParallel(path.toString(), size);
+			}
+		}
+
+		public void addDifference(final String path, final Kind kind, final Object expected, final Object actual) {
+			addDifference(new Difference(path, kind, expected, actual));
+		}
+
+		public void addDifference(final NodePath path, final Kind kind, final Object expected, final Object actual) {
+			addDifference(new Difference(path.toString(), kind, expected, actual));
+		}
+
+		private void addDifference(final Difference difference) {
+			if (buffer != null) {
+				buffer.add(difference);
+			} else {
+				listener.onDifference(difference);
+				++differences;
+			}
+			same = false;
+		}
+
+		public boolean isSplittable(final int size) {
+			return threshold != ComparisonConfiguration.SEQUENTIAL && size > threshold;
+		}
+
+		/**
+		 * Run the comparison over the indexes, joining the fork/join pool if
+		 * not already running within it. The path is reported as not compared
+		 * if the budget is spent before every index is compared.
+		 */
+		public void invoke(final IndexedComparison comparison, final int size, final NodePath path) {
+			CompareRangeTask task = new CompareRangeTask(comparison, this, 0, size);
+			if (ForkJoinTask.inForkJoinPool()) {
+				task.invoke();
+			} else {
+				ComparisonExecutors.forkJoinPool().invoke(task);
+			}
+			if (skipped) {
+				skipped = false;
+				addDifference(path, Kind.NOT_COMPARED, null, budget.exceeded());
+			}
+		}
+
+		/**
+		 * Create a context for a forked task which shares the compared pairs but
+		 * buffers its own differences
+		 */
+		public ComparisonContext fork() {
+			return new ComparisonContext(compared, null, new ArrayList<Difference>(), threshold, metrics, tracer,
+					recordSubtrees, budget);
+		}
+
+		/**
+		 * Append the differences found by a forked context
+		 */
+		public void join(final ComparisonContext forked) {
+			nodes += forked.nodes;
+			skipped |= forked.skipped;
+			for (Difference difference : forked.buffer) {
+				addDifference(difference);
+			}
+		}
+	}
+}
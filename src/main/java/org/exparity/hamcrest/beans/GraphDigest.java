@@ -0,0 +1,357 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.beans.GraphComparison.pathWithoutIndexes;
+import static org.exparity.hamcrest.beans.GraphComparison.propertiesOf;
+import static org.exparity.hamcrest.beans.GraphComparison.sortedCopy;
+import static org.exparity.hamcrest.beans.GraphComparison.valueOf;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.exparity.beans.Type;
+import org.exparity.beans.core.AbstractProperty;
+import org.exparity.hamcrest.beans.GraphComparison.NodePath;
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.comparators.Excluded;
+
+/**
+ * Computes the {@link BeanDigest} of an object graph. The graph is walked in
+ * the same way as {@link GraphComparison} and each node is written to a
+ * {@link Murmur3Hasher}, with an explicit stack rather than recursion.
+ * <p>
+ * Each bean, list, and map is digested with its own hasher and its digest
+ * written to its parent, so an instance which appears more than once in the
+ * graph is digested once and a reference back to an instance which is still
+ * being digested, i.e. a cycle, is written as a marker. Bean properties are
+ * digested in name order and map entries in the order of their digests so the
+ * digest does not depend on reflection or hashing order.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+final class GraphDigest {
+
+	private static final byte NULL = 0, VALUE = 1, ARRAY = 2, BEAN = 3, LIST = 4, MAP = 5, NESTED = 6, CYCLE = 7;
+
+	private static final Comparator<AbstractProperty> BY_NAME = new Comparator<AbstractProperty>() {
+
+		public int compare(final AbstractProperty o1, final AbstractProperty o2) {
+			return o1.getName().compareTo(o2.getName());
+		}
+	};
+
+	private static final Comparator<long[]> BY_HASH = new Comparator<long[]>() {
+
+		public int compare(final long[] o1, final long[] o2) {
+			return o1[0] != o2[0] ? Long.compare(o1[0], o2[0]) : Long.compare(o1[1], o2[1]);
+		}
+	};
+
+	private final ComparisonConfiguration configuration;
+	private final Map<Object, long[]> digested = new IdentityHashMap<>();
+	private final List<Murmur3Hasher> hashers = new ArrayList<>();
+	private int depth;
+
+	GraphDigest(final ComparisonConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Return the digest of the graph as two longs. The graph is walked depth
+	 * first with an explicit stack of the beans, lists, and maps part way
+	 * through being digested, so the depth of graph which can be digested is
+	 * not limited by the size of the thread's stack.
+	 */
+	long[] digest(final Object graph, final String name) {
+		Murmur3Hasher hasher = acquire();
+		NodePath root = NodePath.root(name);
+		Deque<Frame> stack = new ArrayDeque<>();
+		digestNode(graph, root, comparatorFor(graph, root), hasher, stack);
+		while (!stack.isEmpty()) {
+			Frame frame = stack.peek();
+			if (!frame.digestNext(stack)) {
+				stack.pop();
+				frame.finish();
+			}
+		}
+		return release(hasher);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void digestNode(final Object value, final NodePath path, final PropertyComparator comparator,
+			final Murmur3Hasher out, final Deque<Frame> stack) {
+		if (comparator != null) {
+			digestUsingPropertyComparator(value, path, comparator, out);
+		} else if (value == null) {
+			out.putByte(NULL);
+		} else {
+			Type type = TypeMetadata.of(value.getClass()).type();
+			if (type.isArray()) {
+				digestArray(value, out);
+			} else if (type.isEnum() || type.packageName().startsWith("java.lang")) {
+				out.putByte(VALUE);
+				digestValue(value, out);
+			} else {
+				digestNested(value, path, type, out, stack);
+			}
+		}
+	}
+
+	/**
+	 * Write the digest of a bean, list, or map to the parent hasher. If this is
+	 * the first time it has been reached push a frame to digest it first, and
+	 * the frame writes the digest once its children are done.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void digestNested(final Object value, final NodePath path, final Type type, final Murmur3Hasher out,
+			final Deque<Frame> stack) {
+		long[] hash = digested.get(value);
+		if (hash == null) {
+			if (digested.containsKey(value)) {
+				out.putByte(CYCLE);
+				return;
+			}
+			digested.put(value, null);
+			if (type.is(Collection.class)) {
+				stack.push(new CollectionFrame((Collection) value, path, out));
+			} else if (type.is(Map.class)) {
+				stack.push(new MapFrame((Map) value, path, out));
+			} else {
+				stack.push(new BeanFrame(value, path, out));
+			}
+			return;
+		}
+		out.putByte(NESTED).putLong(hash[0]).putLong(hash[1]);
+	}
+
+	/**
+	 * A bean, list, or map whose children are part way through being digested
+	 * with its own hasher. Each call to {@link #digestNext(Deque)} digests the
+	 * next child, which may push a frame of its own.
+	 */
+	private abstract class Frame {
+
+		protected final Object value;
+		protected final NodePath path;
+		protected final Murmur3Hasher hasher, out;
+		protected int index = 0;
+
+		protected Frame(final Object value, final NodePath path, final Murmur3Hasher out) {
+			this.value = value;
+			this.path = path;
+			this.out = out;
+			this.hasher = acquire();
+		}
+
+		/**
+		 * Digest the next child. Returns <code>false</code> if there are no
+		 * more children to digest
+		 */
+		abstract boolean digestNext(final Deque<Frame> stack);
+
+		/**
+		 * Write the digest of the node to its parent once all of its children
+		 * have been digested
+		 */
+		void finish() {
+			long[] hash = release(hasher);
+			digested.put(value, hash);
+			out.putByte(NESTED).putLong(hash[0]).putLong(hash[1]);
+		}
+	}
+
+	private class BeanFrame extends Frame {
+
+		private final List<AbstractProperty> properties;
+
+		private BeanFrame(final Object bean, final NodePath path, final Murmur3Hasher out) {
+			super(bean, path, out);
+			this.properties = new ArrayList<AbstractProperty>(propertiesOf(bean.getClass(), configuration
+					.propertyTypes()));
+			Collections.sort(properties, BY_NAME);
+			hasher.putByte(BEAN);
+		}
+
+		@Override
+		boolean digestNext(final Deque<Frame> stack) {
+			if (index == properties.size()) {
+				return false;
+			}
+			AbstractProperty property = properties.get(index++);
+			NodePath propertyPath = path.property(property.getName());
+			Object propertyValue = valueOf(property, value);
+			PropertyComparator<?> comparator = comparatorFor(propertyValue, propertyPath);
+			if (!(comparator instanceof Excluded)) {
+				hasher.putString(property.getName());
+				digestNode(propertyValue, propertyPath, comparator, hasher, stack);
+			}
+			return true;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class CollectionFrame extends Frame {
+
+		private final List list;
+
+		private CollectionFrame(final Collection collection, final NodePath path, final Murmur3Hasher out) {
+			super(collection, path, out);
+			hasher.putByte(LIST).putInt(collection.size());
+			this.list = collection.isEmpty() ? Collections.emptyList() : sortedCopy(collection, collection
+					.iterator().next() instanceof Comparable, path);
+		}
+
+		@Override
+		boolean digestNext(final Deque<Frame> stack) {
+			if (index == list.size()) {
+				return false;
+			}
+			NodePath elementPath = path.index(index);
+			Object element = list.get(index++);
+			digestNode(element, elementPath, comparatorFor(element, elementPath), hasher, stack);
+			return true;
+		}
+	}
+
+	/**
+	 * Frame of a map, whose entries are each digested with a hasher of their
+	 * own and written in the order of their digests once all are done
+	 */
+	@SuppressWarnings("rawtypes")
+	private class MapFrame extends Frame {
+
+		private final Iterator entries;
+		private final List<long[]> digests;
+		private Murmur3Hasher entry;
+
+		private MapFrame(final Map map, final NodePath path, final Murmur3Hasher out) {
+			super(map, path, out);
+			hasher.putByte(MAP).putInt(map.size());
+			this.entries = map.entrySet().iterator();
+			this.digests = new ArrayList<long[]>(map.size());
+		}
+
+		@Override
+		boolean digestNext(final Deque<Frame> stack) {
+			if (entry != null) {
+				digests.add(release(entry));
+				entry = null;
+			}
+			if (!entries.hasNext()) {
+				Collections.sort(digests, BY_HASH);
+				for (long[] digest : digests) {
+					hasher.putLong(digest[0]).putLong(digest[1]);
+				}
+				return false;
+			}
+			Map.Entry next = (Map.Entry) entries.next();
+			Object key = next.getKey(), entryValue = next.getValue();
+			NodePath entryPath = path.index(key);
+			entry = acquire();
+			entry.putString(String.valueOf(key));
+			digestNode(entryValue, entryPath, comparatorFor(entryValue, entryPath), entry, stack);
+			return true;
+		}
+	}
+
+	private void digestArray(final Object array, final Murmur3Hasher out) {
+		int length = Array.getLength(array);
+		out.putByte(ARRAY).putInt(length);
+		for (int i = 0; i < length; ++i) {
+			digestValue(Array.get(array, i), out);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void digestUsingPropertyComparator(final Object value, final NodePath path,
+			final PropertyComparator<?> comparator, final Murmur3Hasher out) {
+		if (comparator instanceof Excluded) {
+			return;
+		} else if (value == null) {
+			out.putByte(NULL);
+		} else if (comparator instanceof DigestComparator) {
+			out.putByte(VALUE);
+			digestValue(((DigestComparator<Object>) comparator).digestValue(value), out);
+		} else {
+			throw new IllegalArgumentException("Unable to digest path '" + path + "' compared using "
+					+ comparator.getClass().getSimpleName() + ". The comparator must implement "
+					+ DigestComparator.class.getSimpleName());
+		}
+	}
+
+	/**
+	 * Write a value, tagged with its type so equal values of different types
+	 * have different digests
+	 */
+	@SuppressWarnings("rawtypes")
+	private void digestValue(final Object value, final Murmur3Hasher out) {
+		if (value == null) {
+			out.putByte(NULL);
+		} else if (value instanceof String) {
+			out.putByte((byte) 's').putString((String) value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			out.putString(value.getClass().getSimpleName()).putLong(((Number) value).longValue());
+		} else if (value instanceof Double) {
+			out.putByte((byte) 'd').putLong(Double.doubleToLongBits((Double) value));
+		} else if (value instanceof Float) {
+			out.putByte((byte) 'f').putInt(Float.floatToIntBits((Float) value));
+		} else if (value instanceof Boolean) {
+			out.putByte((byte) 'z').putByte((byte) ((Boolean) value ? 1 : 0));
+		} else if (value instanceof Character) {
+			out.putByte((byte) 'c').putInt((Character) value);
+		} else if (value instanceof Date) {
+			out.putByte((byte) 't').putLong(((Date) value).getTime());
+		} else if (value instanceof Enum) {
+			out.putByte((byte) 'e').putString(((Enum) value).getDeclaringClass().getName())
+					.putString(((Enum) value).name());
+		} else if (value instanceof Class) {
+			out.putByte((byte) 'k').putString(((Class) value).getName());
+		} else {
+			out.putByte((byte) 'o').putString(value.getClass().getName()).putString(String.valueOf(value));
+		}
+	}
+
+	/**
+	 * Return the path, property, or type comparator which applies to the
+	 * value, or <code>null</code> if the value is compared structurally
+	 */
+	private PropertyComparator<?> comparatorFor(final Object value, final NodePath path) {
+		PropertyComparator<?> comparator = configuration.hasPathComparators() ? configuration.pathComparator(
+				pathWithoutIndexes(path.toString())) : null;
+		if (comparator == null && configuration.hasPropertyComparators()) {
+			comparator = configuration.propertyComparator(path.propertyName());
+		}
+		if (comparator == null && value != null) {
+			comparator = configuration.typeComparator(value.getClass());
+		}
+		return comparator;
+	}
+
+	/**
+	 * Return a reset hasher for the next level of nesting. Hashers are reused
+	 * across the graph so the allocation does not grow with its size.
+	 */
+	private Murmur3Hasher acquire() {
+		if (depth == hashers.size()) {
+			hashers.add(new Murmur3Hasher());
+		}
+		return hashers.get(depth++).reset();
+	}
+
+	private long[] release(final Murmur3Hasher hasher) {
+		--depth;
+		return hasher.finish();
+	}
+}
@@ -0,0 +1,344 @@
+package org.exparity.hamcrest.beans;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+
+/**
+ * A recording of an object graph in a compact binary file which can be
+ * compared to an actual object graph in place of the original expected graph,
+ * for example a golden copy of a large graph which is expensive to build.
+ * <p>
+ * The file is memory mapped when it is opened and only the nodes visited by a
+ * comparison are decoded, so comparing against a snapshot does not require
+ * the expected graph to be loaded onto the heap. For example
+ * </p>
+ *
+ * <pre>
+ * GraphSnapshot.record(expected, new File(&quot;expected.snapshot&quot;));
+ * ...
+ * GraphSnapshot snapshot = GraphSnapshot.open(new File(&quot;expected.snapshot&quot;));
+ * assertThat(actual, theSameAsSnapshot(snapshot));
+ * </pre>
+ * <p>
+ * Nodes are written children first so each bean, list, and map holds the
+ * offsets of its children and a path can be followed through the file without
+ * reading the nodes around it. Beans, lists, and maps must be compared
+ * structurally, any comparator other than an exclusion can only be applied to
+ * values such as strings, numbers, dates, and enums. Arrays are recorded by
+ * value, so may only contain values. A snapshot is limited to 2GB.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public final class GraphSnapshot {
+
+	static final int MAGIC = 0x48425333;
+	static final int HEADER_SIZE = 17;
+
+	static final byte NULL = 0, STRING = 1, BOOLEAN = 2, BYTE = 3, SHORT = 4, INT = 5, LONG = 6, FLOAT = 7,
+			DOUBLE = 8, CHAR = 9, BIG_DECIMAL = 10, BIG_INTEGER = 11, DATE = 12, CLASS = 13, ENUM = 14, ARRAY = 15,
+			BEAN = 16, LIST = 17, MAP = 18, REF = 19;
+
+	/**
+	 * Record all the getter properties of the graph to the file, naming the
+	 * root of the graph after its type. Any existing content of the file is
+	 * replaced.
+	 *
+	 * @param graph
+	 *            the object graph to record
+	 * @param file
+	 *            the file to write the snapshot to
+	 */
+	public static void record(final Object graph, final File file) {
+		record(graph, graph.getClass().getSimpleName(), PropertyType.ALL_GETTERS, file);
+	}
+
+	/**
+	 * Record the graph to the file. Any existing content of the file is
+	 * replaced.
+	 *
+	 * @param graph
+	 *            the object graph to record
+	 * @param name
+	 *            the name of the root of the graph used in paths
+	 * @param propertyTypes
+	 *            the type of properties to record
+	 * @param file
+	 *            the file to write the snapshot to
+	 */
+	public static void record(final Object graph, final String name, final PropertyType propertyTypes,
+			final File file) {
+		SnapshotWriter.write(graph, name, propertyTypes, file);
+	}
+
+	/**
+	 * Open a snapshot previously written by {@link #record(Object, File)}
+	 *
+	 * @param file
+	 *            the snapshot file
+	 */
+	public static GraphSnapshot open(final File file) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+				throw new IllegalArgumentException("'" + file + "' is not a graph snapshot");
+			}
+			return new GraphSnapshot(file, buffer);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to open '" + file + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private final File file;
+	private final ByteBuffer buffer;
+	private final int stringTable, root;
+	private final PropertyType propertyTypes;
+	private final String[] strings;
+	private final Class<?>[] classes;
+
+	private GraphSnapshot(final File file, final ByteBuffer buffer) {
+		this.file = file;
+		this.buffer = buffer;
+		this.stringTable = buffer.getInt(4);
+		this.root = buffer.getInt(8);
+		this.propertyTypes = PropertyType.values()[buffer.get(16)];
+		this.strings = new String[buffer.getInt(stringTable)];
+		this.classes = new Class<?>[strings.length];
+	}
+
+	/**
+	 * Compare the actual graph to the snapshot using the default comparators,
+	 * reporting each difference to the listener
+	 *
+	 * @return <code>true</code> if no differences were found
+	 */
+	public boolean compare(final Object actual, final DifferenceListener listener) {
+		return compare(actual, ComparisonConfiguration.defaults(propertyTypes), listener);
+	}
+
+	/**
+	 * Compare the actual graph to the snapshot using the path, property, and
+	 * type overrides in the configuration, reporting each difference to the
+	 * listener. The properties compared are those which were recorded.
+	 *
+	 * @return <code>true</code> if no differences were found
+	 */
+	public boolean compare(final Object actual, final ComparisonConfiguration configuration,
+			final DifferenceListener listener) {
+		return new SnapshotComparison(this, configuration, listener).compare(actual);
+	}
+
+	/**
+	 * Return the name of the root of the recorded graph
+	 */
+	public String getName() {
+		return string(buffer.getInt(12));
+	}
+
+	/**
+	 * Return the snapshot file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	PropertyType propertyTypes() {
+		return propertyTypes;
+	}
+
+	int root() {
+		return root;
+	}
+
+	byte tagAt(final int offset) {
+		return buffer.get(offset);
+	}
+
+	int intAt(final int offset) {
+		return buffer.getInt(offset);
+	}
+
+	/**
+	 * Return the string at an index in the string table. Strings are decoded
+	 * the first time they are used.
+	 */
+	String string(final int index) {
+		String value = strings[index];
+		if (value == null) {
+			value = stringAt(buffer.getInt(stringTable + 4 + 4 * index));
+			strings[index] = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Return the class named by the string at an index in the string table
+	 */
+	Class<?> classOf(final int index) {
+		Class<?> klass = classes[index];
+		if (klass == null) {
+			String name = string(index);
+			try {
+				ClassLoader loader = Thread.currentThread().getContextClassLoader();
+				klass = Class.forName(name, false, loader != null ? loader : GraphSnapshot.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				throw new RuntimeException("Unable to load type '" + name + "' recorded in '" + file + "'. Error '"
+						+ e.getMessage() + "'", e);
+			}
+			classes[index] = klass;
+		}
+		return klass;
+	}
+
+	/**
+	 * Return the type of the node at the offset
+	 */
+	Class<?> typeAt(final int offset) {
+		switch (buffer.get(offset)) {
+		case STRING:
+			return String.class;
+		case BOOLEAN:
+			return Boolean.class;
+		case BYTE:
+			return Byte.class;
+		case SHORT:
+			return Short.class;
+		case INT:
+			return Integer.class;
+		case LONG:
+			return Long.class;
+		case FLOAT:
+			return Float.class;
+		case DOUBLE:
+			return Double.class;
+		case CHAR:
+			return Character.class;
+		case BIG_DECIMAL:
+			return BigDecimal.class;
+		case BIG_INTEGER:
+			return BigInteger.class;
+		case CLASS:
+			return Class.class;
+		case DATE:
+		case ENUM:
+		case ARRAY:
+		case BEAN:
+		case LIST:
+		case MAP:
+			return classOf(buffer.getInt(offset + 1));
+		default:
+			return Object.class;
+		}
+	}
+
+	/**
+	 * Decode the value at the offset. Beans, lists, and maps are not decoded,
+	 * instead the name of their type is returned so they can be described in a
+	 * difference.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	Object valueAt(final int offset) {
+		switch (buffer.get(offset)) {
+		case NULL:
+			return null;
+		case STRING:
+			return stringAt(offset + 1);
+		case BOOLEAN:
+			return buffer.get(offset + 1) != 0;
+		case BYTE:
+			return buffer.get(offset + 1);
+		case SHORT:
+			return buffer.getShort(offset + 1);
+		case INT:
+			return buffer.getInt(offset + 1);
+		case LONG:
+			return buffer.getLong(offset + 1);
+		case FLOAT:
+			return buffer.getFloat(offset + 1);
+		case DOUBLE:
+			return buffer.getDouble(offset + 1);
+		case CHAR:
+			return buffer.getChar(offset + 1);
+		case BIG_DECIMAL:
+			return new BigDecimal(stringAt(offset + 1));
+		case BIG_INTEGER:
+			return new BigInteger(stringAt(offset + 1));
+		case DATE:
+			return new Date(buffer.getLong(offset + 5));
+		case CLASS:
+			return classOf(buffer.getInt(offset + 1));
+		case ENUM:
+			return Enum.valueOf((Class) classOf(buffer.getInt(offset + 1)), string(buffer.getInt(offset + 5)));
+		case ARRAY:
+			Object[] values = new Object[buffer.getInt(offset + 5)];
+			for (int i = 0, element = offset + 9; i < values.length; ++i) {
+				values[i] = valueAt(element);
+				element += sizeOf(element);
+			}
+			return values;
+		case REF:
+			return "<cycle>";
+		default:
+			return string(buffer.getInt(offset + 1));
+		}
+	}
+
+	/**
+	 * Return <code>true</code> if the node at the offset is a bean, list, or
+	 * map which cannot be decoded into a value
+	 */
+	boolean isStructureAt(final int offset) {
+		byte tag = buffer.get(offset);
+		return tag == BEAN || tag == LIST || tag == MAP || tag == REF;
+	}
+
+	/**
+	 * Return the number of bytes used by the value at the offset
+	 */
+	private int sizeOf(final int offset) {
+		switch (buffer.get(offset)) {
+		case NULL:
+			return 1;
+		case BOOLEAN:
+		case BYTE:
+			return 2;
+		case SHORT:
+		case CHAR:
+			return 3;
+		case INT:
+		case FLOAT:
+		case CLASS:
+			return 5;
+		case LONG:
+		case DOUBLE:
+		case ENUM:
+			return 9;
+		case DATE:
+			return 13;
+		case STRING:
+		case BIG_DECIMAL:
+		case BIG_INTEGER:
+			return 5 + buffer.getInt(offset + 1);
+		default:
+			throw new IllegalStateException("Unexpected value at offset " + offset + " of '" + file + "'");
+		}
+	}
+
+	private String stringAt(final int offset) {
+		byte[] bytes = new byte[buffer.getInt(offset)];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + 4);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
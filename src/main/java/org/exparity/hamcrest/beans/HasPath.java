@@ -1,14 +1,24 @@
 
 package org.exparity.hamcrest.beans;
 
-import org.exparity.beans.Graph;
-import org.exparity.beans.core.BeanProperty;
 import org.hamcrest.Description;
 import org.hamcrest.Factory;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 
 /**
+ * Implementation of a {@link Matcher} which checks the value at a property path.
+ * The path is parsed once when the matcher is created and resolved by following
+ * the getters on the path, so only the objects on the path are visited.
+ * <p>
+ * A path can quantify over the elements of a collection, for example
+ * <code>Customer.Orders[*].Total</code> checks the total of every order,
+ * <code>Customer.Orders[?].Total</code> the total of any order, and
+ * <code>Shop.Customers[Id=42].Name</code> the name of the customer whose id is
+ * 42. The elements are visited one at a time and stop being visited as soon
+ * as the result is known.
+ * </p>
+ *
  * @author Stewart Bissett
  */
 public class HasPath<T> extends TypeSafeDiagnosingMatcher<T> {
@@ -31,10 +41,12 @@ public class HasPath<T> extends TypeSafeDiagnosingMatcher<T> {
 	}
 
 	private final String path;
+	private final PropertyPath compiled;
 	private final Matcher<?> matcher;
 
 	public HasPath(final String path, final Matcher<?> matcher) {
 		this.path = path;
+		this.compiled = PropertyPath.parse(path);
 		this.matcher = matcher;
 	}
 
@@ -45,15 +57,13 @@ public class HasPath<T> extends TypeSafeDiagnosingMatcher<T> {
 
 	@Override
 	protected boolean matchesSafely(final T item, final Description mismatchDescription) {
-		BeanProperty property = Graph.graph(item).propertyAtPath(path);
-		if (property != null) {
-			if (matcher.matches(property.getValue())) {
-				return true;
-			} else {
-				mismatchDescription.appendText("has path '").appendText(path).appendText("' which matches ");
-				matcher.describeTo(mismatchDescription);
-				return false;
-			}
+		boolean[] found = new boolean[1];
+		if (compiled.matches(item, matcher, found)) {
+			return true;
+		} else if (found[0]) {
+			mismatchDescription.appendText("has path '").appendText(path).appendText("' which matches ");
+			matcher.describeTo(mismatchDescription);
+			return false;
 		} else {
 			mismatchDescription.appendText("does not have path '").appendText(path).appendText("' which matches ");
 			return false;
@@ -0,0 +1,154 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.exparity.hamcrest.beans.PropertyPath.Segment;
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which checks the values at many property
+ * paths at once. The paths are merged into a tree by their common prefixes
+ * when the matcher is created so each getter on a shared prefix is called once
+ * per object, and every path which does not match is reported. A path which
+ * quantifies over the elements of a collection is checked on its own, as for
+ * {@link HasPath}.
+ *
+ * @author Stewart Bissett
+ */
+public class HasPaths<T> extends TypeSafeDiagnosingMatcher<T> {
+
+	/**
+	 * Creates a matcher that matches if the object being tested has a property at each of the given paths and each
+	 * matches its Matcher
+	 * <p/>
+	 * For example:
+	 *
+	 * <pre>
+	 * Map&lt;String, Matcher&lt;?&gt;&gt; paths = new LinkedHashMap&lt;String, Matcher&lt;?&gt;&gt;();
+	 * paths.put("MyObject.Person.FirstName", Matchers.equalTo("Jane"));
+	 * paths.put("MyObject.Person.LastName", Matchers.equalTo("Doe"));
+	 * assertThat(instance, hasPaths(paths))
+	 * </pre>
+	 *
+	 * @param paths the paths to match, and the matcher to match each with, in the order they should be described
+	 */
+	@Factory
+	public static <T> Matcher<T> hasPaths(final Map<String, ? extends Matcher<?>> paths) {
+		return new HasPaths<T>(paths);
+	}
+
+	private final String[] paths;
+	private final Matcher<?>[] matchers;
+	private final HasPath<?>[] quantified;
+	private final Node tree = new Node(null);
+
+	public HasPaths(final Map<String, ? extends Matcher<?>> paths) {
+		this.paths = new String[paths.size()];
+		this.matchers = new Matcher<?>[paths.size()];
+		this.quantified = new HasPath<?>[paths.size()];
+		int ordinal = 0;
+		for (Map.Entry<String, ? extends Matcher<?>> entry : paths.entrySet()) {
+			PropertyPath path = PropertyPath.parse(entry.getKey());
+			this.paths[ordinal] = entry.getKey();
+			this.matchers[ordinal] = entry.getValue();
+			if (path.isQuantified()) {
+				this.quantified[ordinal] = new HasPath<Object>(entry.getKey(), entry.getValue());
+			} else {
+				tree.add(path.segments(), 0, ordinal);
+			}
+			++ordinal;
+		}
+	}
+
+	@Override
+	public void describeTo(final Description description) {
+		description.appendText("has paths ");
+		for (int i = 0; i < paths.length; ++i) {
+			if (i > 0) {
+				description.appendText(", ");
+			}
+			description.appendText("'").appendText(paths[i]).appendText("' which matches ").appendDescriptionOf(
+					matchers[i]);
+		}
+	}
+
+	@Override
+	protected boolean matchesSafely(final T item, final Description mismatchDescription) {
+		Object[] values = new Object[paths.length];
+		Arrays.fill(values, PropertyPath.NOT_FOUND);
+		tree.resolve(IndexedBean.itemOf(item), true, values, IndexedBean.readerOf(item));
+		boolean matches = true;
+		for (int i = 0; i < paths.length; ++i) {
+			if (quantified[i] != null ? quantified[i].matches(item) : values[i] != PropertyPath.NOT_FOUND
+					&& matchers[i].matches(values[i])) {
+				continue;
+			} else if (!matches) {
+				mismatchDescription.appendText(", ");
+			}
+			if (quantified[i] != null) {
+				quantified[i].describeMismatch(item, mismatchDescription);
+			} else if (values[i] != PropertyPath.NOT_FOUND) {
+				mismatchDescription.appendText("has path '").appendText(paths[i]).appendText("' which matches ");
+				matchers[i].describeTo(mismatchDescription);
+			} else {
+				mismatchDescription.appendText("does not have path '").appendText(paths[i]).appendText(
+						"' which matches ");
+				matchers[i].describeTo(mismatchDescription);
+			}
+			matches = false;
+		}
+		return matches;
+	}
+
+	/**
+	 * A segment shared by one or more paths, with the paths which end at it
+	 * and the segments which follow it
+	 */
+	private static class Node {
+
+		private final Segment segment;
+		private final Map<String, Node> children = new LinkedHashMap<>();
+		private final List<Integer> ordinals = new ArrayList<>();
+
+		private Node(final Segment segment) {
+			this.segment = segment;
+		}
+
+		private void add(final Segment[] segments, final int depth, final int ordinal) {
+			Node child = children.get(segments[depth].key());
+			if (child == null) {
+				child = new Node(segments[depth]);
+				children.put(segments[depth].key(), child);
+			}
+			if (depth + 1 < segments.length) {
+				child.add(segments, depth + 1, ordinal);
+			} else if (depth > 0) {
+				child.ordinals.add(ordinal);
+			}
+		}
+
+		/**
+		 * Resolve the segments which follow this node against its value,
+		 * recording the value of each path which ends at them
+		 */
+		private void resolve(final Object value, final boolean root, final Object[] values,
+				final PropertyReader reader) {
+			for (Node child : children.values()) {
+				Object childValue = child.segment.step(value, root, reader);
+				if (childValue != PropertyPath.NOT_FOUND) {
+					for (Integer ordinal : child.ordinals) {
+						values[ordinal] = childValue;
+					}
+					child.resolve(childValue, false, values, reader);
+				}
+			}
+		}
+	}
+}
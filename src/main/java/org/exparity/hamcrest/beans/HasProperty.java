@@ -1,14 +1,16 @@
 
 package org.exparity.hamcrest.beans;
 
-import org.exparity.beans.Graph;
-import org.exparity.beans.core.BeanProperty;
 import org.hamcrest.Description;
 import org.hamcrest.Factory;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 
 /**
+ * Matches a property found anywhere in an object graph. The graph is searched
+ * breadth first, so the property nearest the root is matched, and the search
+ * stops as soon as the property is found.
+ *
  * @author Stewart Bissett
  */
 public class HasProperty<T> extends TypeSafeDiagnosingMatcher<T> {
@@ -46,9 +48,9 @@ public class HasProperty<T> extends TypeSafeDiagnosingMatcher<T> {
 
 	@Override
 	protected boolean matchesSafely(final T item, final Description mismatchDescription) {
-		BeanProperty beanProperty = Graph.graph(item).propertyNamed(property);
-		if (beanProperty != null) {
-			if (matcher.matches(beanProperty.getValue())) {
+		Object value = PropertySearch.find(item, property);
+		if (value != PropertyPath.NOT_FOUND) {
+			if (matcher.matches(value)) {
 				return true;
 			} else {
 				mismatchDescription.appendText("has property '").appendText(property).appendText("' which matches ");
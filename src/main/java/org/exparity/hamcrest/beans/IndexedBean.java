@@ -0,0 +1,96 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.exparity.beans.core.TypeProperty;
+
+/**
+ * A view of an object which remembers each property value read from it, and
+ * from the objects reachable from it, so several {@link HasPath},
+ * {@link HasPaths}, and {@link HasProperty} matchers applied to the same view
+ * call each getter once. For example
+ *
+ * <pre>
+ * assertThat(indexed(order), allOf(hasPath(&quot;Order.Customer.Name&quot;, equalTo(&quot;Jane&quot;)),
+ * 		hasPath(&quot;Order.Customer.Id&quot;, equalTo(42)), hasProperty(&quot;Total&quot;, equalTo(100))));
+ * </pre>
+ * <p>
+ * Values are read when first needed and are not refreshed, so a view should
+ * be created for each assertion and not shared between threads. The view
+ * describes itself as the object it wraps.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public final class IndexedBean {
+
+	/**
+	 * Return a view of the item which remembers the property values read
+	 * from it
+	 */
+	public static IndexedBean indexed(final Object item) {
+		return new IndexedBean(item);
+	}
+
+	private static final Object NULL = new Object();
+
+	private final Object item;
+	private final Map<Object, Map<TypeProperty, Object>> values = new IdentityHashMap<>();
+	private final Map<String, Object> searches = new HashMap<>();
+	private final PropertyReader reader = new PropertyReader() {
+
+		public Object read(final TypeProperty property, final Object bean) {
+			Map<TypeProperty, Object> beanValues = values.get(bean);
+			if (beanValues == null) {
+				beanValues = new IdentityHashMap<>();
+				values.put(bean, beanValues);
+			}
+			Object value = beanValues.get(property);
+			if (value == null) {
+				value = property.getValue(bean);
+				beanValues.put(property, value != null ? value : NULL);
+			}
+			return value != NULL ? value : null;
+		}
+	};
+
+	private IndexedBean(final Object item) {
+		this.item = item;
+	}
+
+	/**
+	 * Return the object this is a view of
+	 */
+	public Object getItem() {
+		return item;
+	}
+
+	/**
+	 * Return the results of previous searches of the graph keyed by the lower
+	 * case property name searched for
+	 */
+	Map<String, Object> searches() {
+		return searches;
+	}
+
+	/**
+	 * Return the object to match, unwrapping an {@link IndexedBean}
+	 */
+	static Object itemOf(final Object item) {
+		return item instanceof IndexedBean ? ((IndexedBean) item).item : item;
+	}
+
+	/**
+	 * Return the reader to read the properties of the object to match with
+	 */
+	static PropertyReader readerOf(final Object item) {
+		return item instanceof IndexedBean ? ((IndexedBean) item).reader : PropertyReader.GETTER;
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(item);
+	}
+}
@@ -0,0 +1,119 @@
+package org.exparity.hamcrest.beans;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The Java Flight Recorder events recorded by {@link ComparisonEvents}. This
+ * class is only loaded once the flight recorder is known to be available.
+ * <p>
+ * Comparisons are recorded as <code>org.exparity.hamcrest.beans.Comparison</code>
+ * events, which are enabled by default. Subtrees are recorded as
+ * <code>org.exparity.hamcrest.beans.Subtree</code> events, which must be
+ * enabled in the recording settings and are only committed if they take
+ * longer than their threshold, 10 ms by default. For example
+ * </p>
+ *
+ * <pre>
+ * java -XX:StartFlightRecording:filename=tests.jfr,+org.exparity.hamcrest.beans.Subtree#enabled=true,+org.exparity.hamcrest.beans.Subtree#threshold=1ms ...
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+final class JfrEvents {
+
+	/**
+	 * Shared instances used to check if the events are enabled without
+	 * creating an event
+	 */
+	private static final ComparisonEvent COMPARISON = new ComparisonEvent();
+	private static final SubtreeEvent SUBTREE = new SubtreeEvent();
+
+	private JfrEvents() {}
+
+	static Object beginComparison() {
+		if (!COMPARISON.isEnabled()) {
+			return null;
+		}
+		ComparisonEvent event = new ComparisonEvent();
+		event.begin();
+		return event;
+	}
+
+	static void endComparison(final Object event, final Class<?> rootClass, final String name, final long nodes,
+			final long differences) {
+		ComparisonEvent comparison = (ComparisonEvent) event;
+		comparison.end();
+		if (comparison.shouldCommit()) {
+			comparison.rootClass = rootClass;
+			comparison.name = name;
+			comparison.nodes = nodes;
+			comparison.differences = differences;
+			comparison.commit();
+		}
+	}
+
+	static boolean isSubtreeEnabled() {
+		return SUBTREE.isEnabled();
+	}
+
+	static Object beginSubtree() {
+		SubtreeEvent event = new SubtreeEvent();
+		event.begin();
+		return event;
+	}
+
+	static void endSubtree(final Object event, final Class<?> type, final String path) {
+		SubtreeEvent subtree = (SubtreeEvent) event;
+		subtree.end();
+		if (subtree.shouldCommit()) {
+			subtree.type = type;
+			subtree.path = path;
+			subtree.commit();
+		}
+	}
+
+	@Name("org.exparity.hamcrest.beans.Comparison")
+	@Label("Bean Comparison")
+	@Category({ "Hamcrest", "Beans" })
+	@Description("A comparison of an expected and actual object graph")
+	@StackTrace(false)
+	static class ComparisonEvent extends Event {
+
+		@Label("Root Class")
+		Class<?> rootClass;
+
+		@Label("Name")
+		String name;
+
+		@Label("Nodes")
+		@Description("The number of nodes visited")
+		long nodes;
+
+		@Label("Differences")
+		long differences;
+	}
+
+	@Name("org.exparity.hamcrest.beans.Subtree")
+	@Label("Bean Comparison Subtree")
+	@Category({ "Hamcrest", "Beans" })
+	@Description("A comparison of a bean, list, collection, or map within a graph which took longer than the threshold")
+	@StackTrace(false)
+	@Enabled(false)
+	@Threshold("10 ms")
+	static class SubtreeEvent extends Event {
+
+		@Label("Type")
+		Class<?> type;
+
+		@Label("Path")
+		@Description("The path of the subtree with the indexes removed")
+		String path;
+	}
+}
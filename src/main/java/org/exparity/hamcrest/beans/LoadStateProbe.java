@@ -0,0 +1,58 @@
+package org.exparity.hamcrest.beans;
+
+/**
+ * Interface to be implemented by classes which can tell whether a value read
+ * from an ORM such as Hibernate or JPA has been loaded, so a comparison need
+ * not load every lazy association of the entities it compares. A probe is set
+ * on a {@link ComparisonConfiguration} or matcher with
+ * <code>skipUnloaded</code> or <code>compareUnloadedIds</code>. For example
+ *
+ * <pre>
+ * assertThat(dao.getById(instance.getId()), theSameAs(instance).skipUnloaded(new ProxyLoadStateProbe()));
+ * </pre>
+ *
+ * or, with the JPA API,
+ *
+ * <pre>
+ * assertThat(dao.getById(instance.getId()), theSameAs(instance).skipUnloaded(new LoadStateProbe() {
+ *
+ * 	public boolean isLoaded(final Object value) {
+ * 		return Persistence.getPersistenceUtil().isLoaded(value);
+ * 	}
+ * }));
+ * </pre>
+ *
+ * The probe is called for every non-null value compared, from several threads
+ * at once in a parallel comparison, and must not load the value itself.
+ *
+ * @see ProxyLoadStateProbe
+ * @author Stewart Bissett
+ */
+public interface LoadStateProbe {
+
+	/**
+	 * Return <code>true</code> if the value can be read without loading it,
+	 * i.e. it is not a lazy proxy or collection, or it has already been
+	 * initialized
+	 */
+	public boolean isLoaded(final Object value);
+
+	/**
+	 * Return the identifier of an entity, without loading it if it is a lazy
+	 * proxy, or <code>null</code> if it is not known. Returns
+	 * <code>null</code> by default.
+	 */
+	public default Object identifierOf(final Object value) {
+		return null;
+	}
+
+	/**
+	 * Return the class a proxy class was generated for, or the class itself if
+	 * it is not a proxy. The properties of the real class are compared, rather
+	 * than any the proxy adds, and are looked up once for the real class and
+	 * all its proxies. Returns the class by default.
+	 */
+	public default Class<?> unwrap(final Class<?> type) {
+		return type;
+	}
+}
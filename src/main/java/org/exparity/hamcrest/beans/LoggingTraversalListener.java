@@ -0,0 +1,74 @@
+package org.exparity.hamcrest.beans;
+
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link TraversalListener} which writes the traversal to an
+ * SLF4J logger, each pair of objects at trace, each node and comparator at
+ * debug, and lists which cannot be sorted as a warning. For example
+ *
+ * <pre>
+ * assertThat(actual, theSameAs(expected).traceWith(new LoggingTraversalListener()));
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public class LoggingTraversalListener implements TraversalListener {
+
+	private final Logger log;
+
+	/**
+	 * Create a listener which logs to the
+	 * <code>org.exparity.hamcrest.beans.LoggingTraversalListener</code> logger
+	 */
+	public LoggingTraversalListener() {
+		this(LoggerFactory.getLogger(LoggingTraversalListener.class));
+	}
+
+	/**
+	 * Create a listener which logs to the logger
+	 */
+	public LoggingTraversalListener(final Logger log) {
+		this.log = log;
+	}
+
+	@Override
+	public void onCompare(final String path, final Object expected, final Object actual) {
+		if (log.isTraceEnabled()) {
+			log.trace("Compare [{}] vs [{}] at [{}]", new Object[] { expected, actual, path });
+		}
+	}
+
+	@Override
+	public void onNode(final String path, final NodeKind kind) {
+		if (log.isDebugEnabled()) {
+			log.debug("Compare path [{}] as {}", path, kind);
+		}
+	}
+
+	@Override
+	public void onComparator(final String path, final PropertyComparator<?> comparator) {
+		if (log.isDebugEnabled()) {
+			log.debug("Compare path [{}] using [{}]", path, comparator.getClass().getSimpleName());
+		}
+	}
+
+	@Override
+	public void onParallel(final String path, final int size) {
+		if (log.isDebugEnabled()) {
+			log.debug("Compare path [{}] as {} items in parallel", path, size);
+		}
+	}
+
+	@Override
+	public void onUnsorted(final String path, final Exception cause) {
+		if (log.isDebugEnabled()) {
+			log.warn("Unable to sort list at property {}", path, cause);
+		} else {
+			log.warn("Unable to sort list at property {}", path);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.exparity.hamcrest.beans;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming implementation of the 128 bit x64 variant of MurmurHash3. Values
+ * are buffered into 16 byte blocks which are mixed into the hash as they fill,
+ * so a hasher can be reset and reused without allocating.
+ *
+ * @author Stewart Bissett
+ */
+final class Murmur3Hasher {
+
+	private static final long C1 = 0x87c37b91114253d5L, C2 = 0x4cf5ad432745937fL;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(16 + 8).order(ByteOrder.LITTLE_ENDIAN);
+	private long h1, h2, length;
+
+	Murmur3Hasher reset() {
+		buffer.clear();
+		h1 = h2 = length = 0;
+		return this;
+	}
+
+	Murmur3Hasher putByte(final byte value) {
+		buffer.put(value);
+		return mixIfFull();
+	}
+
+	Murmur3Hasher putInt(final int value) {
+		buffer.putInt(value);
+		return mixIfFull();
+	}
+
+	Murmur3Hasher putLong(final long value) {
+		buffer.putLong(value);
+		return mixIfFull();
+	}
+
+	Murmur3Hasher putString(final String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		putInt(bytes.length);
+		for (int from = 0; from < bytes.length;) {
+			int count = Math.min(bytes.length - from, buffer.remaining());
+			buffer.put(bytes, from, count);
+			from += count;
+			mixIfFull();
+		}
+		return this;
+	}
+
+	/**
+	 * Return the hash of the values put since the last reset as two longs
+	 */
+	long[] finish() {
+		mix();
+		length += buffer.remaining();
+		if (buffer.remaining() > 0) {
+			long k1 = 0, k2 = 0;
+			for (int i = 0; buffer.hasRemaining(); ++i) {
+				long b = buffer.get() & 0xffL;
+				if (i < 8) {
+					k1 ^= b << (8 * i);
+				} else {
+					k2 ^= b << (8 * (i - 8));
+				}
+			}
+			h1 ^= mixK1(k1);
+			h2 ^= mixK2(k2);
+		}
+		h1 ^= length;
+		h2 ^= length;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix64(h1);
+		h2 = fmix64(h2);
+		h1 += h2;
+		h2 += h1;
+		return new long[] { h1, h2 };
+	}
+
+	private Murmur3Hasher mixIfFull() {
+		if (buffer.remaining() < 8) {
+			mix();
+			buffer.compact();
+		}
+		return this;
+	}
+
+	/**
+	 * Mix every complete 16 byte block into the hash, leaving the buffer ready
+	 * to read any remaining bytes
+	 */
+	private void mix() {
+		buffer.flip();
+		while (buffer.remaining() >= 16) {
+			bmix64(buffer.getLong(), buffer.getLong());
+			length += 16;
+		}
+	}
+
+	private void bmix64(final long k1, final long k2) {
+		h1 ^= mixK1(k1);
+		h1 = Long.rotateLeft(h1, 27);
+		h1 += h2;
+		h1 = h1 * 5 + 0x52dce729;
+		h2 ^= mixK2(k2);
+		h2 = Long.rotateLeft(h2, 31);
+		h2 += h1;
+		h2 = h2 * 5 + 0x38495ab5;
+	}
+
+	private static long mixK1(long k1) {
+		k1 *= C1;
+		k1 = Long.rotateLeft(k1, 31);
+		return k1 * C2;
+	}
+
+	private static long mixK2(long k2) {
+		k2 *= C2;
+		k2 = Long.rotateLeft(k2, 33);
+		return k2 * C1;
+	}
+
+	private static long fmix64(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+}
@@ -0,0 +1,168 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.hamcrest.Matcher;
+
+/**
+ * Counts the items in a collection whose value at a {@link PropertyPath}
+ * matches a matcher, remembering the indexes of the first items which do not.
+ * The path is parsed once and resolved against each item in turn. Large
+ * collections are split into ranges of at most the threshold items which are
+ * counted in parallel on the shared fork/join pool, in which case the matcher
+ * must be safe to use from several threads.
+ *
+ * @author Stewart Bissett
+ */
+final class PathCount {
+
+	/**
+	 * Count the items which match
+	 *
+	 * @param threshold
+	 *            the number of items above which they are counted in parallel,
+	 *            or {@link ComparisonConfiguration#SEQUENTIAL}
+	 * @param limit
+	 *            the number of failing indexes to remember
+	 * @param stopAtLimit
+	 *            stop counting at the first failing item after the limit of
+	 *            failing indexes is reached
+	 */
+	static PathCount count(final Iterable<?> items, final PropertyPath path, final Matcher<?> matcher,
+			final int threshold, final int limit, final boolean stopAtLimit) {
+		if (threshold == ComparisonConfiguration.SEQUENTIAL) {
+			PathCount count = new PathCount(limit);
+			int index = 0;
+			for (Object item : items) {
+				if (!count.add(index++, path.matches(item, matcher, new boolean[1])) && stopAtLimit
+						&& count.isTruncated()) {
+					break;
+				}
+			}
+			return count;
+		}
+		List<?> list = listOf(items);
+		CountRangeTask task = new CountRangeTask(list, path, matcher, threshold, limit, stopAtLimit, 0, list.size());
+		return ForkJoinTask.inForkJoinPool() ? task.invoke() : ComparisonExecutors.forkJoinPool().invoke(task);
+	}
+
+	private static List<?> listOf(final Iterable<?> items) {
+		if (items instanceof List && items instanceof RandomAccess) {
+			return (List<?>) items;
+		}
+		List<Object> list = new ArrayList<>();
+		for (Object item : items) {
+			list.add(item);
+		}
+		return list;
+	}
+
+	private final int[] failures;
+	private int matched, failed;
+
+	private PathCount(final int limit) {
+		this.failures = new int[limit];
+	}
+
+	/**
+	 * Return the number of items counted which matched
+	 */
+	int matched() {
+		return matched;
+	}
+
+	/**
+	 * Return the number of items counted which did not match
+	 */
+	int failed() {
+		return failed;
+	}
+
+	/**
+	 * Return the indexes of the first items which did not match, up to the
+	 * limit, in index order
+	 */
+	int[] failures() {
+		return Arrays.copyOf(failures, Math.min(failed, failures.length));
+	}
+
+	/**
+	 * Return <code>true</code> if more items failed than there are indexes
+	 * remembered
+	 */
+	boolean isTruncated() {
+		return failed > failures.length;
+	}
+
+	private boolean add(final int index, final boolean matches) {
+		if (matches) {
+			++matched;
+		} else {
+			if (failed < failures.length) {
+				failures[failed] = index;
+			}
+			++failed;
+		}
+		return matches;
+	}
+
+	/**
+	 * Add the counts of a range which follows the ranges already counted
+	 */
+	private PathCount join(final PathCount rhs) {
+		if (failed < failures.length) {
+			System.arraycopy(rhs.failures, 0, failures, failed, Math.min(rhs.failures().length, failures.length
+					- failed));
+		}
+		matched += rhs.matched;
+		failed += rhs.failed;
+		return this;
+	}
+
+	@SuppressWarnings("serial")
+	private static class CountRangeTask extends RecursiveTask<PathCount> {
+
+		private final List<?> items;
+		private final PropertyPath path;
+		private final Matcher<?> matcher;
+		private final int threshold, limit;
+		private final boolean stopAtLimit;
+		private final int from, to;
+
+		private CountRangeTask(final List<?> items, final PropertyPath path, final Matcher<?> matcher,
+				final int threshold, final int limit, final boolean stopAtLimit, final int from, final int to) {
+			this.items = items;
+			this.path = path;
+			this.matcher = matcher;
+			this.threshold = threshold;
+			this.limit = limit;
+			this.stopAtLimit = stopAtLimit;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected PathCount compute() {
+			if (to - from <= threshold) {
+				PathCount count = new PathCount(limit);
+				for (int i = from; i < to; ++i) {
+					if (!count.add(i, path.matches(items.get(i), matcher, new boolean[1])) && stopAtLimit
+							&& count.isTruncated()) {
+						break;
+					}
+				}
+				return count;
+			}
+			int mid = (from + to) >>> 1;
+			CountRangeTask lhs = new CountRangeTask(items, path, matcher, threshold, limit, stopAtLimit, from, mid);
+			CountRangeTask rhs = new CountRangeTask(items, path, matcher, threshold, limit, stopAtLimit, mid, to);
+			invokeAll(lhs, rhs);
+			return lhs.join().join(rhs.join());
+		}
+	}
+}
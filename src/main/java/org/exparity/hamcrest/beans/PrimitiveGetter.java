@@ -0,0 +1,142 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads the value of a getter which returns a primitive without boxing it.
+ * The getter is looked up once as a method handle adapted to return a
+ * <code>double</code>, a <code>long</code>, or a <code>boolean</code> and
+ * cached, so {@link #doubleValue(Object)} and friends can be called for each
+ * bean without allocating. The getters are held against the class declaring
+ * the method, so they are held for as long as the class is loaded.
+ *
+ * @author Stewart Bissett
+ */
+final class PrimitiveGetter {
+
+	private static final ClassValue<ConcurrentMap<Method, PrimitiveGetter>> GETTERS = new ClassValue<ConcurrentMap<Method, PrimitiveGetter>>() {
+
+		@Override
+		protected ConcurrentMap<Method, PrimitiveGetter> computeValue(final Class<?> klass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	private static final PrimitiveGetter INACCESSIBLE = new PrimitiveGetter(null, null, null, null);
+
+	/**
+	 * Return the getter for the method, or <code>null</code> if the method
+	 * does not return a primitive or cannot be called through a method handle
+	 */
+	static PrimitiveGetter of(final Method method) {
+		ConcurrentMap<Method, PrimitiveGetter> getters = GETTERS.get(method.getDeclaringClass());
+		PrimitiveGetter getter = getters.get(method);
+		if (getter == null) {
+			getter = lookup(method);
+			getters.putIfAbsent(method, getter);
+		}
+		return getter != INACCESSIBLE ? getter : null;
+	}
+
+	private static PrimitiveGetter lookup(final Method method) {
+		Class<?> type = method.getReturnType();
+		if (!type.isPrimitive() || type == void.class) {
+			return INACCESSIBLE;
+		}
+		MethodHandle handle;
+		try {
+			method.setAccessible(true);
+			handle = MethodHandles.lookup().unreflect(method);
+		} catch (Exception e) {
+			return INACCESSIBLE;
+		}
+		Class<?> boxedType = MethodType.methodType(type).wrap().returnType();
+		if (type == boolean.class) {
+			return new PrimitiveGetter(boxedType, null, null, handle.asType(MethodType.methodType(boolean.class,
+					Object.class)));
+		}
+		MethodHandle asDouble = handle.asType(MethodType.methodType(double.class, Object.class));
+		if (type == double.class || type == float.class) {
+			return new PrimitiveGetter(boxedType, asDouble, null, null);
+		}
+		return new PrimitiveGetter(boxedType, asDouble, handle.asType(MethodType.methodType(long.class,
+				Object.class)), null);
+	}
+
+	private final Class<?> boxedType;
+	private final MethodHandle asDouble, asLong, asBoolean;
+
+	private PrimitiveGetter(final Class<?> boxedType, final MethodHandle asDouble, final MethodHandle asLong,
+			final MethodHandle asBoolean) {
+		this.boxedType = boxedType;
+		this.asDouble = asDouble;
+		this.asLong = asLong;
+		this.asBoolean = asBoolean;
+	}
+
+	/**
+	 * Return the wrapper type of the primitive the getter returns, which type
+	 * comparators are registered against
+	 */
+	Class<?> boxedType() {
+		return boxedType;
+	}
+
+	/**
+	 * Return <code>true</code> if the getter returns a boolean
+	 */
+	boolean isBoolean() {
+		return asBoolean != null;
+	}
+
+	/**
+	 * Return <code>true</code> if the getter returns a floating point number
+	 */
+	boolean isFloatingPoint() {
+		return asDouble != null && asLong == null;
+	}
+
+	/**
+	 * Return <code>true</code> if the getter returns a whole number or a char
+	 */
+	boolean isIntegral() {
+		return asLong != null;
+	}
+
+	double doubleValue(final Object bean) {
+		try {
+			return (double) asDouble.invokeExact(bean);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	long longValue(final Object bean) {
+		try {
+			return (long) asLong.invokeExact(bean);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	boolean booleanValue(final Object bean) {
+		try {
+			return (boolean) asBoolean.invokeExact(bean);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	private static RuntimeException rethrow(final Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		} else if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new RuntimeException("Error reading property. Error '" + e.getMessage() + "'", e);
+	}
+}
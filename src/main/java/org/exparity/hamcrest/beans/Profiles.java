@@ -0,0 +1,64 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.Date;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.exparity.hamcrest.beans.comparators.IsCloseTo;
+import org.exparity.hamcrest.beans.comparators.IsEqualDateTime;
+
+/**
+ * Named {@link ComparisonConfiguration}s for common comparisons. Each profile
+ * is built once and shared, and profiles can be combined with
+ * {@link ComparisonConfiguration#and(ComparisonConfiguration)} and changed for
+ * a single assertion without affecting other users of the profile. For example
+ *
+ * <pre>
+ * static final ComparisonConfiguration SAVED_ORDER = Profiles.entityComparison().excludeProperty(&quot;OrderNumber&quot;);
+ * assertThat(dao.getById(order.getId()), theSameAs(order, SAVED_ORDER));
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public final class Profiles {
+
+	private static final ComparisonConfiguration ENTITY_COMPARISON = ComparisonConfiguration.DEFAULTS.excludeProperty(
+			"Id").excludeProperty("Version").compareType(Date.class, new IsEqualDateTime());
+
+	/**
+	 * Return the profile which compares all getter properties with the
+	 * default comparators
+	 */
+	public static ComparisonConfiguration defaults() {
+		return ComparisonConfiguration.DEFAULTS;
+	}
+
+	/**
+	 * Return the profile which compares bean properties, those with a getter
+	 * and setter, with the default comparators
+	 */
+	public static ComparisonConfiguration beanProperties() {
+		return ComparisonConfiguration.defaults(PropertyType.BEAN);
+	}
+
+	/**
+	 * Return the profile for comparing an entity with the same entity after it
+	 * has been saved and loaded again. The generated <code>Id</code> and
+	 * <code>Version</code> properties are excluded and dates are compared to
+	 * the second, as many databases do not store milliseconds.
+	 */
+	public static ComparisonConfiguration entityComparison() {
+		return ENTITY_COMPARISON;
+	}
+
+	/**
+	 * Return the profile which compares doubles and floats as equal if they
+	 * differ by no more than the tolerance
+	 */
+	public static ComparisonConfiguration approximateNumbers(final double tolerance) {
+		IsCloseTo comparator = new IsCloseTo(tolerance);
+		return ComparisonConfiguration.DEFAULTS.compareType(Double.class, comparator).compareType(Float.class,
+				comparator);
+	}
+
+	private Profiles() {}
+}
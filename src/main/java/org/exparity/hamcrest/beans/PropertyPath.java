@@ -0,0 +1,364 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.exparity.beans.core.TypeProperty;
+import org.hamcrest.Matcher;
+
+/**
+ * A property path such as <code>Person.Addresses[0].Street</code> parsed once
+ * into its segments so it can be resolved against many objects by following
+ * the getters on the path, without building a graph of each object.
+ * <p>
+ * Path segments are matched to bean properties, i.e. those with both a getter
+ * and a setter, ignoring case. The first segment names the root object and is
+ * matched to its simple class name. An index selects an element of a list,
+ * collection, or array by position or an entry of a map by key.
+ * </p>
+ * <p>
+ * An index can instead quantify over the elements of a list, collection, or
+ * array, or the values of a map. <code>[*]</code> requires every element to
+ * match the rest of the path, <code>[?]</code> requires any element to match,
+ * and <code>[Id=42]</code> requires every element whose <code>Id</code>
+ * property is 42 to match. Elements are visited lazily and stop being visited
+ * as soon as the result is known. A quantifier which selects no elements does
+ * not match.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+final class PropertyPath {
+
+	/**
+	 * Returned when the path does not exist on the object, so it can be told
+	 * apart from a property whose value is <code>null</code>
+	 */
+	static final Object NOT_FOUND = new Object();
+
+	/**
+	 * Parse a path into its segments
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the path is empty or has an unbalanced bracket
+	 */
+	static PropertyPath parse(final String path) {
+		List<Segment> segments = new ArrayList<>();
+		int start = 0;
+		for (int i = 0; i <= path.length(); ++i) {
+			if (i == path.length() || path.charAt(i) == '.') {
+				segments.add(Segment.parse(path, path.substring(start, i)));
+				start = i + 1;
+			} else if (path.charAt(i) == '[') {
+				i = path.indexOf(']', i);
+				if (i < 0) {
+					throw new IllegalArgumentException("Path '" + path + "' has an unclosed '['");
+				}
+			}
+		}
+		return new PropertyPath(path, segments.toArray(new Segment[segments.size()]));
+	}
+
+	private final String path;
+	private final Segment[] segments;
+	private final boolean quantified;
+
+	private PropertyPath(final String path, final Segment[] segments) {
+		this.path = path;
+		this.segments = segments;
+		boolean quantified = false;
+		for (Segment segment : segments) {
+			quantified |= segment.quantifier != null;
+		}
+		this.quantified = quantified;
+	}
+
+	/**
+	 * Return <code>true</code> if the value, or values, at the end of the path
+	 * match the matcher
+	 *
+	 * @param found
+	 *            set to <code>true</code> if a value was found at the end of
+	 *            the path, whether or not it matched
+	 */
+	boolean matches(final Object item, final Matcher<?> matcher, final boolean[] found) {
+		return segments.length > 1
+				&& matches(IndexedBean.itemOf(item), 0, matcher, found, IndexedBean.readerOf(item));
+	}
+
+	private boolean matches(final Object current, final int depth, final Matcher<?> matcher, final boolean[] found,
+			final PropertyReader reader) {
+		if (depth == segments.length) {
+			found[0] = true;
+			return matcher.matches(current);
+		}
+		Segment segment = segments[depth];
+		Object value = segment.property(current, depth == 0, reader);
+		if (value == NOT_FOUND) {
+			return false;
+		} else if (segment.quantifier == null) {
+			Object selected = segment.select(value);
+			return selected != NOT_FOUND && matches(selected, depth + 1, matcher, found, reader);
+		}
+		Iterator<?> elements = segment.elements(value, reader);
+		if (!elements.hasNext()) {
+			return false;
+		}
+		boolean any = segment.quantifier == Quantifier.ANY;
+		while (elements.hasNext()) {
+			if (matches(elements.next(), depth + 1, matcher, found, reader) == any) {
+				return any;
+			}
+		}
+		return !any;
+	}
+
+	/**
+	 * Return the segments of the path, the first naming the root object
+	 */
+	Segment[] segments() {
+		return segments;
+	}
+
+	/**
+	 * Return <code>true</code> if any segment of the path quantifies over
+	 * elements, so the path can have more than one value
+	 */
+	boolean isQuantified() {
+		return quantified;
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	private enum Quantifier {
+		EVERY, ANY
+	}
+
+	/**
+	 * A property name, in lower case, with an optional index, quantifier, or
+	 * filter
+	 */
+	static final class Segment {
+
+		private final String name;
+		private final String index;
+		private final Quantifier quantifier;
+		private final String filterName, filterValue;
+
+		private Segment(final String name, final String index) {
+			this.name = name;
+			this.index = index;
+			if ("*".equals(index)) {
+				this.quantifier = Quantifier.EVERY;
+				this.filterName = this.filterValue = null;
+			} else if ("?".equals(index)) {
+				this.quantifier = Quantifier.ANY;
+				this.filterName = this.filterValue = null;
+			} else if (index != null && index.indexOf('=') > 0) {
+				this.quantifier = Quantifier.EVERY;
+				this.filterName = index.substring(0, index.indexOf('=')).trim().toLowerCase();
+				this.filterValue = index.substring(index.indexOf('=') + 1).trim();
+			} else {
+				this.quantifier = null;
+				this.filterName = this.filterValue = null;
+			}
+		}
+
+		private static Segment parse(final String path, final String segment) {
+			int bracket = segment.indexOf('[');
+			String name = bracket < 0 ? segment : segment.substring(0, bracket);
+			if (name.isEmpty()) {
+				throw new IllegalArgumentException("Path '" + path + "' has an empty property name");
+			} else if (bracket < 0) {
+				return new Segment(name.toLowerCase(), null);
+			} else if (!segment.endsWith("]")) {
+				throw new IllegalArgumentException("Path '" + path + "' has characters after ']' in '" + segment
+						+ "'");
+			}
+			return new Segment(name.toLowerCase(), segment.substring(bracket + 1, segment.length() - 1));
+		}
+
+		/**
+		 * Return the segment as it would appear in a path, with the name in
+		 * lower case, so equal segments of different paths have equal keys
+		 */
+		String key() {
+			return index == null ? name : name + "[" + index + "]";
+		}
+
+		/**
+		 * Return the value the segment selects from the object, or
+		 * {@link #NOT_FOUND} if it does not exist or the segment quantifies
+		 * over elements. The root segment selects the object itself if its
+		 * simple class name matches.
+		 */
+		Object step(final Object current, final boolean root, final PropertyReader reader) {
+			Object value = property(current, root, reader);
+			return value != NOT_FOUND ? select(value) : NOT_FOUND;
+		}
+
+		/**
+		 * Return the value of the named property, before any index is
+		 * applied, or {@link #NOT_FOUND} if the object has no such property
+		 */
+		private Object property(final Object current, final boolean root, final PropertyReader reader) {
+			if (current == null) {
+				return NOT_FOUND;
+			} else if (root) {
+				return name.equals(current.getClass().getSimpleName().toLowerCase()) ? current : NOT_FOUND;
+			}
+			TypeProperty property = BeanProperties.of(current.getClass()).get(name);
+			return property != null ? reader.read(property, current) : NOT_FOUND;
+		}
+
+		/**
+		 * Return the element at the index, or the value itself if the segment
+		 * has no index
+		 */
+		@SuppressWarnings("rawtypes")
+		private Object select(final Object value) {
+			if (index == null) {
+				return value;
+			} else if (quantifier != null) {
+				return NOT_FOUND;
+			} else if (value instanceof Map) {
+				for (Object entry : ((Map) value).entrySet()) {
+					if (index.equals(String.valueOf(((Map.Entry) entry).getKey()))) {
+						return ((Map.Entry) entry).getValue();
+					}
+				}
+				return NOT_FOUND;
+			}
+			int position;
+			try {
+				position = Integer.parseInt(index);
+			} catch (NumberFormatException e) {
+				return NOT_FOUND;
+			}
+			if (position < 0) {
+				return NOT_FOUND;
+			} else if (value instanceof List) {
+				List list = (List) value;
+				return position < list.size() ? list.get(position) : NOT_FOUND;
+			} else if (value instanceof Iterable) {
+				Iterator iterator = ((Iterable) value).iterator();
+				for (int i = 0; iterator.hasNext(); ++i) {
+					Object element = iterator.next();
+					if (i == position) {
+						return element;
+					}
+				}
+				return NOT_FOUND;
+			} else if (value != null && value.getClass().isArray()) {
+				return position < Array.getLength(value) ? Array.get(value, position) : NOT_FOUND;
+			}
+			return NOT_FOUND;
+		}
+
+		/**
+		 * Return a lazy iterator over the elements the quantifier applies to,
+		 * skipping those which do not pass the filter
+		 */
+		@SuppressWarnings("rawtypes")
+		private Iterator<?> elements(final Object value, final PropertyReader reader) {
+			final Iterator<?> elements;
+			if (value instanceof Iterable) {
+				elements = ((Iterable) value).iterator();
+			} else if (value instanceof Map) {
+				elements = ((Map) value).values().iterator();
+			} else if (value != null && value.getClass().isArray()) {
+				elements = new ArrayIterator(value);
+			} else {
+				elements = Collections.emptyIterator();
+			}
+			return filterName == null ? elements : new FilterIterator(elements, reader);
+		}
+
+		/**
+		 * Return <code>true</code> if the element has the filter property and
+		 * its value is the filter value
+		 */
+		private boolean passesFilter(final Object element, final PropertyReader reader) {
+			if (element == null) {
+				return false;
+			}
+			TypeProperty property = BeanProperties.of(element.getClass()).get(filterName);
+			return property != null && filterValue.equals(String.valueOf(reader.read(property, element)));
+		}
+
+		/**
+		 * Iterator over the elements which pass the filter, looking one element
+		 * ahead
+		 */
+		private class FilterIterator implements Iterator<Object> {
+
+			private final Iterator<?> elements;
+			private final PropertyReader reader;
+			private Object next = NOT_FOUND;
+
+			private FilterIterator(final Iterator<?> elements, final PropertyReader reader) {
+				this.elements = elements;
+				this.reader = reader;
+			}
+
+			public boolean hasNext() {
+				while (next == NOT_FOUND && elements.hasNext()) {
+					Object element = elements.next();
+					if (passesFilter(element, reader)) {
+						next = element;
+					}
+				}
+				return next != NOT_FOUND;
+			}
+
+			public Object next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Object element = next;
+				next = NOT_FOUND;
+				return element;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		}
+	}
+
+	/**
+	 * Iterator over the elements of an array of any component type
+	 */
+	private static class ArrayIterator implements Iterator<Object> {
+
+		private final Object array;
+		private int position;
+
+		private ArrayIterator(final Object array) {
+			this.array = array;
+		}
+
+		public boolean hasNext() {
+			return position < Array.getLength(array);
+		}
+
+		public Object next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return Array.get(array, position++);
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
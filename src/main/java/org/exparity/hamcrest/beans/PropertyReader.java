@@ -0,0 +1,27 @@
+package org.exparity.hamcrest.beans;
+
+import org.exparity.beans.core.TypeProperty;
+
+/**
+ * Reads the value of a bean property, either by calling the getter each time
+ * or from the values already read for an {@link IndexedBean}
+ *
+ * @author Stewart Bissett
+ */
+interface PropertyReader {
+
+	/**
+	 * Reads the value by calling the getter each time
+	 */
+	PropertyReader GETTER = new PropertyReader() {
+
+		public Object read(final TypeProperty property, final Object bean) {
+			return property.getValue(bean);
+		}
+	};
+
+	/**
+	 * Return the value of the property on the bean
+	 */
+	Object read(TypeProperty property, Object bean);
+}
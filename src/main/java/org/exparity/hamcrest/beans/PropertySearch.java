@@ -0,0 +1,214 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.exparity.beans.core.TypeProperty;
+
+/**
+ * Breadth first search of an object graph for the first bean property with a
+ * name, ignoring case. The search stops as soon as the property is found so a
+ * property near the root is found without visiting the rest of the graph.
+ * <p>
+ * Values whose type cannot reach a property with the name are not searched.
+ * Whether a type can reach a name is worked out once from the declared types
+ * of its properties, including the element types of generic collections and
+ * maps, and cached. A declared type which could hold a subclass with other
+ * properties, i.e. an interface, {@link Object}, or any other class which is
+ * not final, is always searched. Each instance is searched once, so cycles are
+ * safe.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+final class PropertySearch {
+
+	private static final ClassValue<ConcurrentMap<String, Boolean>> REACHABLE = new ClassValue<ConcurrentMap<String, Boolean>>() {
+
+		@Override
+		protected ConcurrentMap<String, Boolean> computeValue(final Class<?> klass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static final ClassValue<ConcurrentMap<String, TypeProperty[]>> SEARCHABLE = new ClassValue<ConcurrentMap<String, TypeProperty[]>>() {
+
+		@Override
+		protected ConcurrentMap<String, TypeProperty[]> computeValue(final Class<?> klass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Return the value of the first property with the name, nearest the root
+	 * first, or {@link PropertyPath#NOT_FOUND} if the graph has no such
+	 * property
+	 */
+	static Object find(final Object item, final String name) {
+		String lowerCaseName = name.toLowerCase();
+		if (item instanceof IndexedBean) {
+			Map<String, Object> searches = ((IndexedBean) item).searches();
+			if (!searches.containsKey(lowerCaseName)) {
+				searches.put(lowerCaseName, find(IndexedBean.itemOf(item), lowerCaseName, IndexedBean.readerOf(item)));
+			}
+			return searches.get(lowerCaseName);
+		}
+		return find(item, lowerCaseName, PropertyReader.GETTER);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Object find(final Object root, final String lowerCaseName, final PropertyReader reader) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		Queue<Object> queue = new ArrayDeque<>();
+		if (root != null) {
+			queue.add(root);
+		}
+		while (!queue.isEmpty()) {
+			Object current = queue.remove();
+			if (!visited.add(current)) {
+				continue;
+			}
+			if (current instanceof Iterable) {
+				for (Object element : (Iterable) current) {
+					enqueue(element, lowerCaseName, queue);
+				}
+			} else if (current instanceof Map) {
+				for (Object value : ((Map) current).values()) {
+					enqueue(value, lowerCaseName, queue);
+				}
+			} else if (current.getClass().isArray()) {
+				for (int i = 0; i < Array.getLength(current); ++i) {
+					enqueue(Array.get(current, i), lowerCaseName, queue);
+				}
+			} else {
+				Map<String, TypeProperty> properties = BeanProperties.of(current.getClass());
+				TypeProperty property = properties.get(lowerCaseName);
+				if (property != null) {
+					return reader.read(property, current);
+				}
+				for (TypeProperty child : searchable(current.getClass(), lowerCaseName)) {
+					enqueue(reader.read(child, current), lowerCaseName, queue);
+				}
+			}
+		}
+		return PropertyPath.NOT_FOUND;
+	}
+
+	private static void enqueue(final Object value, final String name, final Queue<Object> queue) {
+		if (value != null && (value.getClass().isArray() || canReach(value.getClass(), name))) {
+			queue.add(value);
+		}
+	}
+
+	/**
+	 * Return <code>true</code> if an instance of the class, or anything
+	 * reachable from it, may have a property with the lower case name
+	 */
+	private static boolean canReach(final Class<?> klass, final String name) {
+		Boolean reachable = REACHABLE.get(klass).get(name);
+		if (reachable == null) {
+			reachable = canReach(klass, name, new HashSet<Class<?>>());
+			REACHABLE.get(klass).put(name, reachable);
+		}
+		return reachable;
+	}
+
+	/**
+	 * Work out if the class can reach the name. A class already being checked
+	 * further up is treated as unable to reach it, as it will be answered by
+	 * the check in progress.
+	 */
+	private static boolean canReach(final Class<?> klass, final String name, final Set<Class<?>> checking) {
+		Boolean reachable = REACHABLE.get(klass).get(name);
+		if (reachable != null) {
+			return reachable;
+		} else if (Iterable.class.isAssignableFrom(klass) || Map.class.isAssignableFrom(klass)) {
+			return true;
+		} else if (!checking.add(klass)) {
+			return false;
+		}
+		Map<String, TypeProperty> properties = BeanProperties.of(klass);
+		if (properties.containsKey(name)) {
+			return true;
+		}
+		for (TypeProperty property : properties.values()) {
+			if (canReach(property.getAccessor().getGenericReturnType(), name, checking)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the properties of the class whose declared type may reach the
+	 * lower case name
+	 */
+	private static TypeProperty[] searchable(final Class<?> klass, final String name) {
+		TypeProperty[] searchable = SEARCHABLE.get(klass).get(name);
+		if (searchable == null) {
+			List<TypeProperty> properties = new ArrayList<>();
+			for (TypeProperty property : BeanProperties.of(klass).values()) {
+				if (canReach(property.getAccessor().getGenericReturnType(), name, new HashSet<Class<?>>())) {
+					properties.add(property);
+				}
+			}
+			searchable = properties.toArray(new TypeProperty[properties.size()]);
+			SEARCHABLE.get(klass).put(name, searchable);
+		}
+		return searchable;
+	}
+
+	/**
+	 * Work out if a value of the declared type can reach the name, resolving
+	 * the element types of collections, maps, and arrays where they are known
+	 */
+	private static boolean canReach(final Type type, final String name, final Set<Class<?>> checking) {
+		if (type instanceof Class) {
+			Class<?> klass = (Class<?>) type;
+			if (klass.isPrimitive()) {
+				return false;
+			} else if (klass.isArray()) {
+				return canReach(klass.getComponentType(), name, checking);
+			} else if (klass.isInterface() || !isClosed(klass)) {
+				return true;
+			}
+			return canReach(klass, name, checking);
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			Class<?> raw = (Class<?>) parameterized.getRawType();
+			if (Iterable.class.isAssignableFrom(raw)) {
+				return canReach(parameterized.getActualTypeArguments()[0], name, checking);
+			} else if (Map.class.isAssignableFrom(raw)) {
+				return canReach(parameterized.getActualTypeArguments()[1], name, checking);
+			}
+			return canReach(raw, name, checking);
+		} else if (type instanceof GenericArrayType) {
+			return canReach(((GenericArrayType) type).getGenericComponentType(), name, checking);
+		}
+		return true;
+	}
+
+	/**
+	 * Return <code>true</code> if values of the class can only be of the class
+	 * itself
+	 */
+	private static boolean isClosed(final Class<?> klass) {
+		return Modifier.isFinal(klass.getModifiers()) || klass.isEnum();
+	}
+
+	private PropertySearch() {}
+}
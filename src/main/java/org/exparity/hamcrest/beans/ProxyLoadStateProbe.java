@@ -0,0 +1,131 @@
+package org.exparity.hamcrest.beans;
+
+import java.lang.reflect.Method;
+
+/**
+ * Implementation of {@link LoadStateProbe} which recognises the lazy proxies
+ * and collections of the common ORMs by the methods they expose, without
+ * depending on any of them:
+ * <ul>
+ * <li>a proxy with a <code>getHibernateLazyInitializer()</code> method is
+ * loaded unless its initializer's <code>isUninitialized()</code> returns
+ * <code>true</code>, and its identifier is the initializer's
+ * <code>getIdentifier()</code></li>
+ * <li>a collection with a <code>wasInitialized()</code> method, as Hibernate
+ * collections have, or an <code>isInstantiated()</code> method, as EclipseLink
+ * collections have, is loaded if it returns <code>true</code></li>
+ * <li>the identifier of any other value is the result of its
+ * <code>getId()</code> method, if it has one</li>
+ * </ul>
+ * Classes generated by Hibernate, Javassist, CGLIB, Spring, or Byte Buddy,
+ * i.e. those whose name contains <code>$$</code>, <code>$HibernateProxy$</code>
+ * , or <code>$ByteBuddy$</code>, are unwrapped to their superclass. The methods
+ * of each class are looked up once and held for as long as the class is
+ * loaded.
+ *
+ * @author Stewart Bissett
+ */
+public class ProxyLoadStateProbe implements LoadStateProbe {
+
+	private static final ClassValue<Class<?>> REAL_CLASSES = new ClassValue<Class<?>>() {
+
+		@Override
+		protected Class<?> computeValue(final Class<?> klass) {
+			Class<?> real = klass;
+			while (isGenerated(real.getName()) && real.getSuperclass() != null
+					&& real.getSuperclass() != Object.class) {
+				real = real.getSuperclass();
+			}
+			return real;
+		}
+	};
+
+	private static final ClassValue<Methods> METHODS = new ClassValue<Methods>() {
+
+		@Override
+		protected Methods computeValue(final Class<?> klass) {
+			return new Methods(klass);
+		}
+	};
+
+	@Override
+	public boolean isLoaded(final Object value) {
+		Methods methods = METHODS.get(value.getClass());
+		if (methods.lazyInitializer != null) {
+			Object initializer = invoke(methods.lazyInitializer, value);
+			Method uninitialized = METHODS.get(initializer.getClass()).uninitialized;
+			return uninitialized == null || !(Boolean) invoke(uninitialized, initializer);
+		} else if (methods.initialized != null) {
+			return (Boolean) invoke(methods.initialized, value);
+		}
+		return true;
+	}
+
+	@Override
+	public Object identifierOf(final Object value) {
+		Methods methods = METHODS.get(value.getClass());
+		if (methods.lazyInitializer != null) {
+			Object initializer = invoke(methods.lazyInitializer, value);
+			Method identifier = METHODS.get(initializer.getClass()).identifier;
+			return identifier != null ? invoke(identifier, initializer) : null;
+		} else if (methods.id != null) {
+			return invoke(methods.id, value);
+		}
+		return null;
+	}
+
+	@Override
+	public Class<?> unwrap(final Class<?> type) {
+		return REAL_CLASSES.get(type);
+	}
+
+	private static boolean isGenerated(final String name) {
+		return name.contains("$$") || name.contains("$HibernateProxy$") || name.contains("$ByteBuddy$");
+	}
+
+	private static Object invoke(final Method method, final Object instance) {
+		try {
+			return method.invoke(instance);
+		} catch (Exception e) {
+			throw new RuntimeException("Error probing load state of " + instance.getClass().getName() + ". Error '"
+					+ e.getMessage() + "'", e);
+		}
+	}
+
+	/**
+	 * The methods of a class which tell whether an instance is loaded and
+	 * what its identifier is, each <code>null</code> if the class has none
+	 */
+	private static final class Methods {
+
+		private final Method lazyInitializer, uninitialized, initialized, identifier, id;
+
+		private Methods(final Class<?> klass) {
+			this.lazyInitializer = methodOf(klass, "getHibernateLazyInitializer", Object.class);
+			this.uninitialized = methodOf(klass, "isUninitialized", boolean.class);
+			Method initialized = methodOf(klass, "wasInitialized", boolean.class);
+			this.initialized = initialized != null ? initialized : methodOf(klass, "isInstantiated", boolean.class);
+			this.identifier = methodOf(klass, "getIdentifier", Object.class);
+			this.id = methodOf(klass, "getId", Object.class);
+		}
+
+		private static Method methodOf(final Class<?> klass, final String name, final Class<?> returns) {
+			Method method;
+			try {
+				method = klass.getMethod(name);
+			} catch (NoSuchMethodException e) {
+				return null;
+			}
+			if (returns == boolean.class ? method.getReturnType() != boolean.class
+					: method.getReturnType() == void.class) {
+				return null;
+			}
+			try {
+				method.setAccessible(true);
+			} catch (RuntimeException e) {
+				// Public methods of public classes can still be called
+			}
+			return method;
+		}
+	}
+}
@@ -0,0 +1,443 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.beans.GraphComparison.getDotIfRequired;
+import static org.exparity.hamcrest.beans.GraphComparison.pathWithoutIndexes;
+import static org.exparity.hamcrest.beans.GraphComparison.sort;
+import static org.exparity.hamcrest.beans.GraphComparison.valueOf;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.exparity.beans.core.AbstractProperty;
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.exparity.hamcrest.beans.GraphComparison.NodePath;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.comparators.Excluded;
+
+/**
+ * Compares an actual object graph to a {@link GraphSnapshot}, following the
+ * same rules as {@link GraphComparison} but reading the expected values from
+ * the snapshot as each node is visited. As in {@link GraphComparison} the
+ * graph is walked depth first with an explicit stack of the beans, lists, and
+ * maps part way through being compared, so the depth of graph which can be
+ * compared is not limited by the size of the thread's stack.
+ *
+ * @author Stewart Bissett
+ */
+final class SnapshotComparison {
+
+	private final GraphSnapshot snapshot;
+	private final ComparisonConfiguration configuration;
+	private final DifferenceListener listener;
+	private final TraversalListener tracer;
+	private final Set<Visit> compared = new HashSet<Visit>();
+	private final Map<Integer, Object> comparedAt = new HashMap<>();
+	private final Map<Class<?>, Map<String, AbstractProperty>> properties = new HashMap<>();
+	private boolean same = true;
+
+	SnapshotComparison(final GraphSnapshot snapshot, final ComparisonConfiguration configuration,
+			final DifferenceListener listener) {
+		this.snapshot = snapshot;
+		this.configuration = configuration;
+		this.listener = listener;
+		this.tracer = configuration.tracer();
+	}
+
+	/**
+	 * Compare the actual graph to the snapshot, reporting each difference to
+	 * the listener
+	 *
+	 * @return <code>true</code> if no differences were found
+	 */
+	boolean compare(final Object actual) {
+		Deque<Frame> stack = new ArrayDeque<>();
+		compareNode(snapshot.root(), actual, NodePath.root(snapshot.getName()), stack);
+		while (!stack.isEmpty()) {
+			if (!stack.peek().compareNext(stack)) {
+				stack.pop();
+			}
+		}
+		return same;
+	}
+
+	/**
+	 * Compare a node of the snapshot to the actual value, pushing a frame onto
+	 * the stack for its children if it is a bean, list, or map
+	 */
+	@SuppressWarnings("rawtypes")
+	private void compareNode(final int offset, final Object actual, final NodePath path, final Deque<Frame> stack) {
+
+		byte tag = snapshot.tagAt(offset);
+		if (tag == GraphSnapshot.REF) {
+			traced(path, NodeKind.REVISITED);
+			compareCycle(offset, actual, path);
+			return;
+		}
+
+		boolean expectedNull = tag == GraphSnapshot.NULL;
+		if (!expectedNull && actual != null) {
+			if (!compared.add(new Visit(offset, actual))) {
+				traced(path, NodeKind.REVISITED);
+				return;
+			}
+			if (snapshot.isStructureAt(offset)) {
+				comparedAt.put(offset, actual);
+			}
+		} else if (expectedNull && actual == null) {
+			return;
+		}
+
+		PropertyComparator comparator = pathComparator(path);
+		if (comparator == null) {
+			comparator = propertyComparator(path);
+		}
+		if (comparator == null) {
+			comparator = configuration.typeComparator(expectedNull ? actual.getClass() : snapshot.typeAt(offset));
+		}
+		if (comparator != null) {
+			compareUsingPropertyComparator(offset, actual, path, comparator);
+			return;
+		}
+
+		if (expectedNull || actual == null) {
+			addDifference(path, expectedNull ? Kind.UNEXPECTED : Kind.MISSING, snapshot.valueAt(offset), actual);
+			return;
+		}
+
+		switch (tag) {
+		case GraphSnapshot.ARRAY:
+			compareArrays(offset, actual, path);
+			break;
+		case GraphSnapshot.LIST:
+			compareLists(offset, actual, path, stack);
+			break;
+		case GraphSnapshot.MAP:
+			compareMaps(offset, actual, path, stack);
+			break;
+		case GraphSnapshot.BEAN:
+			traced(path, NodeKind.BEAN);
+			stack.push(new PropertiesFrame(offset, actual, path));
+			break;
+		default:
+			compareValues(offset, actual, path);
+		}
+	}
+
+	private PropertyComparator<?> pathComparator(final NodePath path) {
+		return configuration.hasPathComparators() ? configuration.pathComparator(pathWithoutIndexes(path.toString()))
+				: null;
+	}
+
+	private PropertyComparator<?> propertyComparator(final NodePath path) {
+		return configuration.hasPropertyComparators() ? configuration.propertyComparator(path.propertyName()) : null;
+	}
+
+	/**
+	 * Compare a cycle in the snapshot, which refers back to a node already
+	 * compared, to the actual value. The actual graph has the same cycle only
+	 * if the value is the same instance as was compared to that node.
+	 */
+	private void compareCycle(final int offset, final Object actual, final NodePath path) {
+		int target = snapshot.intAt(offset + 1);
+		if (comparedAt.containsKey(target) && comparedAt.get(target) != actual) {
+			addDifference(path, actual == null ? Kind.MISSING : Kind.VALUE, snapshot.valueAt(offset), actual);
+		}
+	}
+
+	private void compareArrays(final int offset, final Object actual, final NodePath path) {
+		traced(path, NodeKind.ARRAY);
+		Object[] expected = (Object[]) snapshot.valueAt(offset);
+		if (!actual.getClass().isArray()) {
+			addDifference(path, Kind.VALUE, expected, actual);
+			return;
+		}
+		int actualLength = Array.getLength(actual);
+		if (expected.length != actualLength) {
+			addDifference(path.property("size"), Kind.SIZE, expected.length, actualLength);
+		} else {
+			for (int i = 0; i < expected.length; ++i) {
+				Object actualValue = Array.get(actual, i);
+				if (expected[i] == null ? actualValue != null : !expected[i].equals(actualValue)) {
+					addDifference(path + getDotIfRequired(path.toString()), Kind.VALUE, expected, actual);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void compareLists(final int offset, final Object actual, final NodePath path, final Deque<Frame> stack) {
+		traced(path, NodeKind.LIST);
+		if (!(actual instanceof Collection)) {
+			addDifference(path, Kind.VALUE, snapshot.valueAt(offset), actual);
+			return;
+		}
+		try {
+			int size = snapshot.intAt(offset + 6), actualSize = ((Collection) actual).size();
+			if (size == 0 && actualSize == 0) {
+				return;
+			} else if (size != actualSize) {
+				addDifference(path.property("size"), Kind.SIZE, size, actualSize);
+			} else {
+				List actualList = new ArrayList((Collection) actual);
+				Exception failure = sort(actualList, snapshot.tagAt(offset + 5) != 0);
+				if (failure != null && tracer != null) {
+					tracer.onUnsorted(path.toString(), failure);
+				}
+				stack.push(new ElementsFrame(offset, actualList, path));
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void compareMaps(final int offset, final Object actual, final NodePath path, final Deque<Frame> stack) {
+		traced(path, NodeKind.MAP);
+		if (!(actual instanceof Map)) {
+			addDifference(path, Kind.VALUE, snapshot.valueAt(offset), actual);
+			return;
+		}
+		int size = snapshot.intAt(offset + 6), actualSize = ((Map) actual).size();
+		if (size != actualSize) {
+			addDifference(path.property("size"), Kind.SIZE, size, actualSize);
+		} else {
+			stack.push(new EntriesFrame(offset, (Map) actual, path));
+		}
+	}
+
+	/**
+	 * Return the values of the actual map by the string form of their keys, to
+	 * look up entries whose keys were recorded by their string form
+	 */
+	@SuppressWarnings("rawtypes")
+	private static Map<String, Object> byStringForm(final Map actual, final NodePath path) {
+		Map<String, Object> keys = new HashMap<>(), byKey = new HashMap<>();
+		for (Object entry : actual.entrySet()) {
+			Object key = ((Map.Entry) entry).getKey();
+			Object existing = keys.put(String.valueOf(key), key);
+			if (existing != null) {
+				throw new IllegalArgumentException("Unable to compare path '" + path + "' to a snapshot. Keys '"
+						+ existing + "' and '" + key + "' have the same string form");
+			}
+			byKey.put(String.valueOf(key), ((Map.Entry) entry).getValue());
+		}
+		return byKey;
+	}
+
+	private void compareValues(final int offset, final Object actual, final NodePath path) {
+		traced(path, NodeKind.VALUE);
+		Object expected = snapshot.valueAt(offset);
+		if (!expected.equals(actual)) {
+			addDifference(path, Kind.VALUE, expected, actual);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void compareUsingPropertyComparator(final int offset, final Object actual, final NodePath path,
+			final PropertyComparator comparator) {
+		if (tracer != null) {
+			tracer.onNode(path.toString(), NodeKind.COMPARATOR);
+			tracer.onComparator(path.toString(), comparator);
+		}
+		if (comparator instanceof Excluded) {
+			return;
+		} else if (snapshot.isStructureAt(offset)) {
+			throw new IllegalArgumentException("Unable to compare path '" + path + "' using "
+					+ comparator.getClass().getSimpleName()
+					+ ". Only values such as strings, numbers, dates, and enums are read from a snapshot");
+		}
+		Object expected = snapshot.valueAt(offset);
+		try {
+			if (!comparator.matches(expected, actual)) {
+				addDifference(path, Kind.VALUE, expected, actual);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private void traced(final NodePath path, final NodeKind kind) {
+		if (tracer != null) {
+			tracer.onNode(path.toString(), kind);
+		}
+	}
+
+	/**
+	 * Return the properties of the actual type by name. The properties of each
+	 * type are looked up once per comparison.
+	 */
+	private Map<String, AbstractProperty> propertiesOf(final Class<?> klass) {
+		Map<String, AbstractProperty> byName = properties.get(klass);
+		if (byName == null) {
+			byName = new HashMap<>();
+			for (AbstractProperty property : GraphComparison.propertiesOf(klass,
+					snapshot.propertyTypes())) {
+				byName.put(property.getName(), property);
+			}
+			properties.put(klass, byName);
+		}
+		return byName;
+	}
+
+	private void addDifference(final Object path, final Kind kind, final Object expected, final Object actual) {
+		listener.onDifference(new Difference(path.toString(), kind, expected, actual));
+		same = false;
+	}
+
+	/**
+	 * A bean, list, or map of the snapshot whose children are part way through
+	 * being compared. Each call to {@link #compareNext(Deque)} compares the
+	 * next child, which may push a frame of its own.
+	 */
+	private abstract class Frame {
+
+		protected final int offset;
+		protected final NodePath path;
+		protected int index = 0;
+
+		protected Frame(final int offset, final NodePath path) {
+			this.offset = offset;
+			this.path = path;
+		}
+
+		/**
+		 * Compare the next child. Returns <code>false</code> if there are no
+		 * more children to compare
+		 */
+		abstract boolean compareNext(final Deque<Frame> stack);
+	}
+
+	private class PropertiesFrame extends Frame {
+
+		private final Object actual;
+		private final Map<String, AbstractProperty> actualProperties;
+		private final int count;
+
+		private PropertiesFrame(final int offset, final Object actual, final NodePath path) {
+			super(offset, path);
+			this.actual = actual;
+			this.actualProperties = propertiesOf(actual.getClass());
+			this.count = snapshot.intAt(offset + 5);
+		}
+
+		@Override
+		boolean compareNext(final Deque<Frame> stack) {
+			if (index == count) {
+				return false;
+			}
+			int entry = offset + 9 + 8 * index++;
+			String name = snapshot.string(snapshot.intAt(entry));
+			AbstractProperty property = actualProperties.get(name);
+			compareNode(snapshot.intAt(entry + 4), property != null ? valueOf(property, actual) : null, path
+					.property(name), stack);
+			return true;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class ElementsFrame extends Frame {
+
+		private final List actual;
+
+		private ElementsFrame(final int offset, final List actual, final NodePath path) {
+			super(offset, path);
+			this.actual = actual;
+		}
+
+		@Override
+		boolean compareNext(final Deque<Frame> stack) {
+			if (index == actual.size()) {
+				return false;
+			}
+			try {
+				compareNode(snapshot.intAt(offset + 10 + 4 * index), actual.get(index), path.index(index), stack);
+			} catch (Exception e) {
+				throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+			}
+			++index;
+			return true;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class EntriesFrame extends Frame {
+
+		private final Map actual;
+		private final Map<String, Object> actualByKey;
+		private final int size;
+
+		private EntriesFrame(final int offset, final Map actual, final NodePath path) {
+			super(offset, path);
+			this.actual = actual;
+			this.actualByKey = snapshot.tagAt(offset + 5) != 0 ? byStringForm(actual, path) : null;
+			this.size = snapshot.intAt(offset + 6);
+		}
+
+		@Override
+		boolean compareNext(final Deque<Frame> stack) {
+			if (index == size) {
+				return false;
+			}
+			int entry = offset + 10 + 8 * index++;
+			try {
+				Object key, actualValue;
+				if (actualByKey != null) {
+					key = snapshot.string(snapshot.intAt(entry));
+					actualValue = actualByKey.get(key);
+				} else {
+					key = snapshot.valueAt(snapshot.intAt(entry));
+					actualValue = actual.get(key);
+				}
+				if (actualValue == null) {
+					addDifference(path.index(key), Kind.MISSING, snapshot.valueAt(snapshot.intAt(entry + 4)), null);
+				} else {
+					compareNode(snapshot.intAt(entry + 4), actualValue, path.index(key), stack);
+				}
+			} catch (Exception e) {
+				throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A snapshot node which has been compared to an actual instance
+	 */
+	private static class Visit {
+
+		private final int offset, actual;
+
+		public Visit(final int offset, final Object actual) {
+			this.offset = offset;
+			this.actual = System.identityHashCode(actual);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Visit)) {
+				return false;
+			}
+			Visit rhs = (Visit) o;
+			return new EqualsBuilder().append(this.offset, rhs.offset).append(this.actual, rhs.actual).isEquals();
+		}
+
+		@Override
+		public int hashCode() {
+			return new HashCodeBuilder(35, 67).append(offset).append(actual).toHashCode();
+		}
+	}
+}
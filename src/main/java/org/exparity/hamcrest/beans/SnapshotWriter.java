@@ -0,0 +1,548 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.beans.GraphComparison.propertiesOf;
+import static org.exparity.hamcrest.beans.GraphComparison.sortedCopy;
+import static org.exparity.hamcrest.beans.GraphComparison.valueOf;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.exparity.beans.core.AbstractProperty;
+import org.exparity.hamcrest.beans.GraphComparison.NodePath;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+
+/**
+ * Writes an object graph to a file in the format read by {@link GraphSnapshot}
+ * <p>
+ * Each node is written after its children so its children's offsets are known
+ * when it is written. Type and property names are written once to a string
+ * table at the end of the file and referenced by index. Map keys which are
+ * values are written as value nodes so the key can be rebuilt and looked up
+ * in the actual map, any other keys are written to the string table as their
+ * {@link String#valueOf(Object)} form, which must be unique within the map.
+ * A bean, list, or map which appears more than once in the graph is written
+ * once and referenced by its offset, and a reference back to a node which is
+ * still being written, i.e. a cycle, is written as {@link GraphSnapshot#REF}
+ * followed by the offset of the node it refers to. As nodes are written
+ * children first the offset is not known until the node is complete, so it
+ * is filled in once the rest of the snapshot has been written. The graph is
+ * walked with an explicit stack of the beans, lists, and maps whose children
+ * are part way through being written, so the depth of graph which can be
+ * recorded is not limited by the size of the thread's stack.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+final class SnapshotWriter {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final Integer IN_PROGRESS = -1;
+	private static final int PENDING = -1;
+	private static final Map<Class<?>, Byte> VALUE_TAGS = new HashMap<>();
+
+	static {
+		VALUE_TAGS.put(String.class, GraphSnapshot.STRING);
+		VALUE_TAGS.put(Boolean.class, GraphSnapshot.BOOLEAN);
+		VALUE_TAGS.put(Byte.class, GraphSnapshot.BYTE);
+		VALUE_TAGS.put(Short.class, GraphSnapshot.SHORT);
+		VALUE_TAGS.put(Integer.class, GraphSnapshot.INT);
+		VALUE_TAGS.put(Long.class, GraphSnapshot.LONG);
+		VALUE_TAGS.put(Float.class, GraphSnapshot.FLOAT);
+		VALUE_TAGS.put(Double.class, GraphSnapshot.DOUBLE);
+		VALUE_TAGS.put(Character.class, GraphSnapshot.CHAR);
+		VALUE_TAGS.put(BigDecimal.class, GraphSnapshot.BIG_DECIMAL);
+		VALUE_TAGS.put(BigInteger.class, GraphSnapshot.BIG_INTEGER);
+	}
+
+	static void write(final Object graph, final String name, final PropertyType propertyTypes, final File file) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			new SnapshotWriter(channel, propertyTypes).write(graph, name);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to write '" + file + "'. Error '" + e.getMessage() + "'", e);
+		}
+	}
+
+	private final FileChannel channel;
+	private final PropertyType propertyTypes;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	private final Map<Object, Integer> written = new IdentityHashMap<>();
+	private final Map<Integer, Object> cycles = new HashMap<>();
+	private long position;
+
+	private SnapshotWriter(final FileChannel channel, final PropertyType propertyTypes) {
+		this.channel = channel;
+		this.propertyTypes = propertyTypes;
+	}
+
+	private void write(final Object graph, final String name) throws IOException {
+		position = GraphSnapshot.HEADER_SIZE;
+		channel.position(GraphSnapshot.HEADER_SIZE);
+		int root = writeGraph(graph, NodePath.root(name));
+		int nameIndex = indexOf(name);
+		int stringTable = writeStringTable();
+		flush();
+		writeCycleTargets();
+		ByteBuffer header = ByteBuffer.allocate(GraphSnapshot.HEADER_SIZE);
+		header.putInt(GraphSnapshot.MAGIC).putInt(stringTable).putInt(root).putInt(nameIndex)
+				.put((byte) propertyTypes.ordinal()).flip();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+	}
+
+	/**
+	 * Write the graph, children first, and return the offset of its root
+	 */
+	private int writeGraph(final Object graph, final NodePath path) throws IOException {
+		Deque<Frame> stack = new ArrayDeque<>();
+		int root = writeNode(graph, path, stack);
+		while (!stack.isEmpty()) {
+			Frame frame = stack.peek();
+			if (frame.hasNext()) {
+				int child = writeNode(frame.child(), frame.childPath(), stack);
+				if (child != PENDING) {
+					frame.written(child);
+				}
+			} else {
+				stack.pop();
+				int offset = frame.write();
+				written.put(frame.value, offset);
+				if (stack.isEmpty()) {
+					root = offset;
+				} else {
+					stack.peek().written(offset);
+				}
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Write a node whose offset is known straight away, i.e. a value, an
+	 * array, or a node already written, and return its offset. For a bean,
+	 * list, or map push a frame to write its children and return
+	 * {@link #PENDING}.
+	 */
+	@SuppressWarnings("rawtypes")
+	private int writeNode(final Object value, final NodePath path, final Deque<Frame> stack) throws IOException {
+		if (isValue(value)) {
+			return writeValue(value, path);
+		} else if (value.getClass().isArray()) {
+			return writeArray(value, path);
+		}
+		Integer existing = written.get(value);
+		if (IN_PROGRESS.equals(existing)) {
+			int offset = offset();
+			putByte(GraphSnapshot.REF);
+			putInt(IN_PROGRESS);
+			cycles.put(offset, value);
+			return offset;
+		} else if (existing != null) {
+			return existing;
+		}
+		if (value instanceof Collection) {
+			stack.push(new CollectionFrame((Collection) value, path));
+		} else if (value instanceof Map) {
+			stack.push(new MapFrame((Map) value, path));
+		} else if (value.getClass().getPackage() != null
+				&& value.getClass().getPackage().getName().startsWith("java.lang")) {
+			throw new IllegalArgumentException("Unable to record path '" + path + "' of type '"
+					+ value.getClass().getName() + "' in a snapshot");
+		} else {
+			stack.push(new BeanFrame(value, path));
+		}
+		written.put(value, IN_PROGRESS);
+		return PENDING;
+	}
+
+	/**
+	 * Return <code>true</code> if the value is recorded as a value rather than
+	 * as a bean, list, or map
+	 */
+	private static boolean isValue(final Object value) {
+		return value == null || VALUE_TAGS.containsKey(value.getClass()) || value instanceof Date
+				|| value instanceof Class || value instanceof Enum;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private int writeValue(final Object value, final NodePath path) throws IOException {
+		int offset = offset();
+		if (value == null) {
+			putByte(GraphSnapshot.NULL);
+			return offset;
+		}
+		Byte tag = VALUE_TAGS.get(value.getClass());
+		if (tag != null) {
+			putByte(tag);
+			switch (tag) {
+			case GraphSnapshot.BOOLEAN:
+				putByte((byte) (((Boolean) value) ? 1 : 0));
+				break;
+			case GraphSnapshot.BYTE:
+				putByte((Byte) value);
+				break;
+			case GraphSnapshot.SHORT:
+				ensure(2).putShort((Short) value);
+				position += 2;
+				break;
+			case GraphSnapshot.CHAR:
+				ensure(2).putChar((Character) value);
+				position += 2;
+				break;
+			case GraphSnapshot.INT:
+				putInt((Integer) value);
+				break;
+			case GraphSnapshot.LONG:
+				putLong((Long) value);
+				break;
+			case GraphSnapshot.FLOAT:
+				ensure(4).putFloat((Float) value);
+				position += 4;
+				break;
+			case GraphSnapshot.DOUBLE:
+				ensure(8).putDouble((Double) value);
+				position += 8;
+				break;
+			default:
+				putString(value.toString());
+			}
+		} else if (value instanceof Date) {
+			putByte(GraphSnapshot.DATE);
+			putInt(indexOf(value.getClass().getName()));
+			putLong(((Date) value).getTime());
+		} else if (value instanceof Class) {
+			putByte(GraphSnapshot.CLASS);
+			putInt(indexOf(((Class) value).getName()));
+		} else if (value instanceof Enum) {
+			putByte(GraphSnapshot.ENUM);
+			putInt(indexOf(((Enum) value).getDeclaringClass().getName()));
+			putInt(indexOf(((Enum) value).name()));
+		} else {
+			throw new IllegalArgumentException("Unable to record path '" + path + "' of type '"
+					+ value.getClass().getName() + "' in a snapshot as a value");
+		}
+		return offset;
+	}
+
+	private int writeArray(final Object array, final NodePath path) throws IOException {
+		int offset = offset(), length = Array.getLength(array);
+		putByte(GraphSnapshot.ARRAY);
+		putInt(indexOf(array.getClass().getName()));
+		putInt(length);
+		for (int i = 0; i < length; ++i) {
+			writeValue(Array.get(array, i), path.index(i));
+		}
+		return offset;
+	}
+
+	/**
+	 * A bean, list, or map whose children are part way through being written.
+	 * The node itself is written once all of its children have been, so the
+	 * offsets of its children are known.
+	 */
+	private abstract class Frame {
+
+		protected final Object value;
+		protected final NodePath path;
+		protected final int[] children;
+		protected int index = 0;
+
+		protected Frame(final Object value, final NodePath path, final int size) {
+			this.value = value;
+			this.path = path;
+			this.children = new int[size];
+		}
+
+		boolean hasNext() {
+			return index < children.length;
+		}
+
+		/**
+		 * Return the next child to write
+		 */
+		abstract Object child();
+
+		/**
+		 * Return the path of the next child to write
+		 */
+		abstract NodePath childPath();
+
+		/**
+		 * Record the offset of the next child once it has been written
+		 */
+		void written(final int offset) {
+			children[index++] = offset;
+		}
+
+		/**
+		 * Write the node once all of its children have been written and return
+		 * its offset
+		 */
+		abstract int write() throws IOException;
+	}
+
+	private class BeanFrame extends Frame {
+
+		private final List<? extends AbstractProperty> properties;
+
+		private BeanFrame(final Object bean, final NodePath path) {
+			this(bean, path, propertiesOf(bean.getClass(), propertyTypes));
+		}
+
+		private BeanFrame(final Object bean, final NodePath path, final List<? extends AbstractProperty> properties) {
+			super(bean, path, properties.size());
+			this.properties = properties;
+		}
+
+		@Override
+		Object child() {
+			return valueOf(properties.get(index), value);
+		}
+
+		@Override
+		NodePath childPath() {
+			return path.property(properties.get(index).getName());
+		}
+
+		@Override
+		int write() throws IOException {
+			int offset = offset();
+			putByte(GraphSnapshot.BEAN);
+			putInt(indexOf(value.getClass().getName()));
+			putInt(children.length);
+			for (int i = 0; i < children.length; ++i) {
+				putInt(indexOf(properties.get(i).getName()));
+				putInt(children[i]);
+			}
+			return offset;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class CollectionFrame extends Frame {
+
+		private final boolean naturalOrder;
+		private final List list;
+
+		private CollectionFrame(final Collection collection, final NodePath path) {
+			this(collection, path, !collection.isEmpty() && collection.iterator().next() instanceof Comparable);
+		}
+
+		private CollectionFrame(final Collection collection, final NodePath path, final boolean naturalOrder) {
+			this(collection, path, naturalOrder, sortedCopy(collection, naturalOrder, path));
+		}
+
+		private CollectionFrame(final Collection collection, final NodePath path, final boolean naturalOrder,
+				final List list) {
+			super(collection, path, list.size());
+			this.naturalOrder = naturalOrder;
+			this.list = list;
+		}
+
+		@Override
+		Object child() {
+			return list.get(index);
+		}
+
+		@Override
+		NodePath childPath() {
+			return path.index(index);
+		}
+
+		@Override
+		int write() throws IOException {
+			int offset = offset();
+			putByte(GraphSnapshot.LIST);
+			putInt(indexOf(value.getClass().getName()));
+			putByte((byte) (naturalOrder ? 1 : 0));
+			putInt(children.length);
+			for (int child : children) {
+				putInt(child);
+			}
+			return offset;
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private class MapFrame extends Frame {
+
+		private final boolean keysByString;
+		private final Object[] keys, values;
+		private final int[] keyOffsets;
+
+		private MapFrame(final Map map, final NodePath path) throws IOException {
+			super(map, path, map.size());
+			boolean keysByString = false;
+			for (Object key : map.keySet()) {
+				keysByString |= !isValue(key);
+			}
+			this.keysByString = keysByString;
+			this.keys = new Object[map.size()];
+			this.values = new Object[map.size()];
+			this.keyOffsets = new int[map.size()];
+			Map<String, Object> keysByName = new HashMap<>();
+			int i = 0;
+			for (Object entry : map.entrySet()) {
+				Object key = ((Map.Entry) entry).getKey();
+				if (keysByString) {
+					Object existing = keysByName.put(String.valueOf(key), key);
+					if (existing != null) {
+						throw new IllegalArgumentException("Unable to record path '" + path
+								+ "' in a snapshot. Keys '" + existing + "' and '" + key
+								+ "' have the same string form");
+					}
+					keyOffsets[i] = indexOf(String.valueOf(key));
+				} else {
+					keyOffsets[i] = writeValue(key, path);
+				}
+				keys[i] = key;
+				values[i++] = ((Map.Entry) entry).getValue();
+			}
+		}
+
+		@Override
+		Object child() {
+			return values[index];
+		}
+
+		@Override
+		NodePath childPath() {
+			return path.index(keys[index]);
+		}
+
+		@Override
+		int write() throws IOException {
+			int offset = offset();
+			putByte(GraphSnapshot.MAP);
+			putInt(indexOf(value.getClass().getName()));
+			putByte((byte) (keysByString ? 1 : 0));
+			putInt(children.length);
+			for (int i = 0; i < children.length; ++i) {
+				putInt(keyOffsets[i]);
+				putInt(children[i]);
+			}
+			return offset;
+		}
+	}
+
+	/**
+	 * Write the string table, a count followed by the offset of each string
+	 * and then the strings, and return its offset
+	 */
+	private int writeStringTable() throws IOException {
+		int offset = offset();
+		List<byte[]> encoded = new ArrayList<>(strings.size());
+		for (String string : strings) {
+			encoded.add(string.getBytes(StandardCharsets.UTF_8));
+		}
+		putInt(encoded.size());
+		long next = position + 4L * encoded.size();
+		for (byte[] bytes : encoded) {
+			putInt((int) next);
+			next += 4 + bytes.length;
+		}
+		for (byte[] bytes : encoded) {
+			putBytes(bytes);
+		}
+		return offset;
+	}
+
+	private int indexOf(final String string) {
+		Integer index = stringIndexes.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.add(string);
+			stringIndexes.put(string, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Return the current offset, which must be addressable by the int offsets
+	 * used in the snapshot
+	 */
+	private int offset() {
+		if (position > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Unable to record a snapshot larger than 2GB");
+		}
+		return (int) position;
+	}
+
+	private void putByte(final byte value) throws IOException {
+		ensure(1).put(value);
+		++position;
+	}
+
+	private void putInt(final int value) throws IOException {
+		ensure(4).putInt(value);
+		position += 4;
+	}
+
+	private void putLong(final long value) throws IOException {
+		ensure(8).putLong(value);
+		position += 8;
+	}
+
+	private void putString(final String value) throws IOException {
+		putBytes(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void putBytes(final byte[] bytes) throws IOException {
+		putInt(bytes.length);
+		for (int from = 0; from < bytes.length;) {
+			int length = Math.min(bytes.length - from, ensure(1).remaining());
+			buffer.put(bytes, from, length);
+			from += length;
+		}
+		position += bytes.length;
+	}
+
+	private ByteBuffer ensure(final int size) throws IOException {
+		if (buffer.remaining() < size) {
+			flush();
+		}
+		return buffer;
+	}
+
+	/**
+	 * Fill in the offset of the node each cycle refers to, now that every
+	 * node has been written
+	 */
+	private void writeCycleTargets() throws IOException {
+		ByteBuffer target = ByteBuffer.allocate(4);
+		for (Map.Entry<Integer, Object> cycle : cycles.entrySet()) {
+			target.clear();
+			target.putInt(written.get(cycle.getValue())).flip();
+			while (target.hasRemaining()) {
+				channel.write(target, cycle.getKey() + 1 + target.position());
+			}
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
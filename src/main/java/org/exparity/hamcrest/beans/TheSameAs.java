@@ -1,43 +1,14 @@
 package org.exparity.hamcrest.beans;
 
-import static org.apache.commons.lang.StringUtils.substringAfterLast;
-import static org.exparity.beans.Type.type;
-
-import java.lang.reflect.Array;
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-
-import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.SystemUtils;
-import org.apache.commons.lang.builder.CompareToBuilder;
-import org.apache.commons.lang.builder.EqualsBuilder;
-import org.apache.commons.lang.builder.HashCodeBuilder;
-import org.exparity.beans.Type;
-import org.exparity.beans.core.ImmutableTypeProperty;
-import org.exparity.beans.core.TypeProperty;
-import org.exparity.beans.core.naming.CapitalizedNamingStrategy;
-import org.exparity.hamcrest.beans.comparators.Excluded;
-import org.exparity.hamcrest.beans.comparators.Matches;
-import org.exparity.hamcrest.beans.comparators.IsComparable;
-import org.exparity.hamcrest.beans.comparators.IsEqual;
-import org.exparity.hamcrest.beans.comparators.IsEqualTimestamp;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 import org.hamcrest.Description;
 import org.hamcrest.Factory;
 import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of a {@link Matcher} for performing a deep comparison of two
@@ -49,6 +20,16 @@ import org.slf4j.LoggerFactory;
  * will be used, or alternatively one will built using
  * {@link org.apache.commons.lang.builder.CompareToBuilder#reflectionCompare(Object, Object)}
  * </p>
+ * <p>
+ * By default the comparison runs on the calling thread. Large graphs can be
+ * compared on a fork/join pool by calling {@link #inParallel()}, see the
+ * method for details.
+ * </p>
+ * <p>
+ * The matcher is immutable. Each exclusion or override returns a new matcher
+ * and leaves the original unchanged, so a configured matcher can be held in a
+ * static constant and shared by tests running on many threads.
+ * </p>
  * 
  * @author Stewart Bissett
  */
@@ -162,7 +143,26 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 		return new TheSameAs<T>(object, name, PropertyType.BEAN);
 	}
 
-	private static final Logger LOG = LoggerFactory.getLogger(TheSameAs.class);
+	/**
+	 * Creates a matcher that matches the full object graph for the given
+	 * instance against another instance using a shared configuration
+	 * <p/>
+	 * For example:
+	 * 
+	 * <pre>
+	 * static final ComparisonConfiguration IGNORE_IDS = ComparisonConfiguration.DEFAULTS.excludeProperty(&quot;Id&quot;);
+	 * assertThat(dao.getById(instance.getId()), theSameAs(instance, IGNORE_IDS));
+	 * </pre>
+	 * 
+	 * @param object
+	 *            the instance to match against
+	 * @param configuration
+	 *            the exclusions and comparators to apply
+	 */
+	@Factory
+	public static <T> TheSameAs<T> theSameAs(final T object, final ComparisonConfiguration configuration) {
+		return new TheSameAs<T>(object, object.getClass().getSimpleName(), configuration);
+	}
 
 	/**
 	 * Interface to be implemented by classes which can compare two property
@@ -177,21 +177,70 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 		public boolean matches(final T lhs, final T rhs);
 	}
 
-	@SuppressWarnings("rawtypes")
-	private static Comparator DEFAULT_COMPARATOR = new Comparator() {
+	/**
+	 * Interface to be implemented by {@link PropertyComparator}s which can be
+	 * used when computing a {@link BeanDigest}. The digest of a property
+	 * compared by the comparator is computed from its digest value rather than
+	 * the property value itself.
+	 */
+	public interface DigestComparator<T> extends PropertyComparator<T> {
+
+		/**
+		 * Return a value which is equal for any two non-null values this
+		 * comparator matches e.g. the start of the day for a comparator which
+		 * ignores the time
+		 */
+		public Object digestValue(final T value);
+	}
 
-		public int compare(final Object o1, final Object o2) {
-			return CompareToBuilder.reflectionCompare(o1, o2);
+	/**
+	 * Interface to be implemented by {@link PropertyComparator}s which compare
+	 * numbers as doubles. A property with a primitive numeric getter is read
+	 * and compared without being boxed.
+	 */
+	public interface DoublePropertyComparator extends PropertyComparator<Number> {
+
+		/**
+		 * Return <code>true</code> if the actual value matches the expected
+		 * value
+		 */
+		public boolean matches(final double lhs, final double rhs);
+
+		@Override
+		public default boolean matches(final Number lhs, final Number rhs) {
+			return lhs == null ? rhs == null : rhs != null && matches(lhs.doubleValue(), rhs.doubleValue());
 		}
-	};
+	}
 
-	private final Map<String, PropertyComparator<?>> paths = new HashMap<>();
-	private final Map<String, PropertyComparator<?>> properties = new HashMap<>();
-	private final Map<Class<?>, PropertyComparator<?>> types = new HashMap<>();
+	/**
+	 * Interface to be implemented by {@link PropertyComparator}s which compare
+	 * whole numbers as longs. A property with a primitive integral getter is
+	 * read and compared without being boxed.
+	 */
+	public interface LongPropertyComparator extends PropertyComparator<Number> {
+
+		/**
+		 * Return <code>true</code> if the actual value matches the expected
+		 * value
+		 */
+		public boolean matches(final long lhs, final long rhs);
+
+		@Override
+		public default boolean matches(final Number lhs, final Number rhs) {
+			return lhs == null ? rhs == null : rhs != null && matches(lhs.longValue(), rhs.longValue());
+		}
+	}
+
+	/**
+	 * The default number of collection elements or bean properties which must
+	 * be present before the comparison is split into parallel tasks
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
 
 	private final T object;
 	private final String name;
-	private final PropertyType propertyTypes;
+	private final ComparisonConfiguration configuration;
+	private final File report;
 
 	public TheSameAs(final T object) {
 		this(object, PropertyType.BEAN);
@@ -202,18 +251,19 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	}
 
 	public TheSameAs(final T object, final String name, final PropertyType propertyTypes) {
-		this.types.put(BigDecimal.class, new IsComparable<BigDecimal>());
-		this.types.put(String.class, new IsEqual<String>());
-		this.types.put(Integer.class, new IsEqual<Integer>());
-		this.types.put(Long.class, new IsEqual<Long>());
-		this.types.put(Double.class, new IsEqual<Double>());
-		this.types.put(Float.class, new IsEqual<Float>());
-		this.types.put(Character.class, new IsEqual<Character>());
-		this.types.put(Date.class, new IsEqualTimestamp());
-		this.types.put(Class.class, new Excluded<Class<?>>());
+		this(object, name, ComparisonConfiguration.defaults(propertyTypes));
+	}
+
+	public TheSameAs(final T object, final String name, final ComparisonConfiguration configuration) {
+		this(object, name, configuration, null);
+	}
+
+	private TheSameAs(final T object, final String name, final ComparisonConfiguration configuration,
+			final File report) {
 		this.object = object;
 		this.name = name;
-		this.propertyTypes = propertyTypes;
+		this.configuration = configuration;
+		this.report = report;
 	}
 
 	/**
@@ -238,11 +288,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 * 
 	 * @param property
 	 *            the path to exclude from the comparison e.g Person.LastName
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public TheSameAs<T> excludePath(final String path) {
-		this.paths.put(path.toLowerCase(), new Excluded<Object>());
-		return this;
+		return new TheSameAs<T>(object, name, configuration.excludePath(path), report);
 	}
 
 	/**
@@ -267,11 +316,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 * 
 	 * @param property
 	 *            the property to exclude from the comparison e.g LastName
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public TheSameAs<T> excludeProperty(final String property) {
-		this.properties.put(property.toLowerCase(), new Excluded<Object>());
-		return this;
+		return new TheSameAs<T>(object, name, configuration.excludeProperty(property), report);
 	}
 
 	/**
@@ -296,11 +344,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 * 
 	 * @param type
 	 *            the type to exclude from the comparison e.g String.class
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public TheSameAs<T> excludeType(final Class<?> type) {
-		this.types.put(type, new Excluded<Object>());
-		return this;
+		return new TheSameAs<T>(object, name, configuration.excludeType(type), report);
 	}
 
 	/**
@@ -325,11 +372,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 * 
 	 * @param property
 	 *            the property to exclude from the comparison e.g LastName
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public TheSameAs<T> comparePath(final String path, final PropertyComparator<?> comparator) {
-		this.paths.put(path.toLowerCase(), comparator);
-		return this;
+		return new TheSameAs<T>(object, name, configuration.comparePath(path, comparator), report);
 	}
 
 	/**
@@ -356,11 +402,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 *            the path to set the comparator for
 	 * @param comparator
 	 *            the comparator to use
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public TheSameAs<T> compareProperty(final String path, final PropertyComparator<?> comparator) {
-		this.properties.put(path.toLowerCase(), comparator);
-		return this;
+		return new TheSameAs<T>(object, name, configuration.compareProperty(path, comparator), report);
 	}
 
 	/**
@@ -387,11 +432,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 *            the type to set the comparator for
 	 * @param comparator
 	 *            the comparator to use
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
-	public <P> TheSameAs<T> compareType(final Class<P> type, final PropertyComparator<P> comparator) {
-		this.types.put(type, comparator);
-		return this;
+	public <P> TheSameAs<T> compareType(final Class<P> type, final PropertyComparator<? super P> comparator) {
+		return new TheSameAs<T>(object, name, configuration.compareType(type, comparator), report);
 	}
 
 	/**
@@ -417,11 +461,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 * 
 	 * @param property
 	 *            the property to exclude from the comparison e.g LastName
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public <P> TheSameAs<T> comparePath(final String path, final Matcher<P> matcher) {
-		this.paths.put(path.toLowerCase(), new Matches<P>(matcher));
-		return this;
+		return new TheSameAs<T>(object, name, configuration.comparePath(path, matcher), report);
 	}
 
 	/**
@@ -449,11 +492,10 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 *            the path to set the comparator for
 	 * @param matcher
 	 *            the matcher to use
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public <P> TheSameAs<T> compareProperty(final String path, final Matcher<P> matcher) {
-		this.properties.put(path.toLowerCase(), new Matches<P>(matcher));
-		return this;
+		return new TheSameAs<T>(object, name, configuration.compareProperty(path, matcher), report);
 	}
 
 	/**
@@ -481,287 +523,278 @@ public class TheSameAs<T> extends TypeSafeDiagnosingMatcher<T> {
 	 *            the type to set the comparator for
 	 * @param matcher
 	 *            the matcher to use
-	 * @return the current matcher
+	 * @return a copy of the matcher with the change applied
 	 */
 	public <P> TheSameAs<T> compareType(final Class<P> type, final Matcher<P> matcher) {
-		this.types.put(type, new Matches<P>(matcher));
-		return this;
+		return new TheSameAs<T>(object, name, configuration.compareType(type, matcher), report);
 	}
 
-	@Override
-	protected boolean matchesSafely(final T item, final Description mismatchDesc) {
-		MismatchContext context = new MismatchContext(mismatchDesc);
-		compareObjects(object, item, name, context);
-		return context.areSame();
+	/**
+	 * Compare large graphs in parallel using the default threshold of
+	 * {@value #DEFAULT_PARALLEL_THRESHOLD}. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; expected = dao.findAll();
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).inParallel());
+	 * </pre>
+	 * 
+	 * @see #inParallel(int)
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> inParallel() {
+		return inParallel(DEFAULT_PARALLEL_THRESHOLD);
 	}
 
-	public void describeTo(final Description description) {
-		description.appendText("the same as ").appendValue(object);
+	/**
+	 * Compare large graphs in parallel. Any list, collection, or bean with more
+	 * elements or properties than the threshold is split into fork/join tasks
+	 * of at most threshold items. Smaller graphs stay on the calling thread.
+	 * </p>
+	 * <p>
+	 * Mismatches are reported in traversal order so the description is the
+	 * same as a sequential comparison. The exception is an instance shared by
+	 * more than one branch of the graph, which is compared once and reported
+	 * against whichever path reached it first.
+	 * </p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; expected = dao.findAll();
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).inParallel(1000));
+	 * </pre>
+	 * 
+	 * @param threshold
+	 *            the number of elements or properties above which the
+	 *            comparison is split
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> inParallel(final int threshold) {
+		return new TheSameAs<T>(object, name, configuration.inParallel(threshold), report);
 	}
 
-	@SuppressWarnings("rawtypes")
-	private void compareObjects(final Object expected, final Object actual, final String path,
-			final MismatchContext ctx) {
-
-		LOG.trace("Compare [{}] vs [{}] at [{}]", new Object[] { expected, actual, path });
-
-		String pathNoIndexes = path.replaceAll("\\[\\w*\\]\\.", ".").toLowerCase();
-		String propertyName = StringUtils.contains(path, ".") ? substringAfterLast(pathNoIndexes, ".") : pathNoIndexes;
-
-		if (expected != null && actual != null) {
-			if (ctx.hasComparedPair(expected, actual)) {
-				LOG.trace("Already compared [{}] vs [{}]", expected, actual);
-				return;
-			} else {
-				ctx.addComparedPair(expected, actual);
-			}
-		} else if (expected == null && actual == null) {
-			return;
-		}
-
-		LOG.trace("Check override for path [{}]", pathNoIndexes);
-		PropertyComparator pathComparator = paths.get(pathNoIndexes);
-		if (pathComparator != null) {
-			compareUsingPropertyComparator(expected, actual, path, pathComparator, ctx);
-			return;
-		}
-
-		LOG.trace("Check override for property [{}]", propertyName);
-		PropertyComparator propertyComparator = getPropertyComparator(propertyName);
-		if (propertyComparator != null) {
-			compareUsingPropertyComparator(expected, actual, path, propertyComparator, ctx);
-			return;
-		}
-
-		final Class<? extends Object> klass = expected != null ? expected.getClass() : actual.getClass();
-		LOG.trace("Check override for type [{}]", klass);
-		for (Entry<Class<?>, PropertyComparator<?>> entry : types.entrySet()) {
-			if (entry.getKey().isAssignableFrom(klass)) {
-				compareUsingPropertyComparator(expected, actual, path, entry.getValue(), ctx);
-				return;
-			}
-		}
-
-		if (expected != null && actual == null || expected == null && actual != null) {
-			ctx.addMismatch(expected, actual, path);
-			return;
-		}
-
-		final Type type = type(klass, new CapitalizedNamingStrategy());
-		if (type.isArray()) {
-			compareArrays(expected, actual, path, ctx);
-		} else if (type.isEnum()) {
-			compareEnums(expected, actual, path, ctx);
-		} else if (type.packageName().startsWith("java.lang")) {
-			compareLangTypes(expected, actual, path, ctx);
-		} else if (type.is(List.class)) {
-			compareLists((List) expected, (List) actual, path, ctx);
-		} else if (type.is(Collection.class)) {
-			compareCollections((Collection) expected, (Collection) actual, path, ctx);
-		} else if (type.is(Map.class)) {
-			compareMaps((Map) expected, (Map) actual, path, ctx);
-		} else {
-			if (PropertyType.ALL_GETTERS.equals(this.propertyTypes)) {
-				for (ImmutableTypeProperty property : type.accessorList()) {
-					compareObjects(property.getValue(expected), property.getValue(actual),
-							path + getDotIfRequired(path) + property.getName(), ctx);
-				}
-			} else {
-				for (TypeProperty property : type.propertyList()) {
-					compareObjects(property.getValue(expected), property.getValue(actual),
-							path + getDotIfRequired(path) + property.getName(), ctx);
-				}
-			}
-		}
+	/**
+	 * Count the work done by the comparison, the nodes visited, getters and
+	 * comparators called, and lists sorted, in the metrics. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * ComparisonMetrics metrics = new ComparisonMetrics();
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).collectMetrics(metrics));
+	 * </pre>
+	 * <p>
+	 * A mismatch which is described is counted twice, once to match and once
+	 * to describe it.
+	 * </p>
+	 * 
+	 * @see ComparisonMetrics
+	 * @param metrics
+	 *            the metrics to count the comparison in
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> collectMetrics(final ComparisonMetrics metrics) {
+		return new TheSameAs<T>(object, name, configuration.collectMetrics(metrics), report);
 	}
 
-	private PropertyComparator<?> getPropertyComparator(final String propertyName) {
-		return properties.get(propertyName);
+	/**
+	 * Report how each node is compared to the listener, for example to find
+	 * out why a path was compared the way it was. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).traceWith(new LoggingTraversalListener()));
+	 * </pre>
+	 * 
+	 * @see TraversalListener
+	 * @param tracer
+	 *            the listener to report the traversal to
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> traceWith(final TraversalListener tracer) {
+		return new TheSameAs<T>(object, name, configuration.traceWith(tracer), report);
 	}
 
-	private void compareArrays(final Object expected, final Object actual, final String path,
-			final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] as array", path);
-		try {
-			int expectedLength = Array.getLength(expected), actualLength = Array.getLength(actual);
-			if (expectedLength != actualLength) {
-				ctx.addMismatch(expectedLength, actualLength, path + getDotIfRequired(path) + "size");
-			} else {
-				for (int i = 0; i < expectedLength; ++i) {
-					Object expectedValue = Array.get(expected, i), actualValue = Array.get(actual, i);
-					if (expectedValue == null) {
-						if (actualValue != null) {
-							ctx.addMismatch(expected, actual, path + getDotIfRequired(path));
-						}
-					} else if (!expectedValue.equals(actualValue)) {
-						ctx.addMismatch(expected, actual, path + getDotIfRequired(path));
-					}
-				}
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
-		}
+	/**
+	 * Skip lazy associations which are not loaded rather than load them to
+	 * compare them, so comparing an entity read from an ORM does not load the
+	 * graph behind it one association at a time. Proxies are compared as the
+	 * class they were generated for. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dao.getById(instance.getId()), BeanMatchers.theSameAs(instance).skipUnloaded(new ProxyLoadStateProbe()));
+	 * </pre>
+	 * 
+	 * @see LoadStateProbe
+	 * @param probe
+	 *            the probe which tells which values are loaded
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> skipUnloaded(final LoadStateProbe probe) {
+		return new TheSameAs<T>(object, name, configuration.skipUnloaded(probe), report);
 	}
 
-	private void compareEnums(final Object expected, final Object actual, final String path,
-							  final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] as enum", path);
-		if (actual != expected) {
-			ctx.addMismatch(expected, actual, path);
-		}
+	/**
+	 * Compare lazy associations which are not loaded by their identifiers
+	 * rather than load them to compare them. An association is skipped if the
+	 * probe does not know the identifier on both sides. Proxies are compared
+	 * as the class they were generated for. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dao.getById(instance.getId()), BeanMatchers.theSameAs(instance).compareUnloadedIds(new ProxyLoadStateProbe()));
+	 * </pre>
+	 * 
+	 * @see LoadStateProbe
+	 * @param probe
+	 *            the probe which tells which values are loaded and their
+	 *            identifiers
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> compareUnloadedIds(final LoadStateProbe probe) {
+		return new TheSameAs<T>(object, name, configuration.compareUnloadedIds(probe), report);
 	}
 
-	private void compareLangTypes(final Object expected, final Object actual, final String path,
-			final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] as lang type", path);
-		try {
-			if (!expected.equals(actual)) {
-				ctx.addMismatch(expected, actual, path);
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
-		}
+	/**
+	 * Compare beans, lists, and maps only as deep as the given number of
+	 * levels below the root, where each property, element, and map entry is
+	 * a level. Those deeper are not compared and the match fails with a
+	 * mismatch which names them. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dto, BeanMatchers.theSameAs(expected).maxDepth(20));
+	 * </pre>
+	 * 
+	 * @param maxDepth
+	 *            the number of levels below the root to compare
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> maxDepth(final int maxDepth) {
+		return new TheSameAs<T>(object, name, configuration.maxDepth(maxDepth), report);
 	}
 
-	@SuppressWarnings("rawtypes")
-	private void compareMaps(final Map expected, final Map actual, final String path, final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] as map", path);
-		try {
-			if (expected.size() != actual.size()) {
-				ctx.addMismatch(expected.size(), actual.size(), path + getDotIfRequired(path) + "size");
-			} else {
-				for (Object key : expected.keySet()) {
-					Object expectedValue = expected.get(key), actualValue = actual.get(key);
-					if (actualValue == null) {
-						ctx.addMismatch(expectedValue, null, path + "[" + key + "]");
-					} else {
-						compareObjects(expectedValue, actualValue, path + "[" + key + "]", ctx);
-					}
-				}
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
-		}
+	/**
+	 * Stop the comparison once the given number of nodes have been visited,
+	 * for example to fail fast when a graph refers to far more than it should.
+	 * The match fails with a mismatch which names each bean, list, or map not
+	 * completely compared, along with any differences found before stopping.
+	 * For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dto, BeanMatchers.theSameAs(expected).maxNodes(100000));
+	 * </pre>
+	 * 
+	 * @param maxNodes
+	 *            the number of nodes to visit
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> maxNodes(final long maxNodes) {
+		return new TheSameAs<T>(object, name, configuration.maxNodes(maxNodes), report);
 	}
 
-	private String getDotIfRequired(final String path) {
-		return StringUtils.isNotBlank(path) ? "." : "";
+	/**
+	 * Stop the comparison once it has run for the given time. The match fails
+	 * with a mismatch which names each bean, list, or map not completely
+	 * compared, along with any differences found before stopping. The clock is
+	 * checked as nodes are visited, so a single slow getter or comparator is
+	 * not interrupted. A mismatch which is described is compared again, with
+	 * the same limit. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).timeLimit(5, TimeUnit.SECONDS));
+	 * </pre>
+	 * 
+	 * @param timeLimit
+	 *            the time the comparison may run for
+	 * @param unit
+	 *            the unit of the time limit
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> timeLimit(final long timeLimit, final TimeUnit unit) {
+		return new TheSameAs<T>(object, name, configuration.timeLimit(timeLimit, unit), report);
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void compareCollections(final Collection expected, final Collection actual, final String path,
-			final MismatchContext ctx) {
-		compareLists(new ArrayList(expected), new ArrayList(actual), path, ctx);
+	/**
+	 * Write the differences to a file, as JSON Lines, rather than to the
+	 * mismatch description. The description holds a short summary which points
+	 * to the file. Use this when a comparison may produce so many differences
+	 * that holding them in memory is impractical. For example
+	 * </p>
+	 * 
+	 * <pre>
+	 * List&lt;Person&gt; expected = dao.findAll();
+	 * MatcherAssert.assertThat(dao.findAll(), BeanMatchers.theSameAs(expected).reportTo(new File(&quot;target/person-diff.jsonl&quot;)));
+	 * </pre>
+	 * <p>
+	 * The file is replaced each time the matcher describes a mismatch, so
+	 * matchers used concurrently should report to different files.
+	 * </p>
+	 * 
+	 * @see DifferenceFileWriter
+	 * @param file
+	 *            the file to write the differences to
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameAs<T> reportTo(final File file) {
+		return new TheSameAs<T>(object, name, configuration, file);
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void compareLists(final List expected, final List actual, final String path, final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] as list", path);
-		try {
-			if (expected.isEmpty() && actual.isEmpty()) {
-				return;
-			} else if (expected.size() != actual.size()) {
-				ctx.addMismatch(expected.size(), actual.size(), path + getDotIfRequired(path) + "size");
-			} else {
-				List expectedList = new ArrayList(expected), actualList = new ArrayList(actual);
-				if (expectedList.get(0) instanceof Comparable) {
-					Collections.sort(expectedList);
-					Collections.sort(actualList);
-				} else {
-					try {
-						Collections.sort(expectedList, DEFAULT_COMPARATOR);
-						Collections.sort(actualList, DEFAULT_COMPARATOR);
-					} catch (Exception e) {
-						if (LOG.isDebugEnabled()) {
-							LOG.warn("Unable to sort list at property {}", path, e);
-						} else {
-							LOG.warn("Unable to sort list at property {}", path);
-						}
-					}
-				}
-				int ctr = 0;
-				for (Iterator i = expectedList.iterator(), j = actualList.iterator(); i.hasNext();) {
-					compareObjects(i.next(), j.next(), path + "[" + (ctr++) + "]", ctx);
-				}
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
+	@Override
+	protected boolean matchesSafely(final T item, final Description mismatchDesc) {
+		GraphComparison comparison = new GraphComparison(configuration);
+		if (report == null || mismatchDesc instanceof Description.NullDescription) {
+			return comparison.compare(object, item, name, new DescribeDifferences(mismatchDesc));
 		}
-	}
-
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void compareUsingPropertyComparator(final Object lhs, final Object rhs, final String path,
-			final PropertyComparator comparator, final MismatchContext ctx) {
-		LOG.debug("Compare path [{}] using [{}]", path, comparator.getClass().getSimpleName());
+		DifferenceFileWriter writer = DifferenceFileWriter.open(report);
+		DescribeFirstDifference first = new DescribeFirstDifference(writer);
 		try {
-			if (!comparator.matches(lhs, rhs)) {
-				ctx.addMismatch(lhs, rhs, path);
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Error comparing path '" + path + "'. Error '" + e.getMessage() + "'", e);
-		}
-	}
-
-	private static class Pair {
-
-		private final int lhs, rhs;
-
-		public Pair(final Object lhs, final Object rhs) {
-			this.lhs = System.identityHashCode(lhs);
-			this.rhs = System.identityHashCode(rhs);
-		}
-
-		@Override
-		public boolean equals(final Object o) {
-			if (this == o) {
+			if (comparison.compare(object, item, name, first)) {
 				return true;
 			}
-			if (!(o instanceof Pair)) {
-				return false;
+		} finally {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to write to '" + report + "'. Error '" + e.getMessage() + "'", e);
 			}
-			Pair rhs = (Pair) o;
-			return new EqualsBuilder().append(this.lhs, rhs.lhs).append(this.rhs, rhs.rhs).isEquals();
-		}
-
-		@Override
-		public int hashCode() {
-			return new HashCodeBuilder(35, 67).append(lhs).append(rhs).toHashCode();
 		}
+		mismatchDesc.appendText(writer.getCount() + " differences written to " + report.getAbsolutePath())
+				.appendText(". First difference is ").appendText(first.describe());
+		return false;
 	}
 
-	private static class MismatchContext {
-
-		private final Set<Pair> compared = new HashSet<Pair>();
-		private final Description desc;
-		private boolean same = true;
+	public void describeTo(final Description description) {
+		description.appendText("the same as ").appendValue(object);
+	}
 
-		public MismatchContext(final Description desc) {
-			this.desc = desc;
-		}
+	/**
+	 * Passes each difference to another listener and keeps a description of
+	 * the first
+	 */
+	private static class DescribeFirstDifference implements DifferenceListener {
 
-		public boolean areSame() {
-			return same;
-		}
+		private final DifferenceListener delegate;
+		private final StringDescription first = new StringDescription();
+		private final DescribeDifferences describeFirst = new DescribeDifferences(first);
+		private boolean found = false;
 
-		public void addComparedPair(final Object lhs, final Object rhs) {
-			compared.add(new Pair(lhs, rhs));
+		public DescribeFirstDifference(final DifferenceListener delegate) {
+			this.delegate = delegate;
 		}
 
-		public void addMismatch(final Object expected, final Object actual, final String path) {
-			if (!isFirstMismatch()) {
-				desc.appendText(SystemUtils.LINE_SEPARATOR);
+		@Override
+		public void onDifference(final Difference difference) {
+			if (!found) {
+				describeFirst.onDifference(difference);
+				found = true;
 			}
-			desc.appendText(path).appendText(" is ").appendValue(actual).appendText(" instead of ")
-					.appendValue(expected);
-			same = false;
-		}
-
-		private boolean isFirstMismatch() {
-			return same == true;
+			delegate.onDifference(difference);
 		}
 
-		public boolean hasComparedPair(final Object lhs, final Object rhs) {
-			return compared.contains(new Pair(lhs, rhs));
+		public String describe() {
+			return first.toString();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package org.exparity.hamcrest.beans;
+
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which performs a deep comparison of an
+ * object graph against a {@link GraphSnapshot} previously recorded from the
+ * expected graph. For example
+ *
+ * <pre>
+ * GraphSnapshot snapshot = GraphSnapshot.open(new File(&quot;expected.snapshot&quot;));
+ * assertThat(actual, theSameAsSnapshot(snapshot));
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public class TheSameAsSnapshot<T> extends TypeSafeDiagnosingMatcher<T> {
+
+	/**
+	 * Create a matcher which compares against the snapshot using the default
+	 * comparators
+	 */
+	@Factory
+	public static <T> TheSameAsSnapshot<T> theSameAsSnapshot(final GraphSnapshot snapshot) {
+		return new TheSameAsSnapshot<T>(snapshot, ComparisonConfiguration.defaults(snapshot.propertyTypes()));
+	}
+
+	/**
+	 * Create a matcher which compares against the snapshot using the overrides
+	 * in the configuration
+	 */
+	@Factory
+	public static <T> TheSameAsSnapshot<T> theSameAsSnapshot(final GraphSnapshot snapshot,
+			final ComparisonConfiguration configuration) {
+		return new TheSameAsSnapshot<T>(snapshot, configuration);
+	}
+
+	private final GraphSnapshot snapshot;
+	private final ComparisonConfiguration configuration;
+
+	public TheSameAsSnapshot(final GraphSnapshot snapshot, final ComparisonConfiguration configuration) {
+		this.snapshot = snapshot;
+		this.configuration = configuration;
+	}
+
+	@Override
+	protected boolean matchesSafely(final T item, final Description mismatchDesc) {
+		return snapshot.compare(item, configuration, new DescribeDifferences(mismatchDesc));
+	}
+
+	public void describeTo(final Description description) {
+		description.appendText("the same as the snapshot ").appendValue(snapshot.getName()).appendText(" in ")
+				.appendValue(snapshot.getFile());
+	}
+}
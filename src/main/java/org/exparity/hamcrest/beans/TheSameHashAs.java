@@ -0,0 +1,83 @@
+package org.exparity.hamcrest.beans;
+
+import org.apache.commons.lang.SystemUtils;
+import org.hamcrest.Description;
+import org.hamcrest.Factory;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Implementation of a {@link Matcher} which checks an object graph has the
+ * same {@link BeanDigest} as a stored digest. For example
+ *
+ * <pre>
+ * assertThat(report.generate(), theSameHashAs(BeanDigest.valueOf(&quot;6c1b07bc7bbc4be347939ac4a93c437a&quot;)));
+ * </pre>
+ * <p>
+ * A digest only shows whether a graph has changed. If the expected graph is
+ * available it can be supplied with {@link #orTheSameAs(Object)} and is then
+ * compared to the actual graph to describe the differences on a mismatch.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class TheSameHashAs<T> extends TypeSafeDiagnosingMatcher<T> {
+
+	/**
+	 * Create a matcher which compares the digest computed with the default
+	 * comparators
+	 */
+	@Factory
+	public static <T> TheSameHashAs<T> theSameHashAs(final BeanDigest digest) {
+		return new TheSameHashAs<T>(digest, ComparisonConfiguration.DEFAULTS, null);
+	}
+
+	/**
+	 * Create a matcher which compares the digest computed with the exclusions
+	 * and comparators in the configuration
+	 */
+	@Factory
+	public static <T> TheSameHashAs<T> theSameHashAs(final BeanDigest digest,
+			final ComparisonConfiguration configuration) {
+		return new TheSameHashAs<T>(digest, configuration, null);
+	}
+
+	private final BeanDigest digest;
+	private final ComparisonConfiguration configuration;
+	private final T expected;
+
+	private TheSameHashAs(final BeanDigest digest, final ComparisonConfiguration configuration, final T expected) {
+		this.digest = digest;
+		this.configuration = configuration;
+		this.expected = expected;
+	}
+
+	/**
+	 * Describe the differences from the expected graph when the digest does
+	 * not match
+	 *
+	 * @return a copy of the matcher with the change applied
+	 */
+	public TheSameHashAs<T> orTheSameAs(final T expected) {
+		return new TheSameHashAs<T>(digest, configuration, expected);
+	}
+
+	@Override
+	protected boolean matchesSafely(final T item, final Description mismatchDesc) {
+		BeanDigest actual = BeanDigest.of(item, configuration);
+		if (digest.equals(actual)) {
+			return true;
+		}
+		mismatchDesc.appendText("digest is ").appendValue(actual).appendText(" instead of ").appendValue(digest);
+		if (expected != null && !(mismatchDesc instanceof Description.NullDescription)) {
+			mismatchDesc.appendText(SystemUtils.LINE_SEPARATOR);
+			new GraphComparison(configuration).compare(expected, item, expected.getClass().getSimpleName(),
+					new DescribeDifferences(mismatchDesc));
+		}
+		return false;
+	}
+
+	public void describeTo(final Description description) {
+		description.appendText("the same hash as ").appendValue(digest);
+	}
+}
@@ -0,0 +1,61 @@
+package org.exparity.hamcrest.beans;
+
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+
+/**
+ * Interface to be implemented by classes which trace how two object graphs
+ * are compared, for example to find out why a path was compared the way it
+ * was. A listener is set on a {@link ComparisonConfiguration} or matcher with
+ * <code>traceWith</code> and is called from the traversal as each node is
+ * reached. Every method does nothing by default, so a listener need only
+ * implement the calls it is interested in. For example
+ *
+ * <pre>
+ * assertThat(actual, theSameAs(expected).traceWith(new TraversalListener() {
+ *
+ * 	public void onNode(final String path, final NodeKind kind) {
+ * 		System.out.println(path + &quot; compared as &quot; + kind);
+ * 	}
+ * }));
+ * </pre>
+ *
+ * Comparisons without a listener make no calls. In a parallel comparison the
+ * listener is called from several threads at once.
+ *
+ * @see LoggingTraversalListener
+ * @author Stewart Bissett
+ */
+public interface TraversalListener {
+
+	/**
+	 * Called when a pair of objects is reached, before they are compared.
+	 * Properties with primitive getters, which are compared without boxing
+	 * their values, and nodes read from a snapshot are only reported to
+	 * {@link #onNode(String, NodeKind)}
+	 */
+	public default void onCompare(final String path, final Object expected, final Object actual) {}
+
+	/**
+	 * Called with the kind of node a pair of objects is compared as
+	 */
+	public default void onNode(final String path, final NodeKind kind) {}
+
+	/**
+	 * Called with the comparator a node of kind {@link NodeKind#COMPARATOR}
+	 * is compared with
+	 */
+	public default void onComparator(final String path, final PropertyComparator<?> comparator) {}
+
+	/**
+	 * Called when the elements or properties at a path are split into
+	 * parallel tasks
+	 */
+	public default void onParallel(final String path, final int size) {}
+
+	/**
+	 * Called when a list or collection cannot be sorted and is compared in
+	 * its original order
+	 */
+	public default void onUnsorted(final String path, final Exception cause) {}
+}
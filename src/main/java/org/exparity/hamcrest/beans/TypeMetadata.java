@@ -0,0 +1,71 @@
+package org.exparity.hamcrest.beans;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.exparity.beans.Type;
+import org.exparity.beans.core.AbstractProperty;
+import org.exparity.beans.core.ImmutableTypeProperty;
+import org.exparity.beans.core.TypeProperty;
+import org.exparity.beans.core.naming.CapitalizedNamingStrategy;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+
+/**
+ * Cache of the type of each class compared and the properties compared for
+ * it, either all of its getters or only its bean properties. The properties of
+ * a class are looked up the first time they are needed and held for as long
+ * as the class is loaded, rather than looked up for every instance compared.
+ *
+ * @author Stewart Bissett
+ */
+final class TypeMetadata {
+
+	private static final ClassValue<TypeMetadata> TYPES = new ClassValue<TypeMetadata>() {
+
+		@Override
+		protected TypeMetadata computeValue(final Class<?> klass) {
+			return new TypeMetadata(Type.type(klass, new CapitalizedNamingStrategy()));
+		}
+	};
+
+	/**
+	 * Return the metadata of the class
+	 */
+	static TypeMetadata of(final Class<?> klass) {
+		return TYPES.get(klass);
+	}
+
+	private final Type type;
+	private volatile List<ImmutableTypeProperty> accessors;
+	private volatile List<TypeProperty> properties;
+
+	private TypeMetadata(final Type type) {
+		this.type = type;
+	}
+
+	/**
+	 * Return the type, with its properties named in capitalized form
+	 */
+	Type type() {
+		return type;
+	}
+
+	/**
+	 * Return the properties compared for the property type, either all of the
+	 * getters or only the bean properties, in alphabetical order
+	 */
+	List<? extends AbstractProperty> propertiesOf(final PropertyType propertyTypes) {
+		if (PropertyType.ALL_GETTERS.equals(propertyTypes)) {
+			List<ImmutableTypeProperty> current = accessors;
+			if (current == null) {
+				accessors = current = Collections.unmodifiableList(type.accessorList());
+			}
+			return current;
+		}
+		List<TypeProperty> current = properties;
+		if (current == null) {
+			properties = current = Collections.unmodifiableList(type.propertyList());
+		}
+		return current;
+	}
+}
@@ -1,23 +1,72 @@
-
 package org.exparity.hamcrest.beans.comparators;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 
 /**
- * Implementation of a {@link PropertyComparator} which matches a string property against a regular expression
+ * Implementation of a {@link PropertyComparator} which matches a string property against a regular expression. The
+ * expression is compiled once, and compiled expressions are shared between comparators created with the same
+ * expression.
  * 
  * @author Stewart Bissett
  */
-public class HasPattern implements PropertyComparator<String> {
+public class HasPattern implements DigestComparator<String> {
+
+	/**
+	 * The number of compiled expressions kept for reuse
+	 */
+	static final int CACHE_SIZE = 256;
 
-	private final String regex;
+	private static final Map<String, Pattern> PATTERNS = Collections.synchronizedMap(new LinkedHashMap<String, Pattern>(
+			16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(final Entry<String, Pattern> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	});
+
+	/**
+	 * Return the compiled expression, compiling it if it is not already cached
+	 */
+	static Pattern compile(final String regex) {
+		Pattern pattern = PATTERNS.get(regex);
+		if (pattern == null) {
+			pattern = Pattern.compile(regex);
+			PATTERNS.put(regex, pattern);
+		}
+		return pattern;
+	}
+
+	private final Pattern pattern;
 
 	public HasPattern(final String regex) {
-		this.regex = regex;
+		this(compile(regex));
+	}
+
+	public HasPattern(final Pattern pattern) {
+		this.pattern = pattern;
 	}
 
+	/**
+	 * Return <code>true</code> if both values are <code>null</code> or the actual value matches the pattern
+	 */
 	public boolean matches(final String lhs, final String rhs) {
-		return lhs == null ? rhs == null : rhs.matches(regex);
+		return lhs == null ? rhs == null : rhs != null && pattern.matcher(rhs).matches();
+	}
+
+	/**
+	 * Return <code>true</code> for a value which matches the pattern so all
+	 * such values have the same digest value, otherwise return the value
+	 */
+	public Object digestValue(final String value) {
+		return pattern.matcher(value).matches() ? Boolean.TRUE : value;
 	}
 
 }
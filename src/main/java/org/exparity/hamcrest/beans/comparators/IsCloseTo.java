@@ -0,0 +1,28 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import org.exparity.hamcrest.beans.TheSameAs.DoublePropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+
+/**
+ * Implementation of a {@link PropertyComparator} which matches two numbers if
+ * they differ by no more than an absolute tolerance. A property with a
+ * primitive getter is compared without being boxed.
+ * 
+ * @author Stewart Bissett
+ */
+public class IsCloseTo implements DoublePropertyComparator {
+
+	private final double tolerance;
+
+	public IsCloseTo(final double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance must not be negative");
+		}
+		this.tolerance = tolerance;
+	}
+
+	public boolean matches(final double lhs, final double rhs) {
+		return lhs == rhs || Math.abs(lhs - rhs) <= tolerance || Double.isNaN(lhs) && Double.isNaN(rhs);
+	}
+
+}
@@ -1,6 +1,9 @@
 
 package org.exparity.hamcrest.beans.comparators;
 
+import java.math.BigDecimal;
+
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 
 /**
@@ -8,10 +11,22 @@ import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
  * 
  * @author Stewart Bissett
  */
-public class IsComparable<T extends Comparable<T>> implements PropertyComparator<T> {
+public class IsComparable<T extends Comparable<T>> implements DigestComparator<T> {
 
 	public boolean matches(final T lhs, final T rhs) {
 		return lhs == null ? rhs == null : lhs.getClass().isInstance(rhs) && lhs.compareTo(rhs) == 0;
 	}
 
+	/**
+	 * Return the value, or for a {@link BigDecimal} the value without trailing
+	 * zeros so values which differ only in scale have the same digest value
+	 */
+	public Object digestValue(final T value) {
+		if (value instanceof BigDecimal) {
+			BigDecimal decimal = (BigDecimal) value;
+			return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+		}
+		return value;
+	}
+
 }
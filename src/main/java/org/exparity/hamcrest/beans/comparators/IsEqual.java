@@ -1,6 +1,7 @@
 
 package org.exparity.hamcrest.beans.comparators;
 
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 
 /**
@@ -8,9 +9,13 @@ import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
  * 
  * @author Stewart Bissett
  */
-public class IsEqual<T> implements PropertyComparator<T> {
+public class IsEqual<T> implements DigestComparator<T> {
 
 	public boolean matches(final T lhs, final T rhs) {
 		return lhs == null ? rhs == null : lhs.equals(rhs);
 	}
+
+	public Object digestValue(final T value) {
+		return value;
+	}
 }
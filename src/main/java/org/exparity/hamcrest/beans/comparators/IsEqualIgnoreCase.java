@@ -1,6 +1,9 @@
 
 package org.exparity.hamcrest.beans.comparators;
 
+import java.util.Locale;
+
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 
 /**
@@ -8,10 +11,14 @@ import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
  * 
  * @author Stewart Bissett
  */
-public class IsEqualIgnoreCase implements PropertyComparator<String> {
+public class IsEqualIgnoreCase implements DigestComparator<String> {
 
 	public boolean matches(final String lhs, final String rhs) {
 		return lhs == null ? rhs == null : lhs.equalsIgnoreCase(rhs);
 	}
 
+	public Object digestValue(final String value) {
+		return value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+	}
+
 }
@@ -5,6 +5,7 @@ package org.exparity.hamcrest.beans.comparators;
 
 import java.util.Date;
 
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 
 /**
@@ -13,10 +14,15 @@ import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
  * 
  * @author Stewart Bissett
  */
-public class IsEqualTimestamp implements PropertyComparator<Date> {
+public class IsEqualTimestamp implements DigestComparator<Date> {
 
 	@Override
 	public boolean matches(Date lhs, Date rhs) {
 		return lhs == null ? rhs == null : rhs != null && lhs.getTime() == rhs.getTime();
 	}
+
+	@Override
+	public Object digestValue(Date value) {
+		return value.getTime();
+	}
 }
@@ -0,0 +1,124 @@
+/**
+ *
+ */
+package org.exparity.hamcrest.beans.comparators;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+
+/**
+ * Implementation of {@link PropertyComparator} which compares two points in
+ * time to see if they are the same once truncated to a unit, e.g. the same
+ * day or the same minute. Supports {@link Date}, {@link Instant},
+ * {@link LocalDateTime}, {@link OffsetDateTime}, and {@link ZonedDateTime}.
+ * <p>
+ * Values other than {@link LocalDateTime} are truncated in the local time of
+ * the zone given to the comparator, so two dates are on the same day if they
+ * are on the same day in that zone. If no zone is given the system default
+ * zone is read once when the comparator is created, i.e. when the
+ * configuration it is added to is built, so a comparator held in a static
+ * configuration does not see a later change to the default. Pass the zone to
+ * compare in a zone other than the default at that time.
+ * The truncation is done with arithmetic on the epoch second of each value, so
+ * no calendar or other object is created for each comparison.
+ * </p>
+ *
+ * @author Stewart Bissett
+ */
+public class IsEqualTruncatedTo<T> implements DigestComparator<T> {
+
+	private static final long NANOS_PER_SECOND = 1000000000L, NANOS_PER_DAY = 86400L * NANOS_PER_SECOND;
+
+	private final ChronoUnit unit;
+	private final TimeZone zone;
+	private final long unitNanos, unitSeconds;
+
+	/**
+	 * Create a comparator which truncates in the system default zone at the
+	 * time the comparator is created
+	 */
+	public IsEqualTruncatedTo(final ChronoUnit unit) {
+		this(unit, ZoneId.systemDefault());
+	}
+
+	/**
+	 * Create a comparator which truncates in the zone
+	 */
+	public IsEqualTruncatedTo(final ChronoUnit unit, final ZoneId zone) {
+		if (unit.compareTo(ChronoUnit.DAYS) > 0 || NANOS_PER_DAY % unit.getDuration().toNanos() != 0) {
+			throw new IllegalArgumentException("Unable to truncate to " + unit
+					+ ". The unit must divide a day exactly");
+		}
+		this.unit = unit;
+		this.zone = TimeZone.getTimeZone(zone);
+		this.unitNanos = unit.getDuration().toNanos();
+		this.unitSeconds = unitNanos / NANOS_PER_SECOND;
+	}
+
+	@Override
+	public boolean matches(final T lhs, final T rhs) {
+		if (lhs == null || rhs == null) {
+			return lhs == rhs;
+		}
+		long lhsSeconds = localSecond(lhs), rhsSeconds = localSecond(rhs);
+		if (unitSeconds > 0) {
+			return Math.floorDiv(lhsSeconds, unitSeconds) == Math.floorDiv(rhsSeconds, unitSeconds);
+		}
+		return lhsSeconds == rhsSeconds && nanoOfSecond(lhs) / unitNanos == nanoOfSecond(rhs) / unitNanos;
+	}
+
+	@Override
+	public Object digestValue(final T value) {
+		long seconds = localSecond(value);
+		if (unitSeconds > 0) {
+			return Math.floorDiv(seconds, unitSeconds);
+		}
+		return seconds * (NANOS_PER_SECOND / unitNanos) + nanoOfSecond(value) / unitNanos;
+	}
+
+	/**
+	 * Return the second since the epoch of the value in local time
+	 */
+	private long localSecond(final Object value) {
+		if (value instanceof Date) {
+			long millis = ((Date) value).getTime();
+			return Math.floorDiv(millis + zone.getOffset(millis), 1000L);
+		} else if (value instanceof Instant) {
+			return inZone(((Instant) value).getEpochSecond());
+		} else if (value instanceof OffsetDateTime) {
+			return inZone(((OffsetDateTime) value).toEpochSecond());
+		} else if (value instanceof ZonedDateTime) {
+			return inZone(((ZonedDateTime) value).toEpochSecond());
+		} else if (value instanceof LocalDateTime) {
+			LocalDateTime local = (LocalDateTime) value;
+			return local.toLocalDate().toEpochDay() * 86400L + local.toLocalTime().toSecondOfDay();
+		}
+		throw new IllegalArgumentException("Unable to truncate " + value.getClass().getName() + " to " + unit);
+	}
+
+	private long inZone(final long epochSecond) {
+		return epochSecond + zone.getOffset(epochSecond * 1000L) / 1000L;
+	}
+
+	private static int nanoOfSecond(final Object value) {
+		if (value instanceof Date) {
+			return (int) Math.floorMod(((Date) value).getTime(), 1000L) * 1000000;
+		} else if (value instanceof Instant) {
+			return ((Instant) value).getNano();
+		} else if (value instanceof OffsetDateTime) {
+			return ((OffsetDateTime) value).getNano();
+		} else if (value instanceof ZonedDateTime) {
+			return ((ZonedDateTime) value).getNano();
+		}
+		return ((LocalDateTime) value).getNano();
+	}
+}
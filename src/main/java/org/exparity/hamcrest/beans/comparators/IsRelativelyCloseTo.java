@@ -0,0 +1,30 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import org.exparity.hamcrest.beans.TheSameAs.DoublePropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+
+/**
+ * Implementation of a {@link PropertyComparator} which matches two numbers if
+ * they differ by no more than a fraction of the larger of the two, e.g. a
+ * tolerance of 0.01 matches numbers within 1% of each other. A property with a
+ * primitive getter is compared without being boxed.
+ * 
+ * @author Stewart Bissett
+ */
+public class IsRelativelyCloseTo implements DoublePropertyComparator {
+
+	private final double tolerance;
+
+	public IsRelativelyCloseTo(final double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance must not be negative");
+		}
+		this.tolerance = tolerance;
+	}
+
+	public boolean matches(final double lhs, final double rhs) {
+		return lhs == rhs || Math.abs(lhs - rhs) <= tolerance * Math.max(Math.abs(lhs), Math.abs(rhs))
+				|| Double.isNaN(lhs) && Double.isNaN(rhs);
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import org.exparity.hamcrest.beans.TheSameAs.DoublePropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+
+/**
+ * Implementation of a {@link PropertyComparator} which matches two numbers if
+ * there are no more than a given number of representable doubles between them,
+ * their distance in units in the last place. A property with a primitive
+ * getter is compared without being boxed.
+ * 
+ * @author Stewart Bissett
+ */
+public class IsWithinUlps implements DoublePropertyComparator {
+
+	private final int ulps;
+
+	public IsWithinUlps(final int ulps) {
+		if (ulps < 0) {
+			throw new IllegalArgumentException("Ulps must not be negative");
+		}
+		this.ulps = ulps;
+	}
+
+	public boolean matches(final double lhs, final double rhs) {
+		if (lhs == rhs) {
+			return true;
+		} else if (Double.isNaN(lhs) || Double.isNaN(rhs)) {
+			return Double.isNaN(lhs) && Double.isNaN(rhs);
+		}
+		long distance = ordered(lhs) - ordered(rhs);
+		return distance >= -ulps && distance <= ulps;
+	}
+
+	/**
+	 * Map the bits of the double to a long which orders the same way as the
+	 * doubles, so adjacent doubles differ by one
+	 */
+	private static long ordered(final double value) {
+		long bits = Double.doubleToLongBits(value);
+		return bits < 0 ? Long.MIN_VALUE - bits : bits;
+	}
+
+}
@@ -1,6 +1,7 @@
 
 package org.exparity.hamcrest.beans.comparators;
 
+import org.exparity.hamcrest.beans.TheSameAs.DigestComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 import org.hamcrest.Matcher;
 
@@ -9,7 +10,7 @@ import org.hamcrest.Matcher;
  * 
  * @author Stewart Bissett
  */
-public class Matches<T> implements PropertyComparator<T> {
+public class Matches<T> implements DigestComparator<T> {
 
 	private final Matcher<T> matcher;
 
@@ -22,4 +23,13 @@ public class Matches<T> implements PropertyComparator<T> {
 		return matcher.matches(lhs) && matcher.matches(rhs);
 	}
 
+	/**
+	 * Return <code>true</code> for a value which the matcher matches so all
+	 * such values have the same digest value, otherwise return the value
+	 */
+	@Override
+	public Object digestValue(final T value) {
+		return matcher.matches(value) ? Boolean.TRUE : value;
+	}
+
 }
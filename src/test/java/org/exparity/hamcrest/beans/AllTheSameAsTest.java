@@ -0,0 +1,90 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.allTheSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang.SystemUtils;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link AllTheSameAs}
+ *
+ * @author Stewart Bissett
+ */
+public class AllTheSameAsTest {
+
+	@Test
+	public void canCompareLists() {
+		assertThat(aListOfSimpleTypes(100), allTheSameAs(aListOfSimpleTypes(100)));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canCompareDifferentLists() {
+		List<SimpleType> actual = aListOfSimpleTypes(100);
+		actual.get(50).setValue("X");
+		assertThat(actual, allTheSameAs(aListOfSimpleTypes(100)));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canCompareDifferentListSizes() {
+		assertThat(aListOfSimpleTypes(99), allTheSameAs(aListOfSimpleTypes(100)));
+	}
+
+	@Test
+	public void canReportMismatchesInIndexOrder() {
+		List<SimpleType> actual = aListOfSimpleTypes(100);
+		actual.get(70).setValue("X");
+		actual.get(3).setValue("Y");
+		StringDescription mismatch = new StringDescription();
+		allTheSameAs(aListOfSimpleTypes(100)).describeMismatch(actual, mismatch);
+		assertThat(mismatch.toString(), equalTo("SimpleType[3].Value is \"Y\" instead of \"A3\""
+				+ SystemUtils.LINE_SEPARATOR
+				+ "SimpleType[70].Value is \"X\" instead of \"A70\""));
+	}
+
+	@Test
+	public void canExcludePropertyForAllPairs() {
+		List<SimpleType> actual = aListOfSimpleTypes(100);
+		actual.get(50).setValue("X");
+		assertThat(actual, allTheSameAs(aListOfSimpleTypes(100)).excludeProperty("Value"));
+	}
+
+	@Test
+	public void canExcludePathWithNamedType() {
+		List<SimpleType> actual = aListOfSimpleTypes(100);
+		actual.get(50).setValue("X");
+		assertThat(actual, allTheSameAs(aListOfSimpleTypes(100), "item").excludePath("item.Value"));
+	}
+
+	@Test
+	public void canCompareUsingExecutor() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertThat(aListOfSimpleTypes(100), allTheSameAs(aListOfSimpleTypes(100)).using(executor));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void canCompareNullItems() {
+		assertThat(Arrays.asList((SimpleType) null), allTheSameAs(Arrays.asList((SimpleType) null)));
+	}
+
+	private static List<SimpleType> aListOfSimpleTypes(final int size) {
+		List<SimpleType> list = new ArrayList<SimpleType>();
+		for (int i = 0; i < size; ++i) {
+			list.add(new SimpleType("A" + i));
+		}
+		return list;
+	}
+}
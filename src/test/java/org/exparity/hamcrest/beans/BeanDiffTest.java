@@ -0,0 +1,144 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.beans.BeanDiff.beanDiff;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link BeanDiff}
+ *
+ * @author Stewart Bissett
+ */
+public class BeanDiffTest {
+
+	@Test
+	public void canFindNoDifferences() {
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(beanDiff().compare(new ObjectWithAllTypes(), new ObjectWithAllTypes(), differences), equalTo(true));
+		assertThat(differences.list, empty());
+	}
+
+	@Test
+	public void canFindValueDifference() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setIntValue(expected.getIntValue() + 1);
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(beanDiff().compare(expected, actual, differences), equalTo(false));
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.IntValue"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.VALUE));
+		assertThat(differences.list.get(0).getExpected(), equalTo((Object) expected.getIntValue()));
+		assertThat(differences.list.get(0).getActual(), equalTo((Object) actual.getIntValue()));
+	}
+
+	@Test
+	public void canFindMissingValue() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setObject(null);
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff().compare(expected, actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.Object"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.MISSING));
+	}
+
+	@Test
+	public void canFindUnexpectedValue() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		expected.setObject(null);
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff().compare(expected, actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.UNEXPECTED));
+	}
+
+	@Test
+	public void canFindSizeDifference() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.addObject(Arrays.asList(new SimpleTypeWithList(true, Arrays.asList(new SimpleType("A")))));
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff().compare(expected, actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.Objects.size"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.SIZE));
+		assertThat(differences.list.get(0).getExpected(), equalTo((Object) 0));
+		assertThat(differences.list.get(0).getActual(), equalTo((Object) 1));
+	}
+
+	@Test
+	public void canApplyConfiguration() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setIntValue(expected.getIntValue() + 1);
+		actual.setStringValue("Other");
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff(new ComparisonConfiguration().excludeProperty("IntValue")).compare(expected, actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.StringValue"));
+	}
+
+	@Test
+	public void canNameRoot() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff().compare(expected, actual, "tree", differences);
+		assertThat(differences.list.get(0).getPath(), equalTo("tree.StringValue"));
+	}
+
+	@Test
+	public void canFindDifferenceBetweenSameValuesAtEachPath() {
+		String a = "A", b = "B";
+		SimpleTypeWithList expected = new SimpleTypeWithList(true, Arrays.asList(new SimpleType(a), new SimpleType(a)));
+		SimpleTypeWithList actual = new SimpleTypeWithList(true, Arrays.asList(new SimpleType(b), new SimpleType(b)));
+		CollectDifferences differences = new CollectDifferences();
+		beanDiff().compare(expected, actual, differences);
+		assertThat(differences.list, hasSize(2));
+		assertThat(differences.list.get(0).getPath(), equalTo("SimpleTypeWithList.Leaves[0].Value"));
+		assertThat(differences.list.get(1).getPath(), equalTo("SimpleTypeWithList.Leaves[1].Value"));
+	}
+
+	@Test
+	public void canFindDifferencesInCyclicGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(1).depth(6).fanOut(3).collectionSize(2).cycleDensity(0.3)
+				.mismatchRate(0.1);
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(beanDiff().compare(graph.expected(), graph.actual(), differences), equalTo(false));
+		assertThat((long) differences.list.size(), equalTo(graph.mismatches()));
+		assertThat(beanDiff().compare(graph.expected(), graph.expected(), differences), equalTo(true));
+	}
+
+	@Test
+	public void canFindDifferencesInCyclicGraphInParallel() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(1).depth(6).fanOut(3).cycleDensity(0.3).mismatchRate(0.1);
+		CollectDifferences sequential = new CollectDifferences(), parallel = new CollectDifferences();
+		beanDiff().compare(graph.expected(), graph.actual(), sequential);
+		beanDiff(ComparisonConfiguration.DEFAULTS.inParallel(1)).compare(graph.expected(), graph.actual(), parallel);
+		assertThat(parallel.list.size(), equalTo(sequential.list.size()));
+		for (int i = 0; i < sequential.list.size(); ++i) {
+			assertThat(parallel.list.get(i).getPath(), equalTo(sequential.list.get(i).getPath()));
+		}
+	}
+
+	private static class CollectDifferences implements DifferenceListener {
+
+		private final List<Difference> list = new ArrayList<Difference>();
+
+		@Override
+		public void onDifference(final Difference difference) {
+			list.add(difference);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.dates.en.FluentDateTime.JUN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.comparators.IsEqualDate;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link BeanDigest}
+ *
+ * @author Stewart Bissett
+ */
+public class BeanDigestTest {
+
+	@Test
+	public void canDigestSameGraph() {
+		assertThat(BeanDigest.of(new ObjectWithAllTypes()), equalTo(BeanDigest.of(new ObjectWithAllTypes())));
+	}
+
+	@Test
+	public void canDigestDifferentGraph() {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.getObject().getLeaves().get(0).setValue("Other");
+		assertThat(BeanDigest.of(actual), not(equalTo(BeanDigest.of(new ObjectWithAllTypes()))));
+	}
+
+	@Test
+	public void canDigestListsInAnyOrder() {
+		SimpleTypeWithList expected = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("A"), new SimpleType(
+				"B")));
+		SimpleTypeWithList actual = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("B"), new SimpleType(
+				"A")));
+		assertThat(BeanDigest.of(actual), equalTo(BeanDigest.of(expected)));
+	}
+
+	@Test
+	public void canDigestMapsInAnyOrder() {
+		Map<String, Object> expected = new LinkedHashMap<String, Object>(), actual = new LinkedHashMap<String, Object>();
+		expected.put("A", 1);
+		expected.put("B", new SimpleType("B"));
+		actual.put("B", new SimpleType("B"));
+		actual.put("A", 1);
+		assertThat(BeanDigest.of(actual, "map", new ComparisonConfiguration()), equalTo(BeanDigest.of(expected,
+				"map", new ComparisonConfiguration())));
+	}
+
+	@Test
+	public void canDigestValuesOfDifferentTypes() {
+		Map<String, Object> expected = new HashMap<String, Object>(), actual = new HashMap<String, Object>();
+		expected.put("A", 1);
+		actual.put("A", 1L);
+		assertThat(BeanDigest.of(actual), not(equalTo(BeanDigest.of(expected))));
+	}
+
+	@Test
+	public void canDigestWithExclusions() {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		actual.setObject(null);
+		ComparisonConfiguration configuration = new ComparisonConfiguration().excludeProperty("StringValue")
+				.excludePath("ObjectWithAllTypes.Object");
+		assertThat(BeanDigest.of(actual, configuration), equalTo(BeanDigest.of(new ObjectWithAllTypes(),
+				configuration)));
+	}
+
+	@Test
+	public void canDigestUsingComparator() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		expected.setDateValue(JUN(19, 2015).at(1, 0, 0));
+		actual.setDateValue(JUN(19, 2015).at(2, 0, 0));
+		assertThat(BeanDigest.of(actual), not(equalTo(BeanDigest.of(expected))));
+		ComparisonConfiguration configuration = new ComparisonConfiguration().compareType(Date.class,
+				new IsEqualDate());
+		assertThat(BeanDigest.of(actual, configuration), equalTo(BeanDigest.of(expected, configuration)));
+	}
+
+	@Test
+	public void canDigestDecimalsOfDifferentScale() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		expected.setDecimalValue(new BigDecimal("1.50"));
+		actual.setDecimalValue(new BigDecimal("1.5"));
+		assertThat(BeanDigest.of(actual), equalTo(BeanDigest.of(expected)));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectComparatorWithoutDigestValue() {
+		BeanDigest.of(new ObjectWithAllTypes(), new ComparisonConfiguration().compareProperty("StringValue",
+				new PropertyComparator<String>() {
+
+					public boolean matches(final String lhs, final String rhs) {
+						return true;
+					}
+				}));
+	}
+
+	@Test
+	public void canParseDigest() {
+		BeanDigest digest = BeanDigest.of(new ObjectWithAllTypes());
+		assertThat(digest.toString().length(), equalTo(32));
+		assertThat(BeanDigest.valueOf(digest.toString()), equalTo(digest));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectInvalidDigest() {
+		BeanDigest.valueOf("not a digest");
+	}
+}
@@ -0,0 +1,108 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link ComparisonBudget} and the comparisons it limits
+ *
+ * @author Stewart Bissett
+ */
+public class ComparisonBudgetTest {
+
+	@Test
+	public void canLimitDepth() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(1000);
+		TheSameAs<Object> matcher = theSameAs((Object) graph.expected(), "Node").maxDepth(4);
+		assertThat(graph.actual(), not(matcher));
+		StringDescription mismatch = new StringDescription();
+		matcher.describeMismatch(graph.actual(), mismatch);
+		assertThat(mismatch.toString(), equalTo(
+				"Node.Children[0].Children[0] was not fully compared, max depth of 4 reached"));
+	}
+
+	@Test
+	public void canCompareWithinDepth() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(10).fanOut(2);
+		assertThat(graph.actual(), theSameAs((Object) graph.expected()).maxDepth(100));
+	}
+
+	@Test
+	public void canLimitNodes() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(4).fanOut(10);
+		List<Difference> differences = differences(graph, ComparisonConfiguration.DEFAULTS.maxNodes(100));
+		assertThat(differences.get(0).getPath(), equalTo("Node"));
+		assertThat(kinds(differences), everyItem(equalTo(Kind.NOT_COMPARED)));
+		assertThat(differences.get(0).getActual(), equalTo((Object) "max nodes of 100 reached"));
+	}
+
+	@Test
+	public void canReportDifferencesFoundBeforeLimit() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(4).fanOut(10).mismatchRate(1.0);
+		List<Kind> kinds = kinds(differences(graph, ComparisonConfiguration.DEFAULTS.maxNodes(100)));
+		assertThat(kinds, hasItem(Kind.VALUE));
+		assertThat(kinds, hasItem(Kind.NOT_COMPARED));
+	}
+
+	@Test
+	public void canLimitNodesInParallel() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(5).fanOut(10);
+		List<Difference> differences = differences(graph, ComparisonConfiguration.DEFAULTS.inParallel(2).maxNodes(
+				1000));
+		assertThat(differences.isEmpty(), equalTo(false));
+		assertThat(kinds(differences), everyItem(equalTo(Kind.NOT_COMPARED)));
+	}
+
+	@Test(timeOut = 30000)
+	public void canLimitTime() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(5).depth(9).fanOut(10);
+		List<Difference> differences = differences(graph, ComparisonConfiguration.DEFAULTS.timeLimit(50,
+				TimeUnit.MILLISECONDS));
+		assertThat(differences.get(0).getPath(), equalTo("Node"));
+		assertThat(differences.get(0).getActual(), equalTo((Object) "time limit of 50ms reached"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectZeroDepth() {
+		ComparisonConfiguration.DEFAULTS.maxDepth(0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectZeroNodes() {
+		ComparisonConfiguration.DEFAULTS.maxNodes(0);
+	}
+
+	private static List<Difference> differences(final SyntheticGraph graph,
+			final ComparisonConfiguration configuration) {
+		final List<Difference> differences = new ArrayList<Difference>();
+		BeanDiff.beanDiff(configuration).compare(graph.expected(), graph.actual(), "Node", new DifferenceListener() {
+
+			@Override
+			public void onDifference(final Difference difference) {
+				differences.add(difference);
+			}
+		});
+		return differences;
+	}
+
+	private static List<Kind> kinds(final List<Difference> differences) {
+		List<Kind> kinds = new ArrayList<Kind>();
+		for (Difference difference : differences) {
+			kinds.add(difference.getKind());
+		}
+		return kinds;
+	}
+}
@@ -0,0 +1,95 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.math.BigDecimal;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.exparity.hamcrest.beans.comparators.Excluded;
+import org.exparity.hamcrest.beans.comparators.IsComparable;
+import org.exparity.hamcrest.beans.comparators.IsEqual;
+import org.exparity.hamcrest.beans.comparators.IsEqualIgnoreCase;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link ComparisonConfiguration}
+ *
+ * @author Stewart Bissett
+ */
+public class ComparisonConfigurationTest {
+
+	@Test
+	public void canShareDefaults() {
+		assertThat(ComparisonConfiguration.defaults(PropertyType.ALL_GETTERS),
+				sameInstance(ComparisonConfiguration.DEFAULTS));
+		assertThat(ComparisonConfiguration.defaults(PropertyType.BEAN),
+				sameInstance(ComparisonConfiguration.BEAN_DEFAULTS));
+		assertThat(ComparisonConfiguration.DEFAULTS.typeComparator(BigDecimal.class), instanceOf(IsComparable.class));
+		assertThat(new ComparisonConfiguration().typeComparator(String.class), sameInstance(ComparisonConfiguration.DEFAULTS
+				.typeComparator(String.class)));
+	}
+
+	@Test
+	public void canLeaveOriginalUnchanged() {
+		ComparisonConfiguration original = ComparisonConfiguration.DEFAULTS.excludeProperty("IntValue");
+		ComparisonConfiguration changed = original.compareProperty("IntValue", new IsEqual<Integer>()).excludePath(
+				"ObjectWithAllTypes.StringValue");
+		assertThat(original.propertyComparator("intvalue"), instanceOf(Excluded.class));
+		assertThat(original.pathComparator("objectwithalltypes.stringvalue"), nullValue());
+		assertThat(changed.propertyComparator("intvalue"), instanceOf(IsEqual.class));
+		assertThat(changed.pathComparator("objectwithalltypes.stringvalue"), instanceOf(Excluded.class));
+		assertThat(ComparisonConfiguration.DEFAULTS.propertyComparator("intvalue"), nullValue());
+	}
+
+	@Test
+	public void canOverrideDefaultTypeWithSuperType() {
+		PropertyComparator<Number> anyNumber = new PropertyComparator<Number>() {
+
+			@Override
+			public boolean matches(final Number lhs, final Number rhs) {
+				return true;
+			}
+		};
+		ComparisonConfiguration configuration = ComparisonConfiguration.DEFAULTS.compareType(Number.class, anyNumber);
+		assertThat(configuration.typeComparator(Integer.class), sameInstance((Object) anyNumber));
+		assertThat(configuration.typeComparator(BigDecimal.class), sameInstance((Object) anyNumber));
+		assertThat(configuration.typeComparator(String.class), instanceOf(IsEqual.class));
+		assertThat(configuration.typeComparator(Object.class), nullValue());
+	}
+
+	@Test
+	public void canCombineConfigurations() {
+		ComparisonConfiguration lhs = ComparisonConfiguration.DEFAULTS.excludeProperty("IntValue").compareType(
+				String.class, new IsEqualIgnoreCase());
+		ComparisonConfiguration rhs = ComparisonConfiguration.DEFAULTS.compareType(String.class, new IsEqual<String>())
+				.excludeProperty("LongValue");
+		ComparisonConfiguration combined = lhs.inParallel(16).and(rhs);
+		assertThat(combined.propertyComparator("intvalue"), instanceOf(Excluded.class));
+		assertThat(combined.propertyComparator("longvalue"), instanceOf(Excluded.class));
+		assertThat(combined.typeComparator(String.class), instanceOf(IsEqual.class));
+		assertThat(combined.parallelThreshold(), equalTo(16));
+		assertThat(lhs.propertyComparator("longvalue"), nullValue());
+	}
+
+	@Test
+	public void canCompareWithCombinedConfiguration() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setIntValue(expected.getIntValue() + 1);
+		actual.setStringValue(expected.getStringValue().toUpperCase());
+		ComparisonConfiguration ignoreInts = ComparisonConfiguration.DEFAULTS.excludeProperty("IntValue");
+		ComparisonConfiguration ignoreCase = ComparisonConfiguration.DEFAULTS.compareType(String.class,
+				new IsEqualIgnoreCase());
+		assertThat(actual, not(theSameAs(expected, ignoreInts)));
+		assertThat(actual, not(theSameAs(expected, ignoreCase)));
+		assertThat(actual, theSameAs(expected, ignoreInts.and(ignoreCase)));
+	}
+
+}
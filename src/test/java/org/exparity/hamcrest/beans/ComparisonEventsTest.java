@@ -0,0 +1,97 @@
+package org.exparity.hamcrest.beans;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link ComparisonEvents}
+ *
+ * @author Stewart Bissett
+ */
+public class ComparisonEventsTest {
+
+	@Test
+	public void canRecordComparison() throws Exception {
+		List<RecordedEvent> events = record(false, tree("A", "B"), tree("A", "C"));
+		List<RecordedEvent> comparisons = eventsNamed("org.exparity.hamcrest.beans.Comparison", events);
+		assertThat(comparisons.size(), equalTo(1));
+		RecordedEvent comparison = comparisons.get(0);
+		assertThat(comparison.getClass("rootClass").getName(), equalTo(SimpleTypeWithList.class.getName()));
+		assertThat(comparison.getString("name"), equalTo("SimpleTypeWithList"));
+		assertThat(comparison.getLong("nodes"), equalTo(11L));
+		assertThat(comparison.getLong("differences"), equalTo(1L));
+		assertThat(eventsNamed("org.exparity.hamcrest.beans.Subtree", events).size(), equalTo(0));
+	}
+
+	@Test
+	public void canRecordSubtrees() throws Exception {
+		List<RecordedEvent> events = record(true, tree("A", "B"), tree("A", "B"));
+		List<String> paths = new ArrayList<>();
+		for (RecordedEvent subtree : eventsNamed("org.exparity.hamcrest.beans.Subtree", events)) {
+			paths.add(subtree.getString("path"));
+		}
+		assertThat(paths, hasItems("simpletypewithlist", "simpletypewithlist.leaves"));
+		assertThat(paths.size(), equalTo(4));
+	}
+
+	@Test
+	public void canCompareWithoutRecording() {
+		assertThat(ComparisonEvents.beginComparison(), nullValue());
+		assertThat(ComparisonEvents.isSubtreeEnabled(), equalTo(false));
+	}
+
+	private static List<RecordedEvent> record(final boolean subtrees, final SimpleTypeWithList expected,
+			final SimpleTypeWithList actual) throws IOException {
+		File file = File.createTempFile("comparison", ".jfr");
+		file.deleteOnExit();
+		try (Recording recording = new Recording()) {
+			recording.enable("org.exparity.hamcrest.beans.Comparison");
+			if (subtrees) {
+				recording.enable("org.exparity.hamcrest.beans.Subtree").withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			BeanDiff.beanDiff().compare(expected, actual, new DifferenceListener() {
+
+				public void onDifference(final Difference difference) {}
+			});
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+		return eventsNamed("org.exparity.hamcrest.beans", RecordingFile.readAllEvents(file.toPath()));
+	}
+
+	private static List<RecordedEvent> eventsNamed(final String prefix, final List<RecordedEvent> events) {
+		List<RecordedEvent> named = new ArrayList<>();
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().startsWith(prefix)) {
+				named.add(event);
+			}
+		}
+		return named;
+	}
+
+	private static SimpleTypeWithList tree(final String... values) {
+		SimpleType[] leaves = new SimpleType[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			leaves[i] = new SimpleType(values[i]);
+		}
+		return new SimpleTypeWithList(false, asList(leaves));
+	}
+}
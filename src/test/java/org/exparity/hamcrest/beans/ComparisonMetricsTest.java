@@ -0,0 +1,151 @@
+package org.exparity.hamcrest.beans;
+
+import static java.util.Arrays.asList;
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.exparity.hamcrest.BeanComparators;
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.comparators.Excluded;
+import org.exparity.hamcrest.beans.comparators.IsEqual;
+import org.exparity.hamcrest.beans.comparators.IsEqualIgnoreCase;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link ComparisonMetrics}
+ *
+ * @author Stewart Bissett
+ */
+public class ComparisonMetricsTest {
+
+	@Test
+	public void canCountComparison() {
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		assertThat(tree("A", "B"), theSameAs(tree("B", "A")).collectMetrics(metrics));
+		assertThat(metrics.getComparisons(), equalTo(1L));
+		assertThat(metrics.getNodesVisited(NodeKind.BEAN), equalTo(3L));
+		assertThat(metrics.getNodesVisited(NodeKind.LIST), equalTo(1L));
+		assertThat(metrics.getNodesVisited(NodeKind.VALUE), equalTo(2L));
+		assertThat(metrics.getNodesVisited(NodeKind.COMPARATOR), equalTo(5L));
+		assertThat(metrics.getNodesVisited(), equalTo(11L));
+		assertThat(metrics.getGetterCalls(), equalTo(16L));
+		assertThat(metrics.getComparatorCalls(Excluded.class), equalTo(3L));
+		assertThat(metrics.getComparatorCalls(IsEqual.class), equalTo(2L));
+		assertThat(metrics.getSorts(), equalTo(2L));
+		assertThat(metrics.getSortFallbacks(), equalTo(0L));
+		assertThat(metrics.getVisitedPairs(), equalTo(4L));
+		assertThat(metrics.getMaxVisitedPairs(), equalTo(4L));
+		assertThat(metrics.getElapsedNanos(), greaterThan(0L));
+	}
+
+	@Test
+	public void canCountComparatorCalls() {
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		assertThat(tree("a", "b"), theSameAs(tree("A", "B")).compareProperty("Value", BeanComparators
+				.isEqualIgnoreCase()).collectMetrics(metrics));
+		assertThat(metrics.getNodesVisited(NodeKind.COMPARATOR), equalTo(5L));
+		assertThat(metrics.getComparatorCalls(IsEqualIgnoreCase.class), equalTo(2L));
+		assertThat(metrics.getComparatorCalls(IsEqual.class), equalTo(0L));
+		assertThat(metrics.getComparatorCalls(), hasEntry(IsEqualIgnoreCase.class.getName(), 2L));
+	}
+
+	@Test
+	public void canCountSortFallback() {
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		Object mixed = Arrays.<Object> asList(new SimpleType("A"), new SimpleTypeWithList(false, asList(
+				new SimpleType("B"))));
+		assertThat(mixed, theSameAs(mixed).collectMetrics(metrics));
+		assertThat(metrics.getSorts(), equalTo(4L));
+		assertThat(metrics.getSortFallbacks(), equalTo(2L));
+	}
+
+	@Test
+	public void canCountAcrossComparisons() {
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		TheSameAs<SimpleTypeWithList> matcher = theSameAs(tree("A", "B")).collectMetrics(metrics);
+		assertThat(tree("A", "B"), matcher);
+		assertThat(tree("A", "B", "C"), not(matcher));
+		assertThat(metrics.getComparisons(), equalTo(2L));
+		assertThat(metrics.getMaxVisitedPairs(), equalTo(4L));
+		metrics.reset();
+		assertThat(metrics.getComparisons(), equalTo(0L));
+		assertThat(metrics.getNodesVisited(), equalTo(0L));
+		assertThat(metrics.getMaxVisitedPairs(), equalTo(0L));
+	}
+
+	@Test
+	public void canCountParallelComparison() {
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		assertThat(tree("A", "B", "C", "D"), theSameAs(tree("A", "B", "C", "D")).inParallel(1).collectMetrics(
+				metrics));
+		assertThat(metrics.getNodesVisited(NodeKind.BEAN), equalTo(5L));
+		assertThat(metrics.getVisitedPairs(), equalTo(6L));
+	}
+
+	@Test
+	public void canCountGlobally() {
+		ComparisonMetrics metrics = ComparisonMetrics.setGlobal(new ComparisonMetrics());
+		try {
+			assertThat(tree("A"), theSameAs(tree("A")));
+			assertThat(BeanDiff.beanDiff().compare(tree("A"), tree("B"), new DifferenceListener() {
+
+				public void onDifference(final Difference difference) {}
+			}), equalTo(false));
+			assertThat(metrics.getComparisons(), equalTo(2L));
+		} finally {
+			ComparisonMetrics.setGlobal(null);
+		}
+		assertThat(ComparisonMetrics.global(), nullValue());
+		assertThat(tree("A"), theSameAs(tree("A")));
+		assertThat(metrics.getComparisons(), equalTo(2L));
+	}
+
+	@Test
+	public void canPreferMatcherMetricsToGlobal() {
+		ComparisonMetrics global = ComparisonMetrics.setGlobal(new ComparisonMetrics()), own = new ComparisonMetrics();
+		try {
+			assertThat(tree("A"), theSameAs(tree("A")).collectMetrics(own));
+			assertThat(own.getComparisons(), equalTo(1L));
+			assertThat(global.getComparisons(), equalTo(0L));
+		} finally {
+			ComparisonMetrics.setGlobal(null);
+		}
+	}
+
+	@Test
+	public void canReadMetricsOverJmx() throws Exception {
+		ComparisonMetrics metrics = new ComparisonMetrics().registerMBean("canReadMetricsOverJmx");
+		try {
+			assertThat(tree("A", "B"), theSameAs(tree("A", "B")).collectMetrics(metrics));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = ComparisonMetrics.objectName("canReadMetricsOverJmx");
+			assertThat((Long) server.getAttribute(name, "Comparisons"), equalTo(1L));
+			assertThat((Long) server.getAttribute(name, "NodesVisited"), equalTo(11L));
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertThat(metrics.getComparisons(), equalTo(0L));
+		} finally {
+			ComparisonMetrics.unregisterMBean("canReadMetricsOverJmx");
+		}
+	}
+
+	private static SimpleTypeWithList tree(final String... values) {
+		SimpleType[] leaves = new SimpleType[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			leaves[i] = new SimpleType(values[i]);
+		}
+		return new SimpleTypeWithList(false, asList(leaves));
+	}
+}
@@ -0,0 +1,56 @@
+
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.countWhere;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for CountWhere
+ *
+ * @author Stewart Bissett
+ */
+public class CountWhereTest {
+
+	@Test
+	public void canCountItems() {
+		assertThat(someLeaves(100, 10), countWhere("SimpleType.Value", startsWith("Elm"), equalTo(10)));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canCountItemsWithWrongCount() {
+		assertThat(someLeaves(100, 10), countWhere("SimpleType.Value", startsWith("Elm"), lessThan(10)));
+	}
+
+	@Test
+	public void canCountItemsInParallel() {
+		assertThat(someLeaves(10000, 1234), countWhere("SimpleType.Value", startsWith("Elm"), equalTo(1234))
+				.inParallel(100));
+	}
+
+	@Test
+	public void canDescribeCount() {
+		StringDescription description = new StringDescription();
+		countWhere("SimpleType.Value", startsWith("Elm"), lessThan(10)).describeMismatch(someLeaves(100, 10),
+				description);
+		assertThat(description.toString(),
+				equalTo("has <10> items with path 'SimpleType.Value' which matches a string starting with \"Elm\""));
+	}
+
+	private static List<SimpleType> someLeaves(final int size, final int elms) {
+		List<SimpleType> leaves = new ArrayList<SimpleType>(size);
+		for (int i = 0; i < size; ++i) {
+			leaves.add(new SimpleType((i < elms ? "Elm" : "Oak") + i));
+		}
+		return leaves;
+	}
+}
@@ -0,0 +1,65 @@
+package org.exparity.hamcrest.beans;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link DifferenceFileWriter}
+ *
+ * @author Stewart Bissett
+ */
+public class DifferenceFileWriterTest {
+
+	@Test
+	public void canWriteDifferencesAsJsonLines() throws Exception {
+		File file = File.createTempFile("differences", ".jsonl");
+		file.deleteOnExit();
+		try (DifferenceFileWriter writer = DifferenceFileWriter.open(file)) {
+			writer.onDifference(new Difference("Person.Age", Kind.VALUE, 21, 22));
+			writer.onDifference(new Difference("Person.Name", Kind.MISSING, "Jane \"J\" Doe", null));
+			writer.onDifference(new Difference("Person.Pets.size", Kind.SIZE, 1, 2));
+			assertThat(writer.getCount(), equalTo(3L));
+		}
+		assertThat(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8), equalTo(Arrays.asList(
+				"{\"path\":\"Person.Age\",\"kind\":\"VALUE\",\"expected\":21,\"actual\":22}",
+				"{\"path\":\"Person.Name\",\"kind\":\"MISSING\",\"expected\":\"Jane \\\"J\\\" Doe\",\"actual\":null}",
+				"{\"path\":\"Person.Pets.size\",\"kind\":\"SIZE\",\"expected\":1,\"actual\":2}")));
+	}
+
+	@Test
+	public void canWriteNonFiniteNumbersAsStrings() throws Exception {
+		File file = File.createTempFile("differences", ".jsonl");
+		file.deleteOnExit();
+		try (DifferenceFileWriter writer = DifferenceFileWriter.open(file)) {
+			writer.onDifference(new Difference("Reading.Value", Kind.VALUE, Double.NaN, Double.POSITIVE_INFINITY));
+			writer.onDifference(new Difference("Reading.Min", Kind.VALUE, Float.NEGATIVE_INFINITY, 1.5f));
+		}
+		assertThat(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8), equalTo(Arrays.asList(
+				"{\"path\":\"Reading.Value\",\"kind\":\"VALUE\",\"expected\":\"NaN\",\"actual\":\"Infinity\"}",
+				"{\"path\":\"Reading.Min\",\"kind\":\"VALUE\",\"expected\":\"-Infinity\",\"actual\":1.5}")));
+	}
+
+	@Test
+	public void canWriteMoreThanBufferSize() throws Exception {
+		File file = File.createTempFile("differences", ".jsonl");
+		file.deleteOnExit();
+		try (DifferenceFileWriter writer = DifferenceFileWriter.open(file)) {
+			for (int i = 0; i < 10000; ++i) {
+				writer.onDifference(new Difference("List[" + i + "]", Kind.VALUE, "éxpected", "actual"));
+			}
+		}
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertThat(lines.size(), equalTo(10000));
+		assertThat(lines.get(9999),
+				equalTo("{\"path\":\"List[9999]\",\"kind\":\"VALUE\",\"expected\":\"éxpected\",\"actual\":\"actual\"}"));
+	}
+}
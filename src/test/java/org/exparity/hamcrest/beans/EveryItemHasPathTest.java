@@ -0,0 +1,81 @@
+
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.everyItemHasPath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for EveryItemHasPath
+ *
+ * @author Stewart Bissett
+ */
+public class EveryItemHasPathTest {
+
+	@Test
+	public void canTestEveryItem() {
+		assertThat(someLeaves(100, -1), everyItemHasPath("SimpleType.Value", startsWith("Oak")));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestEveryItemWithWrongValue() {
+		assertThat(someLeaves(100, 50), everyItemHasPath("SimpleType.Value", startsWith("Oak")));
+	}
+
+	@Test
+	public void canTestEveryItemInParallel() {
+		assertThat(someLeaves(10000, -1), everyItemHasPath("SimpleType.Value", startsWith("Oak")).inParallel(100));
+	}
+
+	@Test
+	public void canTestEveryItemOfLinkedList() {
+		assertThat(new LinkedList<SimpleType>(someLeaves(1000, -1)), everyItemHasPath("SimpleType.Value",
+				startsWith("Oak")).inParallel(100));
+	}
+
+	@Test
+	public void canReportFirstFailingIndexes() {
+		List<SimpleType> leaves = someLeaves(100, 5, 50, 70, 90);
+		StringDescription description = new StringDescription();
+		everyItemHasPath("SimpleType.Value", startsWith("Oak")).reportingFirst(3).describeMismatch(leaves,
+				description);
+		assertThat(description.toString(),
+				equalTo("has items at indexes [5, 50, 70] and more which do not have path 'SimpleType.Value' which matches a string starting with \"Oak\""));
+	}
+
+	@Test
+	public void canReportFirstFailingIndexesInParallel() {
+		List<SimpleType> leaves = someLeaves(10000, 5, 2000, 2001, 9000);
+		StringDescription description = new StringDescription();
+		everyItemHasPath("SimpleType.Value", startsWith("Oak")).inParallel(100).reportingFirst(3)
+				.describeMismatch(leaves, description);
+		assertThat(description.toString(), startsWith("has items at indexes [5, 2000, 2001] and more"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectZeroReportLimit() {
+		everyItemHasPath("SimpleType.Value", startsWith("Oak")).reportingFirst(0);
+	}
+
+	private static List<SimpleType> someLeaves(final int size, final int... elms) {
+		List<SimpleType> leaves = new ArrayList<SimpleType>(size);
+		for (int i = 0; i < size; ++i) {
+			leaves.add(new SimpleType("Oak" + i));
+		}
+		for (int elm : elms) {
+			if (elm >= 0) {
+				leaves.set(elm, new SimpleType("Elm" + elm));
+			}
+		}
+		return leaves;
+	}
+}
@@ -0,0 +1,338 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameAsSnapshot;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.exparity.hamcrest.beans.Difference.Kind;
+import org.exparity.hamcrest.beans.comparators.IsEqual;
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleEnum;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link GraphSnapshot}
+ *
+ * @author Stewart Bissett
+ */
+public class GraphSnapshotTest {
+
+	@Test
+	public void canCompareToSnapshot() throws Exception {
+		GraphSnapshot snapshot = aSnapshotOf(new ObjectWithAllTypes());
+		assertThat(snapshot.getName(), equalTo("ObjectWithAllTypes"));
+		assertThat(new ObjectWithAllTypes(), theSameAsSnapshot(snapshot));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canCompareDifferentValueToSnapshot() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		assertThat(actual, theSameAsSnapshot(aSnapshotOf(new ObjectWithAllTypes())));
+	}
+
+	@Test
+	public void canFindValueDifference() throws Exception {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setIntValue(expected.getIntValue() + 1);
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(expected).compare(actual, differences), equalTo(false));
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.IntValue"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.VALUE));
+		assertThat(differences.list.get(0).getExpected(), equalTo((Object) expected.getIntValue()));
+		assertThat(differences.list.get(0).getActual(), equalTo((Object) actual.getIntValue()));
+	}
+
+	@Test
+	public void canFindMissingValue() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setObject(null);
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(new ObjectWithAllTypes()).compare(actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.Object"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.MISSING));
+	}
+
+	@Test
+	public void canFindSizeDifference() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.addObject(Arrays.asList(new SimpleTypeWithList(true, Arrays.asList(new SimpleType("A")))));
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(new ObjectWithAllTypes()).compare(actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.Objects.size"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.SIZE));
+	}
+
+	@Test
+	public void canCompareListsInAnyOrder() throws Exception {
+		SimpleTypeWithList expected = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("A"), new SimpleType(
+				"B"), new SimpleType("C")));
+		SimpleTypeWithList actual = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("C"), new SimpleType(
+				"A"), new SimpleType("B")));
+		assertThat(actual, theSameAsSnapshot(aSnapshotOf(expected)));
+	}
+
+	@Test
+	public void canFindDifferenceInList() throws Exception {
+		SimpleTypeWithList expected = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("A"), new SimpleType(
+				"B")));
+		SimpleTypeWithList actual = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("A"), new SimpleType(
+				"X")));
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(expected).compare(actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("SimpleTypeWithList.Leaves[1].Value"));
+	}
+
+	@Test
+	public void canCompareMapsEnumsAndArrays() throws Exception {
+		assertThat(aMapOfValues(), theSameAsSnapshot(aSnapshotOf(aMapOfValues())));
+	}
+
+	@Test
+	public void canFindDifferenceInMap() throws Exception {
+		Map<String, Object> actual = aMapOfValues();
+		actual.put("Enum", SimpleEnum.VALUE_B);
+		actual.put("Array", new int[] { 1, 2 });
+		actual.remove("Type");
+		actual.put("Other", new SimpleType("A"));
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(aMapOfValues()).compare(actual, differences);
+		assertThat(differences.list, hasSize(3));
+		Map<String, Kind> kinds = new HashMap<String, Kind>();
+		for (Difference difference : differences.list) {
+			kinds.put(difference.getPath(), difference.getKind());
+		}
+		assertThat(kinds.get("HashMap[Enum]"), equalTo(Kind.VALUE));
+		assertThat(kinds.get("HashMap[Array].size"), equalTo(Kind.SIZE));
+		assertThat(kinds.get("HashMap[Type]"), equalTo(Kind.MISSING));
+	}
+
+	@Test
+	public void canCompareKeysWithSameStringForm() throws Exception {
+		Map<Object, String> expected = new HashMap<Object, String>();
+		expected.put(1, "Number");
+		expected.put("1", "String");
+		Map<Object, String> actual = new HashMap<Object, String>(expected);
+		assertThat(actual, theSameAsSnapshot(aSnapshotOf(expected)));
+		actual.put(1, "String");
+		actual.put("1", "Number");
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(expected).compare(actual, differences), equalTo(false));
+		assertThat(differences.list, hasSize(2));
+	}
+
+	@Test
+	public void canFindKeyOfDifferentType() throws Exception {
+		Map<Object, String> expected = new HashMap<Object, String>();
+		expected.put(1, "Number");
+		Map<Object, String> actual = new HashMap<Object, String>();
+		actual.put("1", "Number");
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(expected).compare(actual, differences), equalTo(false));
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("HashMap[1]"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.MISSING));
+	}
+
+	@Test
+	public void canCompareBeanKeys() throws Exception {
+		Map<SimpleType, String> expected = new HashMap<SimpleType, String>();
+		expected.put(new SimpleType("A"), "A");
+		assertThat(new HashMap<SimpleType, String>(expected), theSameAsSnapshot(aSnapshotOf(expected)));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectBeanKeysWithSameStringForm() throws Exception {
+		Map<Link, String> expected = new HashMap<Link, String>();
+		expected.put(new Link("A") {
+
+			@Override
+			public String toString() {
+				return "Key";
+			}
+		}, "A");
+		expected.put(new Link("B") {
+
+			@Override
+			public String toString() {
+				return "Key";
+			}
+		}, "B");
+		aSnapshotOf(expected);
+	}
+
+	@Test
+	public void canCompareSharedInstances() throws Exception {
+		SimpleType shared = new SimpleType("A");
+		SimpleTypeWithList expected = new SimpleTypeWithList(false, Arrays.asList(shared, shared));
+		SimpleTypeWithList actual = new SimpleTypeWithList(false, Arrays.asList(new SimpleType("A"), new SimpleType(
+				"B")));
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(expected).compare(actual, differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("SimpleTypeWithList.Leaves[1].Value"));
+	}
+
+	@Test
+	public void canApplyConfiguration() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setIntValue(actual.getIntValue() + 1);
+		actual.setStringValue("Other");
+		actual.getObject().getLeaves().get(0).setValue("Other");
+		CollectDifferences differences = new CollectDifferences();
+		aSnapshotOf(new ObjectWithAllTypes()).compare(actual,
+				new ComparisonConfiguration().excludeProperty("IntValue").excludePath("ObjectWithAllTypes.Object"),
+				differences);
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("ObjectWithAllTypes.StringValue"));
+	}
+
+	@Test
+	public void canApplyComparatorToValue() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setStringValue("OAK");
+		assertThat(actual, TheSameAsSnapshot.theSameAsSnapshot(aSnapshotOf(new ObjectWithAllTypes()),
+				new ComparisonConfiguration().compareProperty("StringValue", new TheSameAs.PropertyComparator<String>() {
+
+					public boolean matches(final String lhs, final String rhs) {
+						return lhs.equalsIgnoreCase(rhs);
+					}
+				})));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectComparatorForBean() throws Exception {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		aSnapshotOf(actual).compare(actual,
+				new ComparisonConfiguration().comparePath("ObjectWithAllTypes.Object", new IsEqual<Object>()),
+				new CollectDifferences());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectFileWhichIsNotASnapshot() throws Exception {
+		File file = File.createTempFile("graph", ".snapshot");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "Not a snapshot of a graph".getBytes());
+		GraphSnapshot.open(file);
+	}
+
+	@Test
+	public void canRecordLargeGraph() throws Exception {
+		List<SimpleType> leaves = new ArrayList<SimpleType>();
+		for (int i = 0; i < 20000; ++i) {
+			leaves.add(new SimpleType(String.format("A%05d", i)));
+		}
+		GraphSnapshot snapshot = aSnapshotOf(new SimpleTypeWithList(false, leaves));
+		assertThat(new SimpleTypeWithList(false, new ArrayList<SimpleType>(leaves)), theSameAsSnapshot(snapshot));
+		assertThat(snapshot.getFile().length() > 64 * 1024, equalTo(true));
+	}
+
+	@Test
+	public void canCompareCycleToSnapshot() throws Exception {
+		assertThat(aCycle("A"), theSameAsSnapshot(aSnapshotOf(aCycle("A"))));
+	}
+
+	@Test
+	public void canFindBrokenCycle() throws Exception {
+		Link actual = new Link("A");
+		actual.setNext(new Link("DIFFERENT"));
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(aCycle("A")).compare(actual, differences), equalTo(false));
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("Link.Next"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.VALUE));
+	}
+
+	@Test
+	public void canFindMissingCycle() throws Exception {
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(aCycle("A")).compare(new Link("A"), differences), equalTo(false));
+		assertThat(differences.list, hasSize(1));
+		assertThat(differences.list.get(0).getPath(), equalTo("Link.Next"));
+		assertThat(differences.list.get(0).getKind(), equalTo(Kind.MISSING));
+	}
+
+	@Test
+	public void canCompareDeepGraphToSnapshot() throws Exception {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000);
+		assertThat(graph.actual(), theSameAsSnapshot(aSnapshotOf(graph.expected())));
+	}
+
+	@Test
+	public void canFindDifferencesDeepInGraph() throws Exception {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000).mismatchRate(0.01);
+		CollectDifferences differences = new CollectDifferences();
+		assertThat(aSnapshotOf(graph.expected()).compare(graph.actual(), differences), equalTo(false));
+		assertThat((long) differences.list.size(), equalTo(graph.mismatches()));
+	}
+
+	private static Link aCycle(final String name) {
+		Link link = new Link(name);
+		link.setNext(link);
+		return link;
+	}
+
+	private static Map<String, Object> aMapOfValues() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("Enum", SimpleEnum.VALUE_A);
+		map.put("Array", new int[] { 1, 2, 3 });
+		map.put("Type", new SimpleType("A"));
+		return map;
+	}
+
+	private static GraphSnapshot aSnapshotOf(final Object graph) throws IOException {
+		File file = File.createTempFile("graph", ".snapshot");
+		file.deleteOnExit();
+		GraphSnapshot.record(graph, file);
+		return GraphSnapshot.open(file);
+	}
+
+	public static class Link {
+
+		private final String name;
+		private Link next;
+
+		public Link(final String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Link getNext() {
+			return next;
+		}
+
+		public void setNext(final Link next) {
+			this.next = next;
+		}
+	}
+
+	private static class CollectDifferences implements DifferenceListener {
+
+		private final List<Difference> list = new ArrayList<Difference>();
+
+		@Override
+		public void onDifference(final Difference difference) {
+			list.add(difference);
+		}
+	}
+}
@@ -7,8 +7,16 @@ import static org.exparity.stub.random.RandomBuilder.aRandomString;
 import static org.exparity.stub.random.RandomBuilder.path;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
 import org.testng.annotations.Test;
 
 /**
@@ -32,4 +40,113 @@ public class HasPathTest {
 		assertThat(tree, hasPath("ObjectWithAllTypes.StringValue", equalTo(wrongValue)));
 	}
 
+	@Test
+	public void canTestNestedPathWithIndex() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(tree, hasPath("ObjectWithAllTypes.Object.Leaves[0].Value", equalTo(tree.getObject().getLeaves().get(0)
+				.getValue())));
+	}
+
+	@Test
+	public void canTestPathIgnoringCase() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(tree, hasPath("objectWithAllTypes.stringvalue", equalTo(tree.getStringValue())));
+	}
+
+	@Test
+	public void canTestPathWithNullValue() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		tree.setStringValue(null);
+		assertThat(tree, hasPath("ObjectWithAllTypes.StringValue", nullValue()));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestMissingPath() {
+		assertThat(new ObjectWithAllTypes(), hasPath("ObjectWithAllTypes.Missing", nullValue()));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestPathWithIndexOutOfRange() {
+		assertThat(new ObjectWithAllTypes(), hasPath("ObjectWithAllTypes.Object.Leaves[1].Value", nullValue()));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestPathThroughNull() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		tree.setObject(null);
+		assertThat(tree, hasPath("ObjectWithAllTypes.Object.Dead", nullValue()));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectInvalidPath() {
+		hasPath("ObjectWithAllTypes.Object.Leaves[0.Value", nullValue());
+	}
+
+	@Test
+	public void canTestEveryElement() {
+		assertThat(aTreeWithLeaves("Oak", "Oak"), hasPath("ObjectWithAllTypes.Objects[*].Leaves[*].Value", equalTo("Oak")));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestEveryElementWithWrongValue() {
+		assertThat(aTreeWithLeaves("Oak", "Elm"), hasPath("ObjectWithAllTypes.Objects[*].Leaves[*].Value", equalTo("Oak")));
+	}
+
+	@Test
+	public void canTestAnyElement() {
+		assertThat(aTreeWithLeaves("Oak", "Elm"), hasPath("ObjectWithAllTypes.Objects[?].Leaves[?].Value", equalTo("Elm")));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestAnyElementWithWrongValue() {
+		assertThat(aTreeWithLeaves("Oak", "Elm"), hasPath("ObjectWithAllTypes.Objects[?].Leaves[?].Value", equalTo("Ash")));
+	}
+
+	@Test
+	public void canTestFilteredElement() {
+		assertThat(aTreeWithLeaves("Oak", "Elm"), hasPath("ObjectWithAllTypes.Objects[?].Leaves[Value=Elm].Value", equalTo("Elm")));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestFilterWithNoElements() {
+		assertThat(aTreeWithLeaves("Oak", "Elm"), hasPath("ObjectWithAllTypes.Objects[*].Leaves[Value=Ash].Value", nullValue()));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestEveryElementOfEmptyList() {
+		assertThat(new ObjectWithAllTypes(), hasPath("ObjectWithAllTypes.Objects[*].Dead", equalTo(false)));
+	}
+
+	@Test
+	public void canStopAtFirstMatchingElement() {
+		final SimpleTypeWithList first = new SimpleTypeWithList(true, Arrays.asList(new SimpleType("Oak")));
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		tree.setObjects(new AbstractList<SimpleTypeWithList>() {
+
+			@Override
+			public SimpleTypeWithList get(final int index) {
+				if (index > 0) {
+					throw new IllegalStateException("Element " + index + " should not be visited");
+				}
+				return first;
+			}
+
+			@Override
+			public int size() {
+				return 2;
+			}
+		});
+		assertThat(tree, hasPath("ObjectWithAllTypes.Objects[?].Dead", equalTo(true)));
+	}
+
+	private static ObjectWithAllTypes aTreeWithLeaves(final String... values) {
+		List<SimpleTypeWithList> objects = new ArrayList<SimpleTypeWithList>();
+		for (String value : values) {
+			objects.add(new SimpleTypeWithList(false, Arrays.asList(new SimpleType(value))));
+		}
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		tree.setObjects(objects);
+		return tree;
+	}
+
 }
@@ -0,0 +1,106 @@
+
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.hasPaths;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for HasPaths
+ *
+ * @author Stewart Bissett
+ */
+public class HasPathsTest {
+
+	@Test
+	public void canTestPathsWithValues() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("ObjectWithAllTypes.StringValue", equalTo(tree.getStringValue()));
+		paths.put("ObjectWithAllTypes.IntValue", equalTo(tree.getIntValue()));
+		paths.put("ObjectWithAllTypes.Object.Dead", equalTo(false));
+		paths.put("ObjectWithAllTypes.Object.Leaves[0].Value", nullValue());
+		assertThat(tree, hasPaths(paths));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestPathsWithWrongValue() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("ObjectWithAllTypes.StringValue", equalTo(tree.getStringValue()));
+		paths.put("ObjectWithAllTypes.Object.Dead", equalTo(true));
+		assertThat(tree, hasPaths(paths));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestMissingPath() {
+		assertThat(new ObjectWithAllTypes(), hasPaths(Collections.singletonMap("ObjectWithAllTypes.Missing",
+				nullValue())));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestRootOnlyPath() {
+		assertThat(new ObjectWithAllTypes(), hasPaths(Collections.singletonMap("ObjectWithAllTypes", nullValue())));
+	}
+
+	@Test
+	public void canReportEveryFailingPath() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("ObjectWithAllTypes.StringValue", equalTo("Elm"));
+		paths.put("ObjectWithAllTypes.IntValue", equalTo(tree.getIntValue()));
+		paths.put("ObjectWithAllTypes.Object.Missing", nullValue());
+		StringDescription description = new StringDescription();
+		hasPaths(paths).describeMismatch(tree, description);
+		assertThat(description.toString(), containsString("has path 'ObjectWithAllTypes.StringValue'"));
+		assertThat(description.toString(), containsString("does not have path 'ObjectWithAllTypes.Object.Missing'"));
+	}
+
+	@Test
+	public void canTestQuantifiedPath() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("ObjectWithAllTypes.Object.Leaves[*].Value", nullValue());
+		paths.put("ObjectWithAllTypes.Object.Leaves[?].Value", equalTo("Oak"));
+		StringDescription description = new StringDescription();
+		hasPaths(paths).describeMismatch(tree, description);
+		assertThat(description.toString(), equalTo("has path 'ObjectWithAllTypes.Object.Leaves[?].Value' which matches \"Oak\""));
+	}
+
+	@Test
+	public void canFollowSharedPrefixOnce() {
+		CountingObject tree = new CountingObject();
+		Map<String, Matcher<?>> paths = new LinkedHashMap<String, Matcher<?>>();
+		paths.put("CountingObject.Object.Dead", equalTo(false));
+		paths.put("CountingObject.Object.Leaves[0].Value", nullValue());
+		paths.put("countingObject.object.numOfLeaves", nullValue());
+		paths.put("CountingObject.Object.Leaves", equalTo(tree.object.getLeaves()));
+		hasPaths(paths).matches(tree);
+		assertThat(tree.calls, equalTo(1));
+	}
+
+	public static class CountingObject {
+
+		private final SimpleTypeWithList object = new ObjectWithAllTypes().getObject();
+		private int calls;
+
+		public SimpleTypeWithList getObject() {
+			++calls;
+			return object;
+		}
+
+		public void setObject(final SimpleTypeWithList object) {}
+	}
+}
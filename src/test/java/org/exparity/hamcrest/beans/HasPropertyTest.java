@@ -7,8 +7,17 @@ import static org.exparity.stub.random.RandomBuilder.aRandomString;
 import static org.exparity.stub.random.RandomBuilder.path;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithSimpleType;
 import org.testng.annotations.Test;
 
 /**
@@ -32,4 +41,107 @@ public class HasPropertyTest {
 		assertThat(tree, hasProperty("StringValue", equalTo(wrongValue)));
 	}
 
+	@Test
+	public void canTestNestedProperty() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		tree.getObject().getLeaves().get(0).setValue("Leaf");
+		assertThat(tree, hasProperty("Value", equalTo("Leaf")));
+	}
+
+	@Test
+	public void canTestPropertyIgnoringCase() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(tree, hasProperty("stringvalue", equalTo(tree.getStringValue())));
+	}
+
+	@Test
+	public void canTestPropertyNearestTheRoot() {
+		SimpleTypeWithSimpleType tree = new SimpleTypeWithSimpleType(new SimpleType("Inner"));
+		assertThat(tree, hasProperty("Value", equalTo(new SimpleType("Inner"))));
+	}
+
+	@Test
+	public void canTestPropertyInMap() {
+		Map<String, Object> tree = new HashMap<String, Object>();
+		tree.put("Key", new SimpleType("Mapped"));
+		assertThat(tree, hasProperty("Value", equalTo("Mapped")));
+	}
+
+	@Test
+	public void canTestPropertyInArray() {
+		SimpleType[] tree = new SimpleType[] { null, new SimpleType("Element") };
+		assertThat(tree, hasProperty("Value", equalTo("Element")));
+	}
+
+	@Test
+	public void canTestPropertyInCycle() {
+		List<Object> tree = new ArrayList<Object>();
+		tree.add(tree);
+		tree.add(Arrays.asList(tree, new SimpleType("Cycle")));
+		assertThat(tree, hasProperty("Value", equalTo("Cycle")));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canTestMissingPropertyInCycle() {
+		List<Object> tree = new ArrayList<Object>();
+		tree.add(tree);
+		tree.add(new SimpleType("Cycle"));
+		assertThat(tree, hasProperty("Missing", nullValue()));
+	}
+
+	@Test
+	public void canTestPropertyOfObject() {
+		Envelope tree = new Envelope(new SimpleType("Payload"));
+		assertThat(tree, hasProperty("Value", equalTo("Payload")));
+	}
+
+	@Test
+	public void canTestPropertyInListOfObject() {
+		List<Object> payload = new ArrayList<Object>();
+		payload.add("Other");
+		payload.add(new SimpleType("Element"));
+		Envelope tree = new Envelope(payload);
+		assertThat(tree, hasProperty("Value", equalTo("Element")));
+	}
+
+	@Test
+	public void canTestPropertyInGenericListOfObject() {
+		List<Object> payload = new ArrayList<Object>();
+		payload.add(new SimpleType("Element"));
+		assertThat(new Batch(payload), hasProperty("Value", equalTo("Element")));
+	}
+
+	public static class Envelope {
+
+		private Object payload;
+
+		public Envelope(final Object payload) {
+			this.payload = payload;
+		}
+
+		public Object getPayload() {
+			return payload;
+		}
+
+		public void setPayload(final Object payload) {
+			this.payload = payload;
+		}
+	}
+
+	public static class Batch {
+
+		private List<Object> payloads;
+
+		public Batch(final List<Object> payloads) {
+			this.payloads = payloads;
+		}
+
+		public List<Object> getPayloads() {
+			return payloads;
+		}
+
+		public void setPayloads(final List<Object> payloads) {
+			this.payloads = payloads;
+		}
+	}
 }
@@ -0,0 +1,64 @@
+
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.hasPath;
+import static org.exparity.hamcrest.BeanMatchers.hasProperty;
+import static org.exparity.hamcrest.BeanMatchers.indexed;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for IndexedBean
+ *
+ * @author Stewart Bissett
+ */
+public class IndexedBeanTest {
+
+	@Test
+	public void canMatchIndexedBean() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(indexed(tree), allOf(hasPath("ObjectWithAllTypes.StringValue", equalTo(tree.getStringValue())),
+				hasPath("ObjectWithAllTypes.Object.Leaves[*].Value", nullValue()),
+				hasProperty("Dead", equalTo(false))));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canMatchIndexedBeanWithWrongValue() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(indexed(tree), hasPath("ObjectWithAllTypes.Object.Dead", equalTo(true)));
+	}
+
+	@Test
+	public void canReadEachPropertyOnce() {
+		CountingObject tree = new CountingObject();
+		assertThat(indexed(tree), allOf(hasPath("CountingObject.Object.Dead", equalTo(false)),
+				hasPath("CountingObject.Object.Leaves[0].Value", nullValue()), hasProperty("Dead", equalTo(false)),
+				hasProperty("Leaves", equalTo(tree.object.getLeaves()))));
+		assertThat(tree.calls, equalTo(1));
+	}
+
+	@Test
+	public void canDescribeAsItem() {
+		ObjectWithAllTypes tree = new ObjectWithAllTypes();
+		assertThat(indexed(tree).toString(), equalTo(tree.toString()));
+	}
+
+	public static class CountingObject {
+
+		private final SimpleTypeWithList object = new ObjectWithAllTypes().getObject();
+		private int calls;
+
+		public SimpleTypeWithList getObject() {
+			++calls;
+			return object;
+		}
+
+		public void setObject(final SimpleTypeWithList object) {}
+	}
+}
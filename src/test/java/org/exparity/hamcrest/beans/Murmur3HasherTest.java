@@ -0,0 +1,43 @@
+package org.exparity.hamcrest.beans;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link Murmur3Hasher}
+ *
+ * @author Stewart Bissett
+ */
+public class Murmur3HasherTest {
+
+	@Test
+	public void canHashEmpty() {
+		long[] hash = new Murmur3Hasher().finish();
+		assertThat(hash[0], equalTo(0L));
+		assertThat(hash[1], equalTo(0L));
+	}
+
+	@Test
+	public void canHashKnownValue() {
+		Murmur3Hasher hasher = new Murmur3Hasher();
+		for (byte b : "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)) {
+			hasher.putByte(b);
+		}
+		long[] hash = hasher.finish();
+		assertThat(hash[0], equalTo(0xe34bbc7bbc071b6cL));
+		assertThat(hash[1], equalTo(0x7a433ca9c49a9347L));
+	}
+
+	@Test
+	public void canResetHasher() {
+		Murmur3Hasher hasher = new Murmur3Hasher();
+		long[] first = hasher.putString("A value longer than a single block").finish();
+		long[] second = hasher.reset().putString("A value longer than a single block").finish();
+		assertThat(second[0], equalTo(first[0]));
+		assertThat(second[1], equalTo(first[1]));
+	}
+}
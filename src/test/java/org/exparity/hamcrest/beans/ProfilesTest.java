@@ -0,0 +1,88 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Date;
+
+import org.exparity.hamcrest.beans.TheSameAs.PropertyType;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link Profiles}
+ *
+ * @author Stewart Bissett
+ */
+public class ProfilesTest {
+
+	@Test
+	public void canShareProfiles() {
+		assertThat(Profiles.defaults(), sameInstance(ComparisonConfiguration.DEFAULTS));
+		assertThat(Profiles.beanProperties(), sameInstance(ComparisonConfiguration.defaults(PropertyType.BEAN)));
+		assertThat(Profiles.entityComparison(), sameInstance(Profiles.entityComparison()));
+	}
+
+	@Test
+	public void canCompareSavedEntity() {
+		Entity expected = new Entity(null, 0, new Date(1000000L), "Oak");
+		Entity saved = new Entity(1234L, 1, new Date(1000999L), "Oak");
+		assertThat(saved, not(theSameAs(expected)));
+		assertThat(saved, theSameAs(expected, Profiles.entityComparison()));
+	}
+
+	@Test
+	public void canCompareDifferentSavedEntity() {
+		Entity expected = new Entity(null, 0, new Date(1000000L), "Oak");
+		assertThat(new Entity(1234L, 1, new Date(1000000L), "Ash"), not(theSameAs(expected, Profiles
+				.entityComparison())));
+		assertThat(new Entity(1234L, 1, new Date(1001000L), "Oak"), not(theSameAs(expected, Profiles
+				.entityComparison())));
+		assertThat(new Entity(1234L, 1, new Date(1000000L), "Ash"), theSameAs(expected, Profiles.entityComparison()
+				.excludeProperty("Name")));
+	}
+
+	@Test
+	public void canCompareApproximateNumbers() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setDoubleValue(expected.getDoubleValue() + 0.0001);
+		actual.setFloatValue(expected.getFloatValue() + 0.0001f);
+		assertThat(actual, not(theSameAs(expected)));
+		assertThat(actual, theSameAs(expected, Profiles.approximateNumbers(0.001)));
+		assertThat(actual, not(theSameAs(expected, Profiles.approximateNumbers(0.00001))));
+	}
+
+	public static class Entity {
+
+		private final Long id;
+		private final int version;
+		private final Date created;
+		private final String name;
+
+		public Entity(final Long id, final int version, final Date created, final String name) {
+			this.id = id;
+			this.version = version;
+			this.created = created;
+			this.name = name;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public int getVersion() {
+			return version;
+		}
+
+		public Date getCreated() {
+			return created;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+}
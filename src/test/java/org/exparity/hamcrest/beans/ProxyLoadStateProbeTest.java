@@ -0,0 +1,206 @@
+package org.exparity.hamcrest.beans;
+
+import static java.util.Arrays.asList;
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link ProxyLoadStateProbe} and the comparison of values which
+ * are not loaded. The proxy and collection are stand-ins for those of an ORM
+ * which fail if they are read before they are loaded.
+ *
+ * @author Stewart Bissett
+ */
+public class ProxyLoadStateProbeTest {
+
+	private final LoadStateProbe probe = new ProxyLoadStateProbe();
+
+	@Test
+	public void canDetectUnloadedProxy() {
+		assertThat(probe.isLoaded(proxyOf(1L, null)), equalTo(false));
+		assertThat(probe.isLoaded(proxyOf(1L, "Bob")), equalTo(true));
+		assertThat(probe.isLoaded(new Customer(1L, "Bob")), equalTo(true));
+		assertThat(probe.isLoaded("Bob"), equalTo(true));
+	}
+
+	@Test
+	public void canDetectUnloadedCollection() {
+		assertThat(probe.isLoaded(new LazyList<String>(null)), equalTo(false));
+		assertThat(probe.isLoaded(new LazyList<String>(asList("A"))), equalTo(true));
+		assertThat(probe.isLoaded(new ArrayList<String>()), equalTo(true));
+	}
+
+	@Test
+	public void canReadIdentifierWithoutLoading() {
+		assertThat(probe.identifierOf(proxyOf(1L, null)), equalTo((Object) 1L));
+		assertThat(probe.identifierOf(new Customer(2L, "Bob")), equalTo((Object) 2L));
+		assertThat(probe.identifierOf("Bob"), nullValue());
+	}
+
+	@Test
+	public void canUnwrapProxyClass() {
+		assertThat(probe.unwrap(Customer$HibernateProxy$Stub.class), equalTo((Object) Customer.class));
+		assertThat(probe.unwrap(Customer.class), equalTo((Object) Customer.class));
+		assertThat(probe.unwrap(String.class), equalTo((Object) String.class));
+	}
+
+	@Test
+	public void canSkipUnloadedAssociations() {
+		Order expected = new Order(new Customer(1L, "Bob"), asList("A", "B"));
+		Order actual = new Order(proxyOf(2L, null), new LazyList<String>(null));
+		ComparisonMetrics metrics = new ComparisonMetrics();
+		assertThat(actual, theSameAs(expected).skipUnloaded(probe).collectMetrics(metrics));
+		assertThat(metrics.getNodesVisited(NodeKind.UNLOADED), equalTo(2L));
+	}
+
+	@Test
+	public void canCompareUnloadedIds() {
+		Order expected = new Order(new Customer(1L, "Bob"), asList("A", "B"));
+		assertThat(new Order(proxyOf(1L, null), new LazyList<String>(null)), theSameAs(expected).compareUnloadedIds(
+				probe));
+		TheSameAs<Order> matcher = theSameAs(expected, "Order").compareUnloadedIds(probe);
+		Order actual = new Order(proxyOf(2L, null), new LazyList<String>(null));
+		assertThat(actual, not(matcher));
+		StringDescription mismatch = new StringDescription();
+		matcher.describeMismatch(actual, mismatch);
+		assertThat(mismatch.toString(), equalTo("Order.Customer is <2L> instead of <1L>"));
+	}
+
+	@Test
+	public void canCompareLoadedProxyAsRealClass() {
+		Order expected = new Order(proxyOf(1L, "Bob"), asList("A"));
+		Order actual = new Order(new Customer(1L, "Bob"), new LazyList<String>(asList("A")));
+		assertThat(actual, theSameAs(expected).skipUnloaded(probe));
+		assertThat(new Order(new Customer(1L, "Jane"), asList("A")), not(theSameAs(expected).skipUnloaded(probe)));
+	}
+
+	private static Customer proxyOf(final long id, final String name) {
+		return new Customer$HibernateProxy$Stub(id, name);
+	}
+
+	public static class Order {
+
+		private final Customer customer;
+		private final List<String> lines;
+
+		public Order(final Customer customer, final List<String> lines) {
+			this.customer = customer;
+			this.lines = lines;
+		}
+
+		public Customer getCustomer() {
+			return customer;
+		}
+
+		public List<String> getLines() {
+			return lines;
+		}
+	}
+
+	public static class Customer {
+
+		private final Long id;
+		private final String name;
+
+		public Customer(final Long id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	/**
+	 * Stand-in for a proxy generated by Hibernate, which is loaded if it was
+	 * created with a name
+	 */
+	public static class Customer$HibernateProxy$Stub extends Customer {
+
+		private final Initializer initializer;
+
+		public Customer$HibernateProxy$Stub(final Long id, final String name) {
+			super(id, name);
+			this.initializer = new Initializer(id, name == null);
+		}
+
+		public Initializer getHibernateLazyInitializer() {
+			return initializer;
+		}
+
+		@Override
+		public Long getId() {
+			return initializer.getIdentifier();
+		}
+
+		@Override
+		public String getName() {
+			if (initializer.isUninitialized()) {
+				throw new IllegalStateException("Proxy loaded");
+			}
+			return super.getName();
+		}
+	}
+
+	public static class Initializer {
+
+		private final Long identifier;
+		private final boolean uninitialized;
+
+		public Initializer(final Long identifier, final boolean uninitialized) {
+			this.identifier = identifier;
+			this.uninitialized = uninitialized;
+		}
+
+		public Long getIdentifier() {
+			return identifier;
+		}
+
+		public boolean isUninitialized() {
+			return uninitialized;
+		}
+	}
+
+	/**
+	 * Stand-in for a lazy collection, which is loaded if it was created with
+	 * elements
+	 */
+	@SuppressWarnings("serial")
+	public static class LazyList<E> extends ArrayList<E> {
+
+		private final boolean initialized;
+
+		public LazyList(final Collection<E> elements) {
+			super(elements != null ? elements : new ArrayList<E>());
+			this.initialized = elements != null;
+		}
+
+		public boolean wasInitialized() {
+			return initialized;
+		}
+
+		@Override
+		public int size() {
+			if (!initialized) {
+				throw new IllegalStateException("Collection loaded");
+			}
+			return super.size();
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph.Node;
+import org.testng.annotations.Test;
+
+/**
+ * Scale tests for {@link TheSameAs} which compare graphs of millions of nodes
+ * within a time limit. They are in the <code>soak</code> group, which is
+ * excluded from the default build, and are run under a small heap with
+ * <code>mvn test -Psoak</code>. The number of nodes in the largest graphs can
+ * be changed with <code>-Dsoak.nodes</code>.
+ *
+ * @author Stewart Bissett
+ */
+@Test(groups = "soak")
+public class TheSameAsSoakTest {
+
+	private static final long NODES = Long.getLong("soak.nodes", 1000000L);
+
+	@Test(timeOut = 300000)
+	public void canCompareLargeGraph() {
+		SyntheticGraph graph = wideGraph().collectionSize(2);
+		assertThat(graph.size(), greaterThan(NODES - 1));
+		assertThat(graph.actual(), theSameAs(graph.expected()));
+	}
+
+	@Test(timeOut = 300000)
+	public void canCountDifferencesInLargeGraph() {
+		SyntheticGraph graph = wideGraph().mismatchRate(0.001);
+		assertThat(countDifferences(graph, ComparisonConfiguration.DEFAULTS), equalTo(graph.mismatches()));
+	}
+
+	@Test(timeOut = 300000)
+	public void canCompareLargeCyclicGraph() {
+		SyntheticGraph graph = wideGraph().cycleDensity(0.05).mismatchRate(0.0001);
+		assertThat(countDifferences(graph, ComparisonConfiguration.DEFAULTS), equalTo(graph.mismatches()));
+	}
+
+	@Test(timeOut = 300000)
+	public void canCompareLargeGraphInParallel() {
+		SyntheticGraph graph = wideGraph().mismatchRate(0.001);
+		assertThat(countDifferences(graph, ComparisonConfiguration.DEFAULTS.inParallel(1)), equalTo(graph
+				.mismatches()));
+	}
+
+	@Test(timeOut = 300000)
+	public void canCompareDeepGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(7).depth(20000).cycleDensity(0.1).mismatchRate(0.01);
+		assertThat(countDifferences(graph, ComparisonConfiguration.DEFAULTS), equalTo(graph.mismatches()));
+	}
+
+	/**
+	 * Return a graph with a fan out of 10 and at least the configured number
+	 * of nodes
+	 */
+	private static SyntheticGraph wideGraph() {
+		int depth = 1;
+		for (long size = 1, level = 1; size < NODES; size += level) {
+			level *= 10;
+			++depth;
+		}
+		return SyntheticGraph.withSeed(42).depth(depth).fanOut(10);
+	}
+
+	private static long countDifferences(final SyntheticGraph graph, final ComparisonConfiguration configuration) {
+		final long[] count = new long[1];
+		BeanDiff.beanDiff(configuration).compare(graph.expected(), graph.actual(), new DifferenceListener() {
+
+			@Override
+			public void onDifference(final Difference difference) {
+				++count[0];
+			}
+		});
+		return count[0];
+	}
+}
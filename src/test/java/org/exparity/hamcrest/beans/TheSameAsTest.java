@@ -2,21 +2,39 @@ package org.exparity.hamcrest.beans;
 
 import static java.util.Collections.singletonMap;
 import static org.apache.commons.lang.time.DateUtils.addDays;
+import static org.exparity.hamcrest.BeanComparators.isCloseTo;
+import static org.exparity.hamcrest.BeanComparators.isRelativelyCloseTo;
+import static org.exparity.hamcrest.BeanComparators.isWithinUlps;
 import static org.exparity.hamcrest.BeanMatchers.theSameAs;
 import static org.exparity.stub.random.RandomBuilder.aRandomInstanceOf;
 import static org.exparity.stub.random.RandomBuilder.aRandomString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 
+import java.io.File;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.exparity.hamcrest.BeanMatchers;
+import org.exparity.hamcrest.beans.TheSameAs.LongPropertyComparator;
 import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
 import org.exparity.hamcrest.beans.comparators.HasPattern;
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
 import org.exparity.hamcrest.beans.testutils.types.*;
+import org.hamcrest.StringDescription;
 import org.testng.annotations.Test;
 
 /**
@@ -340,6 +358,68 @@ public class TheSameAsTest {
 		assertThat(sample, theSameAs(reference).compareType(String.class, new HasPattern("O.*")));
 	}
 
+	@Test
+	public void canCompareDoublePropertiesWithinTolerance() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setDoubleValue(reference.getDoubleValue() + 0.0001);
+		sample.setFloatValue(reference.getFloatValue() * 1.001f);
+		assertThat(sample, not(theSameAs(reference)));
+		assertThat(sample, theSameAs(reference).compareType(Double.class, isCloseTo(0.001)).compareProperty(
+				"FloatValue", isRelativelyCloseTo(0.01)));
+	}
+
+	@Test
+	public void canCompareDoublePropertiesOutsideTolerance() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setDoubleValue(4.57);
+		StringDescription mismatch = new StringDescription();
+		TheSameAs<ObjectWithAllTypes> matcher = theSameAs(reference).compareType(Double.class, isWithinUlps(4));
+		assertThat(matcher.matches(sample), equalTo(false));
+		matcher.describeMismatch(sample, mismatch);
+		assertThat(mismatch.toString(), containsString("ObjectWithAllTypes.DoubleValue is <4.57> instead of <4.56>"));
+	}
+
+	@Test
+	public void canComparePrimitivePropertiesWithLongComparator() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setIntValue(reference.getIntValue() + 1);
+		sample.setLongValue(reference.getLongValue() - 1);
+		assertThat(sample, theSameAs(reference).compareType(Integer.class, new LongPropertyComparator() {
+
+			@Override
+			public boolean matches(final long lhs, final long rhs) {
+				return Math.abs(lhs - rhs) <= 1;
+			}
+		}).compareProperty("LongValue", new LongPropertyComparator() {
+
+			@Override
+			public boolean matches(final long lhs, final long rhs) {
+				return Math.abs(lhs - rhs) <= 1;
+			}
+		}));
+	}
+
+	@Test
+	public void canComparePrimitivePropertiesWithBoxedComparator() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setIntValue(reference.getIntValue() + 1);
+		assertThat(sample, theSameAs(reference).compareProperty("IntValue", new PropertyComparator<Integer>() {
+
+			@Override
+			public boolean matches(final Integer lhs, final Integer rhs) {
+				return lhs > 0 && rhs > 0;
+			}
+		}));
+	}
+
+	@Test
+	public void canExcludeDifferentBooleanProperties() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setBooleanValue(!reference.getBooleanValue());
+		assertThat(sample, not(theSameAs(reference)));
+		assertThat(sample, theSameAs(reference).excludeProperty("BooleanValue"));
+	}
+
 	@Test
 	public void canOverrideTypeComparator() {
 		ObjectWithAllTypes reference = new ObjectWithAllTypes();
@@ -525,4 +605,109 @@ public class TheSameAsTest {
 		assertThat(actual, theSameAs(reference));
 	}
 
+	@Test
+	public void canCompareInParallel() {
+		assertThat(aListOfSimpleTypes(1000, -1), theSameAs(aListOfSimpleTypes(1000, -1)).inParallel(10));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canCompareDifferentInParallel() {
+		assertThat(aListOfSimpleTypes(1000, 500), theSameAs(aListOfSimpleTypes(1000, -1)).inParallel(10));
+	}
+
+	@Test
+	public void canReportParallelMismatchesInSequentialOrder() {
+		List<SimpleTypeWithList> expected = new ArrayList<SimpleTypeWithList>(), actual = new ArrayList<SimpleTypeWithList>();
+		for (int i = 0; i < 50; ++i) {
+			expected.add(new SimpleTypeWithList(true, aListOfSimpleTypes(100, -1)));
+			actual.add(new SimpleTypeWithList(true, aListOfSimpleTypes(100, i)));
+		}
+		StringDescription sequential = new StringDescription(), parallel = new StringDescription();
+		theSameAs(expected).describeMismatch(actual, sequential);
+		theSameAs(expected).inParallel(4).describeMismatch(actual, parallel);
+		assertThat(parallel.toString(), equalTo(sequential.toString()));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectZeroParallelThreshold() {
+		theSameAs(aRandomString()).inParallel(0);
+	}
+
+	@Test
+	public void canOverrideWithoutChangingOriginalMatcher() {
+		ObjectWithAllTypes reference = new ObjectWithAllTypes(), sample = new ObjectWithAllTypes();
+		sample.setIntValue(reference.getIntValue() + 1);
+		TheSameAs<ObjectWithAllTypes> original = theSameAs(reference);
+		TheSameAs<ObjectWithAllTypes> excluded = original.excludeProperty("IntValue");
+		assertThat(sample, not(original));
+		assertThat(sample, excluded);
+	}
+
+	@Test
+	public void canShareMatcherBetweenThreads() throws Exception {
+		final TheSameAs<List<SimpleType>> matcher = theSameAs(aListOfSimpleTypes(100, -1)).excludeProperty("Class");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 20; ++i) {
+				final int differentAt = i % 2 == 0 ? -1 : i;
+				results.add(executor.submit(new Callable<Boolean>() {
+
+					@Override
+					public Boolean call() {
+						return matcher.matches(aListOfSimpleTypes(100, differentAt));
+					}
+				}));
+			}
+			for (int i = 0; i < results.size(); ++i) {
+				assertThat(results.get(i).get(), equalTo(i % 2 == 0));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void canReportDifferencesToFile() throws Exception {
+		File report = File.createTempFile("differences", ".jsonl");
+		report.deleteOnExit();
+		List<SimpleType> actual = aListOfSimpleTypes(100, -1);
+		for (SimpleType item : actual) {
+			item.setValue("X" + item.getValue());
+		}
+		StringDescription mismatch = new StringDescription();
+		theSameAs(aListOfSimpleTypes(100, -1), "List").reportTo(report).describeMismatch(actual, mismatch);
+		assertThat(mismatch.toString(), equalTo("100 differences written to " + report.getAbsolutePath()
+				+ ". First difference is List[0].Value is \"XA00000\" instead of \"A00000\""));
+		assertThat(Files.readAllLines(report.toPath(), StandardCharsets.UTF_8).size(), equalTo(100));
+	}
+
+	@Test
+	public void canReportNoDifferencesToFile() throws Exception {
+		File report = File.createTempFile("differences", ".jsonl");
+		report.deleteOnExit();
+		assertThat(aListOfSimpleTypes(100, -1), theSameAs(aListOfSimpleTypes(100, -1)).reportTo(report));
+	}
+
+	@Test
+	public void canCompareDeepGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000);
+		assertThat(graph.actual(), theSameAs(graph.expected()));
+	}
+
+	@Test
+	public void canOverridePropertyDeepInGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000).mismatchRate(0.01);
+		assertThat(graph.actual(), not(theSameAs(graph.expected())));
+		assertThat(graph.actual(), theSameAs(graph.expected()).excludeProperty("Value"));
+	}
+
+	private static List<SimpleType> aListOfSimpleTypes(final int size, final int differentAt) {
+		List<SimpleType> list = new ArrayList<SimpleType>();
+		for (int i = 0; i < size; ++i) {
+			list.add(new SimpleType(String.format(i == differentAt ? "X%05d" : "A%05d", i)));
+		}
+		return list;
+	}
+
 }
@@ -0,0 +1,60 @@
+package org.exparity.hamcrest.beans;
+
+import static org.exparity.hamcrest.BeanMatchers.theSameHashAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+import org.exparity.hamcrest.beans.testutils.graphs.SyntheticGraph;
+import org.exparity.hamcrest.beans.testutils.types.ObjectWithAllTypes;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link TheSameHashAs}
+ *
+ * @author Stewart Bissett
+ */
+public class TheSameHashAsTest {
+
+	@Test
+	public void canMatchDigest() {
+		assertThat(new ObjectWithAllTypes(), theSameHashAs(BeanDigest.of(new ObjectWithAllTypes())));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canMatchDifferentDigest() {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		assertThat(actual, theSameHashAs(BeanDigest.of(new ObjectWithAllTypes())));
+	}
+
+	@Test
+	public void canMatchDigestWithConfiguration() {
+		ObjectWithAllTypes actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		ComparisonConfiguration configuration = new ComparisonConfiguration().excludeProperty("StringValue");
+		assertThat(actual, TheSameHashAs.theSameHashAs(BeanDigest.of(new ObjectWithAllTypes(), configuration),
+				configuration));
+	}
+
+	@Test
+	public void canMatchDeepGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000);
+		assertThat(graph.actual(), theSameHashAs(BeanDigest.of(graph.expected())));
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void canMatchDifferentDeepGraph() {
+		SyntheticGraph graph = SyntheticGraph.withSeed(11).depth(10000).mismatchRate(0.01);
+		assertThat(graph.actual(), theSameHashAs(BeanDigest.of(graph.expected())));
+	}
+
+	@Test
+	public void canDescribeDifferencesFromExpected() {
+		ObjectWithAllTypes expected = new ObjectWithAllTypes(), actual = new ObjectWithAllTypes();
+		actual.setStringValue("Other");
+		StringDescription mismatch = new StringDescription();
+		theSameHashAs(BeanDigest.of(expected)).orTheSameAs(expected).describeMismatch(actual, mismatch);
+		assertThat(mismatch.toString(), containsString("ObjectWithAllTypes.StringValue is \"Other\" instead of \"Oak\""));
+	}
+}
@@ -0,0 +1,126 @@
+package org.exparity.hamcrest.beans;
+
+import static java.util.Arrays.asList;
+import static org.exparity.hamcrest.BeanMatchers.theSameAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.exparity.hamcrest.BeanComparators;
+import org.exparity.hamcrest.beans.ComparisonMetrics.NodeKind;
+import org.exparity.hamcrest.beans.TheSameAs.PropertyComparator;
+import org.exparity.hamcrest.beans.testutils.types.SimpleType;
+import org.exparity.hamcrest.beans.testutils.types.SimpleTypeWithList;
+import org.testng.annotations.Test;
+
+/**
+ * Unit Test for {@link TraversalListener}
+ *
+ * @author Stewart Bissett
+ */
+public class TraversalListenerTest {
+
+	@Test
+	public void canTraceNodes() {
+		RecordingListener tracer = new RecordingListener();
+		assertThat(tree("A", "B"), theSameAs(tree("A", "B")).traceWith(tracer));
+		assertThat(tracer.compared, hasItems("SimpleTypeWithList", "SimpleTypeWithList.Leaves",
+				"SimpleTypeWithList.Leaves[0]", "SimpleTypeWithList.Leaves[1].Value"));
+		assertThat(tracer.nodes, hasItems("SimpleTypeWithList as BEAN", "SimpleTypeWithList.Leaves as LIST",
+				"SimpleTypeWithList.Leaves[1] as BEAN", "SimpleTypeWithList.Dead as VALUE",
+				"SimpleTypeWithList.Leaves[1].Value as COMPARATOR"));
+		assertThat(tracer.unsorted, empty());
+	}
+
+	@Test
+	public void canTraceComparators() {
+		RecordingListener tracer = new RecordingListener();
+		assertThat(tree("a"), theSameAs(tree("A")).compareProperty("Value", BeanComparators.isEqualIgnoreCase())
+				.traceWith(tracer));
+		assertThat(tracer.comparators, hasItem("SimpleTypeWithList.Leaves[0].Value using IsEqualIgnoreCase"));
+	}
+
+	@Test
+	public void canTraceUnsortedLists() {
+		RecordingListener tracer = new RecordingListener();
+		Object mixed = Arrays.<Object> asList(new SimpleType("A"), tree("B"));
+		assertThat(mixed, theSameAs(mixed).traceWith(tracer));
+		assertThat(tracer.unsorted, contains("ArrayList", "ArrayList"));
+	}
+
+	@Test
+	public void canTraceParallelComparison() {
+		RecordingListener tracer = new RecordingListener();
+		assertThat(tree("A", "B", "C"), theSameAs(tree("A", "B", "C")).inParallel(2).traceWith(tracer));
+		assertThat(tracer.parallel, hasItems("SimpleTypeWithList.Leaves", "SimpleTypeWithList"));
+		assertThat(tracer.nodes, hasItem("SimpleTypeWithList.Leaves[2] as BEAN"));
+	}
+
+	@Test
+	public void canTraceSnapshotComparison() throws Exception {
+		File file = File.createTempFile("tree", ".snapshot");
+		file.deleteOnExit();
+		GraphSnapshot.record(tree("A", "B"), file);
+		RecordingListener tracer = new RecordingListener();
+		assertThat(tree("A", "B"), TheSameAsSnapshot.theSameAsSnapshot(GraphSnapshot.open(file),
+				ComparisonConfiguration.DEFAULTS.traceWith(tracer)));
+		assertThat(tracer.nodes, hasItems("SimpleTypeWithList as BEAN", "SimpleTypeWithList.Leaves as LIST",
+				"SimpleTypeWithList.Leaves[1].Value as COMPARATOR"));
+	}
+
+	@Test
+	public void canTraceToLog() {
+		Object mixed = Arrays.<Object> asList(new SimpleType("A"), tree("B"));
+		assertThat(mixed, theSameAs(mixed).inParallel(1).traceWith(new LoggingTraversalListener()));
+	}
+
+	private static SimpleTypeWithList tree(final String... values) {
+		SimpleType[] leaves = new SimpleType[values.length];
+		for (int i = 0; i < values.length; ++i) {
+			leaves[i] = new SimpleType(values[i]);
+		}
+		return new SimpleTypeWithList(false, asList(leaves));
+	}
+
+	private static class RecordingListener implements TraversalListener {
+
+		private final List<String> compared = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> nodes = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> comparators = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> parallel = Collections.synchronizedList(new ArrayList<String>());
+		private final List<String> unsorted = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public void onCompare(final String path, final Object expected, final Object actual) {
+			compared.add(path);
+		}
+
+		@Override
+		public void onNode(final String path, final NodeKind kind) {
+			nodes.add(path + " as " + kind);
+		}
+
+		@Override
+		public void onComparator(final String path, final PropertyComparator<?> comparator) {
+			comparators.add(path + " using " + comparator.getClass().getSimpleName());
+		}
+
+		@Override
+		public void onParallel(final String path, final int size) {
+			parallel.add(path);
+		}
+
+		@Override
+		public void onUnsorted(final String path, final Exception cause) {
+			unsorted.add(path);
+		}
+	}
+}
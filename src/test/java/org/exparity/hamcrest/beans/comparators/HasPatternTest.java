@@ -0,0 +1,89 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HasPattern}
+ * 
+ * @author Stewart Bissett
+ */
+public class HasPatternTest {
+
+	@Test
+	public void canMatchPattern() {
+		assertThat(new HasPattern("O.*").matches("Oak", "Olive"), equalTo(true));
+		assertThat(new HasPattern("O.*").matches("Oak", "Ash"), equalTo(false));
+		assertThat(new HasPattern(Pattern.compile("o.*", Pattern.CASE_INSENSITIVE)).matches("Oak", "OLIVE"),
+				equalTo(true));
+	}
+
+	@Test
+	public void canMatchNulls() {
+		assertThat(new HasPattern("O.*").matches(null, null), equalTo(true));
+		assertThat(new HasPattern("O.*").matches(null, "Oak"), equalTo(false));
+		assertThat(new HasPattern("O.*").matches("Oak", null), equalTo(false));
+	}
+
+	@Test
+	public void canDigestMatchingValuesAlike() {
+		assertThat(new HasPattern("O.*").digestValue("Oak"), equalTo(new HasPattern("O.*").digestValue("Olive")));
+		assertThat(new HasPattern("O.*").digestValue("Ash"), equalTo((Object) "Ash"));
+	}
+
+	@Test
+	public void canShareCompiledPatterns() {
+		assertThat(HasPattern.compile("A[0-9]+"), sameInstance(HasPattern.compile("A[0-9]+")));
+		assertThat(HasPattern.compile("A[0-9]+"), not(sameInstance(HasPattern.compile("B[0-9]+"))));
+	}
+
+	@Test
+	public void canBoundPatternCache() {
+		Pattern first = HasPattern.compile("X0");
+		for (int i = 1; i <= HasPattern.CACHE_SIZE; ++i) {
+			HasPattern.compile("X" + i);
+		}
+		assertThat(HasPattern.compile("X0"), not(sameInstance(first)));
+	}
+
+	@Test
+	public void canShareBetweenThreads() throws Exception {
+		final HasPattern comparator = new HasPattern("A[0-9]{5}");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 8; ++i) {
+				final String prefix = i % 2 == 0 ? "A" : "B";
+				results.add(executor.submit(new Callable<Boolean>() {
+
+					@Override
+					public Boolean call() {
+						boolean all = true;
+						for (int j = 0; j < 10000; ++j) {
+							all &= comparator.matches("A00000", String.format("%s%05d", prefix, j));
+						}
+						return all;
+					}
+				}));
+			}
+			for (int i = 0; i < results.size(); ++i) {
+				assertThat(results.get(i).get(), equalTo(i % 2 == 0));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link IsCloseTo}
+ * 
+ * @author Stewart Bissett
+ */
+public class IsCloseToTest {
+
+	@Test
+	public void canCompareWithinTolerance() {
+		assertThat(new IsCloseTo(0.01).matches(1.0, 1.005), equalTo(true));
+		assertThat(new IsCloseTo(0.01).matches(1.005, 1.0), equalTo(true));
+	}
+
+	@Test
+	public void canCompareOutsideTolerance() {
+		assertThat(new IsCloseTo(0.01).matches(1.0, 1.02), equalTo(false));
+	}
+
+	@Test
+	public void canCompareSpecialValues() {
+		assertThat(new IsCloseTo(0.01).matches(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY), equalTo(true));
+		assertThat(new IsCloseTo(0.01).matches(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), equalTo(false));
+		assertThat(new IsCloseTo(0.01).matches(Double.NaN, Double.NaN), equalTo(true));
+		assertThat(new IsCloseTo(0.01).matches(Double.NaN, 1.0), equalTo(false));
+	}
+
+	@Test
+	public void canCompareBoxedNumbers() {
+		assertThat(new IsCloseTo(0.01).matches(Integer.valueOf(1), Double.valueOf(1.005)), equalTo(true));
+		assertThat(new IsCloseTo(0.01).matches((Number) null, null), equalTo(true));
+		assertThat(new IsCloseTo(0.01).matches(null, Double.valueOf(1.0)), equalTo(false));
+		assertThat(new IsCloseTo(0.01).matches(Double.valueOf(1.0), null), equalTo(false));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectNegativeTolerance() {
+		new IsCloseTo(-0.01);
+	}
+
+}
@@ -7,6 +7,9 @@ import static org.exparity.dates.en.FluentDateTime.JUN;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.util.Date;
+import java.util.TimeZone;
+
 import org.testng.annotations.Test;
 
 /**
@@ -26,9 +29,41 @@ public class IsEqualDateTest {
 		assertThat(new IsEqualDate().matches(JUN(19, 2015).at(1, 0, 0), JUN(19, 2015).at(2, 0, 0)), equalTo(true));
 	}
 
+	@Test
+	public void canCompareSameDateMorningAndAfternoon() {
+		assertThat(new IsEqualDate().matches(JUN(19, 2015).at(1, 0, 0), JUN(19, 2015).at(13, 0, 0)), equalTo(true));
+	}
+
 	@Test
 	public void canCompareDifferentDate() {
 		assertThat(new IsEqualDate().matches(JUN(20, 2015).at(1, 0, 0), JUN(19, 2015).at(1, 0, 0)), equalTo(false));
 	}
 
+	@Test
+	public void canDigestSameDateDifferentTime() {
+		assertThat(new IsEqualDate().digestValue(JUN(19, 2015).at(1, 0, 0)),
+				equalTo(new IsEqualDate().digestValue(JUN(19, 2015).at(2, 0, 0))));
+	}
+
+	@Test
+	public void canDigestDifferentDate() {
+		assertThat(new IsEqualDate().digestValue(JUN(20, 2015).at(1, 0, 0)).equals(
+				new IsEqualDate().digestValue(JUN(19, 2015).at(1, 0, 0))), equalTo(false));
+	}
+
+	@Test
+	public void canCompareInDefaultZoneWhenCreated() {
+		Date lateOn19th = new Date(1434756600000L), earlyOn20th = new Date(1434760200000L);
+		TimeZone original = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			IsEqualDate inUtc = new IsEqualDate();
+			TimeZone.setDefault(TimeZone.getTimeZone("GMT-02:00"));
+			assertThat(inUtc.matches(lateOn19th, earlyOn20th), equalTo(false));
+			assertThat(new IsEqualDate().matches(lateOn19th, earlyOn20th), equalTo(true));
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
 }
@@ -0,0 +1,135 @@
+/**
+ * 
+ */
+package org.exparity.hamcrest.beans.comparators;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.time.temporal.ChronoUnit.WEEKS;
+import static org.exparity.dates.en.FluentDateTime.JUN;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link IsEqualTruncatedTo}
+ * 
+ * @author Stewart Bissett
+ */
+public class IsEqualTruncatedToTest {
+
+	private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+	@Test
+	public void canCompareDatesOnSameDay() {
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS).matches(JUN(19, 2015).at(1, 0, 0), JUN(19, 2015).at(23, 0, 0)),
+				equalTo(true));
+	}
+
+	@Test
+	public void canCompareDatesOnDifferentDays() {
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS).matches(JUN(19, 2015).at(23, 0, 0), JUN(20, 2015).at(1, 0, 0)),
+				equalTo(false));
+	}
+
+	@Test
+	public void canCompareDatesInZone() {
+		Date lhs = Date.from(Instant.parse("2015-06-19T23:30:00Z")), rhs = Date.from(Instant.parse("2015-06-20T00:30:00Z"));
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS, ZoneOffset.UTC).matches(lhs, rhs), equalTo(false));
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS, LONDON).matches(lhs, rhs), equalTo(true));
+	}
+
+	@Test
+	public void canCompareInstantsToTheMinute() {
+		IsEqualTruncatedTo<Instant> comparator = new IsEqualTruncatedTo<Instant>(MINUTES, LONDON);
+		assertThat(comparator.matches(Instant.parse("2015-06-19T10:15:01Z"), Instant.parse("2015-06-19T10:15:59Z")),
+				equalTo(true));
+		assertThat(comparator.matches(Instant.parse("2015-06-19T10:15:59Z"), Instant.parse("2015-06-19T10:16:00Z")),
+				equalTo(false));
+	}
+
+	@Test
+	public void canCompareInstantsToTheMillisecond() {
+		IsEqualTruncatedTo<Instant> comparator = new IsEqualTruncatedTo<Instant>(MILLIS);
+		assertThat(comparator.matches(Instant.parse("2015-06-19T10:15:01.123001Z"),
+				Instant.parse("2015-06-19T10:15:01.123999Z")), equalTo(true));
+		assertThat(comparator.matches(Instant.parse("2015-06-19T10:15:01.123999Z"),
+				Instant.parse("2015-06-19T10:15:01.124Z")), equalTo(false));
+	}
+
+	@Test
+	public void canCompareInstantsBeforeEpoch() {
+		IsEqualTruncatedTo<Instant> comparator = new IsEqualTruncatedTo<Instant>(DAYS, ZoneOffset.UTC);
+		assertThat(comparator.matches(Instant.parse("1969-12-31T00:00:01Z"), Instant.parse("1969-12-31T23:59:59Z")),
+				equalTo(true));
+		assertThat(comparator.matches(Instant.parse("1969-12-31T23:59:59Z"), Instant.parse("1970-01-01T00:00:00Z")),
+				equalTo(false));
+	}
+
+	@Test
+	public void canCompareLocalDateTimes() {
+		IsEqualTruncatedTo<LocalDateTime> comparator = new IsEqualTruncatedTo<LocalDateTime>(DAYS);
+		assertThat(comparator.matches(LocalDateTime.of(2015, 6, 19, 0, 0), LocalDateTime.of(2015, 6, 19, 23, 59)),
+				equalTo(true));
+		assertThat(comparator.matches(LocalDateTime.of(2015, 6, 19, 23, 59), LocalDateTime.of(2015, 6, 20, 0, 0)),
+				equalTo(false));
+	}
+
+	@Test
+	public void canCompareOffsetDateTimesAtSameInstant() {
+		OffsetDateTime lhs = OffsetDateTime.parse("2015-06-19T23:30:00Z"), rhs = OffsetDateTime
+				.parse("2015-06-20T01:30:00+02:00");
+		assertThat(new IsEqualTruncatedTo<OffsetDateTime>(DAYS, ZoneOffset.UTC).matches(lhs, rhs), equalTo(true));
+	}
+
+	@Test
+	public void canCompareZonedDateTimes() {
+		ZonedDateTime lhs = ZonedDateTime.of(2015, 6, 19, 1, 0, 0, 0, LONDON), rhs = ZonedDateTime.of(2015, 6, 19, 23,
+				0, 0, 0, LONDON);
+		assertThat(new IsEqualTruncatedTo<ZonedDateTime>(DAYS, LONDON).matches(lhs, rhs), equalTo(true));
+	}
+
+	@Test
+	public void canCompareNulls() {
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS).matches(null, null), equalTo(true));
+		assertThat(new IsEqualTruncatedTo<Date>(DAYS).matches(null, new Date()), equalTo(false));
+	}
+
+	@Test
+	public void canDigestSameDay() {
+		IsEqualTruncatedTo<Instant> comparator = new IsEqualTruncatedTo<Instant>(DAYS, LONDON);
+		assertThat(comparator.digestValue(Instant.parse("2015-06-19T01:00:00Z")),
+				equalTo(comparator.digestValue(Instant.parse("2015-06-19T22:00:00Z"))));
+	}
+
+	@Test
+	public void canDigestSameMillisecond() {
+		IsEqualTruncatedTo<Instant> comparator = new IsEqualTruncatedTo<Instant>(MILLIS, LONDON);
+		assertThat(comparator.digestValue(Instant.parse("2015-06-19T10:15:01.123001Z")),
+				equalTo(comparator.digestValue(Instant.parse("2015-06-19T10:15:01.123999Z"))));
+		assertThat(comparator.digestValue(Instant.parse("2015-06-19T10:15:01.123999Z")).equals(
+				comparator.digestValue(Instant.parse("2015-06-19T10:15:01.124Z"))), equalTo(false));
+		assertThat(comparator.digestValue(Instant.parse("1969-12-31T23:59:59.999Z")).equals(
+				comparator.digestValue(Instant.parse("1970-01-01T00:00:00Z"))), equalTo(false));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectUnitLongerThanADay() {
+		new IsEqualTruncatedTo<Date>(WEEKS);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectUnsupportedType() {
+		new IsEqualTruncatedTo<Object>(DAYS).matches("2015-06-19", "2015-06-19");
+	}
+}
@@ -0,0 +1,41 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link IsRelativelyCloseTo}
+ * 
+ * @author Stewart Bissett
+ */
+public class IsRelativelyCloseToTest {
+
+	@Test
+	public void canCompareWithinTolerance() {
+		assertThat(new IsRelativelyCloseTo(0.01).matches(1000.0, 1009.0), equalTo(true));
+		assertThat(new IsRelativelyCloseTo(0.01).matches(0.001, 0.00100999), equalTo(true));
+	}
+
+	@Test
+	public void canCompareOutsideTolerance() {
+		assertThat(new IsRelativelyCloseTo(0.01).matches(1000.0, 1011.0), equalTo(false));
+		assertThat(new IsRelativelyCloseTo(0.01).matches(0.0, 0.001), equalTo(false));
+	}
+
+	@Test
+	public void canCompareSpecialValues() {
+		assertThat(new IsRelativelyCloseTo(0.01).matches(0.0, -0.0), equalTo(true));
+		assertThat(new IsRelativelyCloseTo(0.01).matches(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY),
+				equalTo(true));
+		assertThat(new IsRelativelyCloseTo(0.01).matches(Double.NaN, Double.NaN), equalTo(true));
+		assertThat(new IsRelativelyCloseTo(0.01).matches(1.0, Double.NaN), equalTo(false));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectNegativeTolerance() {
+		new IsRelativelyCloseTo(-0.01);
+	}
+
+}
@@ -0,0 +1,48 @@
+package org.exparity.hamcrest.beans.comparators;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link IsWithinUlps}
+ * 
+ * @author Stewart Bissett
+ */
+public class IsWithinUlpsTest {
+
+	@Test
+	public void canCompareAdjacentDoubles() {
+		assertThat(new IsWithinUlps(1).matches(1.0, Math.nextUp(1.0)), equalTo(true));
+		assertThat(new IsWithinUlps(1).matches(Math.nextUp(1.0), 1.0), equalTo(true));
+		assertThat(new IsWithinUlps(0).matches(1.0, Math.nextUp(1.0)), equalTo(false));
+	}
+
+	@Test
+	public void canCompareRoundingErrors() {
+		assertThat(0.1 + 0.2 == 0.3, equalTo(false));
+		assertThat(new IsWithinUlps(1).matches(0.1 + 0.2, 0.3), equalTo(true));
+	}
+
+	@Test
+	public void canCompareAcrossZero() {
+		assertThat(new IsWithinUlps(0).matches(0.0, -0.0), equalTo(true));
+		assertThat(new IsWithinUlps(2).matches(Double.MIN_VALUE, -Double.MIN_VALUE), equalTo(true));
+		assertThat(new IsWithinUlps(1).matches(Double.MIN_VALUE, -Double.MIN_VALUE), equalTo(false));
+	}
+
+	@Test
+	public void canCompareSpecialValues() {
+		assertThat(new IsWithinUlps(1).matches(Double.MAX_VALUE, Double.POSITIVE_INFINITY), equalTo(true));
+		assertThat(new IsWithinUlps(1).matches(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), equalTo(false));
+		assertThat(new IsWithinUlps(1).matches(Double.NaN, Double.NaN), equalTo(true));
+		assertThat(new IsWithinUlps(1).matches(Double.NaN, 1.0), equalTo(false));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void canRejectNegativeUlps() {
+		new IsWithinUlps(-1);
+	}
+
+}
@@ -0,0 +1,257 @@
+package org.exparity.hamcrest.beans.testutils.graphs;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Deterministic generator of large bean graphs for scale tests. The graph is a
+ * tree of {@link Node}s of a given depth and fan-out in which some nodes also
+ * refer back to one of their ancestors, forming a cycle, and some nodes in the
+ * actual graph have a different value to the same node in the expected graph.
+ * <p>
+ * Nodes are created from the seed as they are read rather than held in
+ * memory, so a graph of millions of nodes costs almost nothing to hold and a
+ * test under a small heap measures the memory used by the matcher rather than
+ * by the graph. Reading the same graph twice gives equal but not identical
+ * nodes, and an ancestor referred to by a back reference is always the same
+ * instance as the one the reference was reached through.
+ * </p>
+ * <p>
+ * The generator is immutable, each change returns a new generator. For
+ * example
+ * </p>
+ *
+ * <pre>
+ * SyntheticGraph graph = SyntheticGraph.withSeed(42).depth(10).fanOut(4).cycleDensity(0.01).mismatchRate(0.001);
+ * assertThat(graph.actual(), not(theSameAs(graph.expected())));
+ * </pre>
+ *
+ * @author Stewart Bissett
+ */
+public final class SyntheticGraph {
+
+	public static SyntheticGraph withSeed(final long seed) {
+		return new SyntheticGraph(seed, 1, 1, 0, 0.0, 0.0);
+	}
+
+	private final long seed;
+	private final int depth, fanOut, collectionSize;
+	private final double cycleDensity, mismatchRate;
+
+	private SyntheticGraph(final long seed, final int depth, final int fanOut, final int collectionSize,
+			final double cycleDensity, final double mismatchRate) {
+		this.seed = seed;
+		this.depth = depth;
+		this.fanOut = fanOut;
+		this.collectionSize = collectionSize;
+		this.cycleDensity = cycleDensity;
+		this.mismatchRate = mismatchRate;
+	}
+
+	/**
+	 * Set the number of levels of nodes, including the root
+	 */
+	public SyntheticGraph depth(final int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Depth must be greater than zero");
+		}
+		return new SyntheticGraph(seed, depth, fanOut, collectionSize, cycleDensity, mismatchRate);
+	}
+
+	/**
+	 * Set the number of children of each node above the last level
+	 */
+	public SyntheticGraph fanOut(final int fanOut) {
+		if (fanOut < 1) {
+			throw new IllegalArgumentException("Fan out must be greater than zero");
+		}
+		return new SyntheticGraph(seed, depth, fanOut, collectionSize, cycleDensity, mismatchRate);
+	}
+
+	/**
+	 * Set the number of tags, a list of strings, held by each node
+	 */
+	public SyntheticGraph collectionSize(final int collectionSize) {
+		if (collectionSize < 0) {
+			throw new IllegalArgumentException("Collection size must not be negative");
+		}
+		return new SyntheticGraph(seed, depth, fanOut, collectionSize, cycleDensity, mismatchRate);
+	}
+
+	/**
+	 * Set the fraction of nodes, other than the root, which refer back to an
+	 * ancestor
+	 */
+	public SyntheticGraph cycleDensity(final double cycleDensity) {
+		return new SyntheticGraph(seed, depth, fanOut, collectionSize, fraction(cycleDensity), mismatchRate);
+	}
+
+	/**
+	 * Set the fraction of nodes in the actual graph whose value differs from
+	 * the expected graph
+	 */
+	public SyntheticGraph mismatchRate(final double mismatchRate) {
+		return new SyntheticGraph(seed, depth, fanOut, collectionSize, cycleDensity, fraction(mismatchRate));
+	}
+
+	/**
+	 * Return the root of the expected graph
+	 */
+	public Node expected() {
+		return new Node(this, null, 0, 0, false);
+	}
+
+	/**
+	 * Return the root of the actual graph, in which some values differ from
+	 * the expected graph by the mismatch rate
+	 */
+	public Node actual() {
+		return new Node(this, null, 0, 0, true);
+	}
+
+	/**
+	 * Return the number of nodes in the graph
+	 */
+	public long size() {
+		long size = 0, level = 1;
+		for (int i = 0; i < depth; ++i) {
+			size += level;
+			level *= fanOut;
+		}
+		return size;
+	}
+
+	/**
+	 * Return the number of nodes whose value differs between the expected and
+	 * the actual graph
+	 */
+	public long mismatches() {
+		long mismatches = 0;
+		for (long id = 0, size = size(); id < size; ++id) {
+			if (isMismatch(id)) {
+				++mismatches;
+			}
+		}
+		return mismatches;
+	}
+
+	private boolean isMismatch(final long id) {
+		return mismatchRate > 0 && unit(mix(seed ^ 0x5DEECE66DL, id)) < mismatchRate;
+	}
+
+	private boolean hasBackReference(final long id) {
+		return cycleDensity > 0 && id > 0 && unit(mix(seed, id)) < cycleDensity;
+	}
+
+	private static double fraction(final double value) {
+		if (value < 0 || value > 1) {
+			throw new IllegalArgumentException("Fraction must be between 0 and 1");
+		}
+		return value;
+	}
+
+	private static double unit(final long hash) {
+		return (hash >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Mix the seed and the id into a well distributed hash, the SplitMix64
+	 * finalizer
+	 */
+	private static long mix(final long seed, final long id) {
+		long z = seed + (id + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+		return z ^ z >>> 31;
+	}
+
+	/**
+	 * A node in a synthetic graph. Nodes are ordered by id so lists of them are
+	 * compared in the order they were generated.
+	 */
+	public static final class Node implements Comparable<Node> {
+
+		private final SyntheticGraph graph;
+		private final Node parent;
+		private final long id;
+		private final int level;
+		private final boolean actual;
+
+		private Node(final SyntheticGraph graph, final Node parent, final long id, final int level,
+				final boolean actual) {
+			this.graph = graph;
+			this.parent = parent;
+			this.id = id;
+			this.level = level;
+			this.actual = actual;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return "Node" + id;
+		}
+
+		public double getValue() {
+			return actual && graph.isMismatch(id) ? id + 0.5 : id;
+		}
+
+		public List<String> getTags() {
+			return new AbstractList<String>() {
+
+				@Override
+				public String get(final int index) {
+					return "Tag" + index;
+				}
+
+				@Override
+				public int size() {
+					return graph.collectionSize;
+				}
+			};
+		}
+
+		public List<Node> getChildren() {
+			final int size = level + 1 < graph.depth ? graph.fanOut : 0;
+			return new AbstractList<Node>() {
+
+				@Override
+				public Node get(final int index) {
+					return new Node(graph, Node.this, id * graph.fanOut + 1 + index, level + 1, actual);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+
+		/**
+		 * Return the ancestor this node refers back to, or <code>null</code>
+		 * if it does not refer back
+		 */
+		public Node getBackReference() {
+			if (!graph.hasBackReference(id)) {
+				return null;
+			}
+			Node ancestor = parent;
+			for (long up = Math.abs(mix(graph.seed, ~id) % level); up > 0; --up) {
+				ancestor = ancestor.parent;
+			}
+			return ancestor;
+		}
+
+		@Override
+		public int compareTo(final Node other) {
+			return Long.compare(id, other.id);
+		}
+
+		@Override
+		public String toString() {
+			return getName();
+		}
+	}
+}